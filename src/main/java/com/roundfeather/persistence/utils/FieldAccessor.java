@@ -0,0 +1,378 @@
+package com.roundfeather.persistence.utils;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import lombok.Getter;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cached getter and setter for a single field.
+ *
+ * <p>
+ *     The access strategy is resolved once per field, following the same rules as {@link ObjectUtils} always has: public
+ *     fields are read and written directly, otherwise the public {@code getX}/{@code setX} methods are used, or the
+ *     component accessor for records. A field with neither is read as {@code null} and writes to it are ignored. When
+ *     possible accessor methods are bound with {@link LambdaMetafactory} so every call is a plain interface call the JIT
+ *     can inline, otherwise a {@link MethodHandle} is invoked
+ * </p>
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740", "squid:S1181"})
+public final class FieldAccessor {
+
+    private static final String LOG_FORMAT = "Can't access field [%s] for [%s]";
+
+    private static final ClassValue<Map<String, FieldAccessor>> CACHE = new ClassValue<>() {
+        @Override
+        protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Function<Object, Object> NO_GETTER = o -> null;
+    private static final BiConsumer<Object, Object> NO_SETTER = (o, v) -> { };
+
+    @Getter
+    private final Field field;
+    private final boolean primitive;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * Gets the accessor for a field, resolving it on first access
+     *
+     * @param f The field to access
+     * @return The cached accessor for the field
+     *
+     * @since 1.4
+     */
+    public static FieldAccessor of(Field f) {
+        return CACHE.get(f.getDeclaringClass()).computeIfAbsent(f.getName(), n -> new FieldAccessor(f));
+    }
+
+    /**
+     * Resolves the getter and setter of a field
+     *
+     * @param f The field to access
+     *
+     * @since 1.4
+     */
+    private FieldAccessor(Field f) {
+        this.field = f;
+        this.primitive = f.getType().isPrimitive();
+
+        MethodHandles.Lookup lookup = lookupFor(f.getDeclaringClass());
+        this.getter = resolveGetter(lookup, f);
+        this.setter = resolveSetter(lookup, f);
+    }
+
+    /**
+     * Gets the value of the field for an object
+     *
+     * @param o Object to get field value from
+     * @return The value of the field, {@code null} if the field can't be read
+     *
+     * @since 1.4
+     */
+    public Object get(Object o) {
+        return getter.apply(o);
+    }
+
+    /**
+     * Sets the value of the field for an object. {@code null} values are ignored for primitive fields
+     *
+     * @param o Object to set field value for
+     * @param v Value to set
+     *
+     * @since 1.4
+     */
+    public void set(Object o, Object v) {
+        if (v == null && primitive) {
+            return;
+        }
+        setter.accept(o, v);
+    }
+
+    /**
+     * If the field can be written to, either with a setter or directly
+     *
+     * @return if the field is writable
+     *
+     * @since 1.4
+     */
+    public boolean isWritable() {
+        return setter != NO_SETTER;
+    }
+
+    /**
+     * Gets a lookup with private access to the class declaring the field, falling back to this class's lookup
+     *
+     * @param c Class declaring the field
+     * @return The lookup to resolve method handles with
+     *
+     * @since 1.4
+     */
+    private static MethodHandles.Lookup lookupFor(Class<?> c) {
+        try {
+            return MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    /**
+     * Resolves how to read a field: directly if public, else with its public getter, else not at all
+     *
+     * @param lookup Lookup to resolve method handles with
+     * @param f Field to read
+     * @return The getter function
+     *
+     * @since 1.4
+     */
+    private static Function<Object, Object> resolveGetter(MethodHandles.Lookup lookup, Field f) {
+        try {
+            if (isPublic(f)) {
+                return fieldGetter(f, unreflectGetter(lookup, f));
+            }
+
+            Method getMethod = f.getDeclaringClass().isRecord()
+                    ? findMethod(f.getDeclaringClass(), f.getName())
+                    : findMethod(f.getDeclaringClass(), "get" + capitalize(f.getName()));
+
+            if (getMethod != null) {
+                return methodGetter(f, lookup, lookup.unreflect(getMethod));
+            }
+        } catch (IllegalAccessException e) {
+            return NO_GETTER;
+        }
+
+        return NO_GETTER;
+    }
+
+    /**
+     * Resolves how to write a field: directly if public and not final, else with its public setter, else not at all
+     *
+     * @param lookup Lookup to resolve method handles with
+     * @param f Field to write
+     * @return The setter function
+     *
+     * @since 1.4
+     */
+    private static BiConsumer<Object, Object> resolveSetter(MethodHandles.Lookup lookup, Field f) {
+        boolean isFinal = Modifier.isFinal(f.getModifiers());
+
+        try {
+            if (isPublic(f) && !isFinal) {
+                return fieldSetter(f, unreflectSetter(lookup, f));
+            }
+
+            Method setMethod = findMethod(f.getDeclaringClass(), "set" + capitalize(f.getName()), f.getType());
+            if (setMethod != null) {
+                return methodSetter(f, lookup, lookup.unreflect(setMethod));
+            }
+        } catch (IllegalAccessException e) {
+            return NO_SETTER;
+        }
+
+        return NO_SETTER;
+    }
+
+    /**
+     * Binds a getter method to a {@link Function}
+     *
+     * @param f Field being read
+     * @param lookup Lookup used to resolve the method handle
+     * @param mh Handle of the getter method
+     * @return The getter function
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> methodGetter(Field f, MethodHandles.Lookup lookup, MethodHandle mh) {
+        if (lookup.hasFullPrivilegeAccess()) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        mh,
+                        mh.type().wrap()
+                );
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable t) {
+                // the class can't host a lambda, the method handle is invoked instead
+            }
+        }
+
+        return fieldGetter(f, mh);
+    }
+
+    /**
+     * Binds a setter method to a {@link BiConsumer}
+     *
+     * @param f Field being written
+     * @param lookup Lookup used to resolve the method handle
+     * @param mh Handle of the setter method
+     * @return The setter function
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> methodSetter(Field f, MethodHandles.Lookup lookup, MethodHandle mh) {
+        if (lookup.hasFullPrivilegeAccess()) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        mh,
+                        MethodType.methodType(void.class, mh.type().parameterType(0), wrap(mh.type().parameterType(1)))
+                );
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable t) {
+                // the class can't host a lambda, the method handle is invoked instead
+            }
+        }
+
+        return fieldSetter(f, mh);
+    }
+
+    /**
+     * Wraps a method handle reading a value in a {@link Function}
+     *
+     * @param f Field being read
+     * @param mh Handle taking the object and returning the value
+     * @return The getter function
+     *
+     * @since 1.4
+     */
+    private static Function<Object, Object> fieldGetter(Field f, MethodHandle mh) {
+        MethodHandle handle = mh.asType(MethodType.methodType(Object.class, Object.class));
+        return o -> {
+            try {
+                return (Object) handle.invokeExact(o);
+            } catch (Throwable t) {
+                throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), t);
+            }
+        };
+    }
+
+    /**
+     * Wraps a method handle writing a value in a {@link BiConsumer}
+     *
+     * @param f Field being written
+     * @param mh Handle taking the object and the value
+     * @return The setter function
+     *
+     * @since 1.4
+     */
+    private static BiConsumer<Object, Object> fieldSetter(Field f, MethodHandle mh) {
+        MethodHandle handle = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (o, v) -> {
+            try {
+                handle.invokeExact(o, v);
+            } catch (Throwable t) {
+                throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), t);
+            }
+        };
+    }
+
+    /**
+     * Gets a handle reading a field directly, taking the object as its only argument even for static fields
+     *
+     * @param lookup Lookup to resolve the handle with
+     * @param f Field to read
+     * @return The handle reading the field
+     * @throws IllegalAccessException if the lookup can't access the field
+     *
+     * @since 1.4
+     */
+    private static MethodHandle unreflectGetter(MethodHandles.Lookup lookup, Field f) throws IllegalAccessException {
+        MethodHandle mh = lookup.unreflectGetter(f);
+        return Modifier.isStatic(f.getModifiers()) ? MethodHandles.dropArguments(mh, 0, Object.class) : mh;
+    }
+
+    /**
+     * Gets a handle writing a field directly, taking the object and the value as arguments even for static fields
+     *
+     * @param lookup Lookup to resolve the handle with
+     * @param f Field to write
+     * @return The handle writing the field
+     * @throws IllegalAccessException if the lookup can't access the field
+     *
+     * @since 1.4
+     */
+    private static MethodHandle unreflectSetter(MethodHandles.Lookup lookup, Field f) throws IllegalAccessException {
+        MethodHandle mh = lookup.unreflectSetter(f);
+        return Modifier.isStatic(f.getModifiers()) ? MethodHandles.dropArguments(mh, 0, Object.class) : mh;
+    }
+
+    /**
+     * Finds a public instance method of a public class, including inherited ones
+     *
+     * @param c Class to search
+     * @param name Name of the method
+     * @param parameterTypes Parameter types of the method
+     * @return The method, {@code null} if not found
+     *
+     * @since 1.4
+     */
+    private static Method findMethod(Class<?> c, String name, Class<?>... parameterTypes) {
+        try {
+            Method m = c.getMethod(name, parameterTypes);
+            return Modifier.isStatic(m.getModifiers()) || !Modifier.isPublic(m.getDeclaringClass().getModifiers()) ? null : m;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * If the field and its class are both public
+     *
+     * @param f Field to check
+     * @return if the field can be accessed directly
+     *
+     * @since 1.4
+     */
+    private static boolean isPublic(Field f) {
+        return Modifier.isPublic(f.getModifiers()) && Modifier.isPublic(f.getDeclaringClass().getModifiers());
+    }
+
+    /**
+     * Gets the wrapper type of a primitive type
+     *
+     * @param c The type to wrap
+     * @return The wrapper type, or the type itself if not primitive
+     *
+     * @since 1.4
+     */
+    private static Class<?> wrap(Class<?> c) {
+        return MethodType.methodType(c).wrap().returnType();
+    }
+
+    /**
+     * Capitalizes the first letter of a field name
+     *
+     * @param name The field name
+     * @return The capitalized name
+     *
+     * @since 1.4
+     */
+    private static String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+}
@@ -1,11 +1,9 @@
 package com.roundfeather.persistence.utils;
 
-import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 
@@ -18,11 +16,13 @@ import java.util.*;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ObjectUtils {
 
-    private static final String LOG_FORMAT = "Can't access field [%s] for [%s]";
-
     /**
      * Gets the value of a field for an object using either a getter or direct access to public fields
      *
+     * <p>
+     *     The access strategy is resolved once per field and cached, see {@link FieldAccessor}
+     * </p>
+     *
      * @param o Object to get field value from
      * @param f Field to get
      * @return The value of the field
@@ -30,61 +30,24 @@ public class ObjectUtils {
      * @since 1.0
      */
     public static Object getFieldValue(Object o, Field f) {
-        if (f.canAccess(o)) {
-            try {
-                return f.get(o);
-            } catch (IllegalAccessException e) {
-                throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), e);
-            }
-        } else {
-            String getMethodName = "get" + f.getName().substring(0, 1).toUpperCase() + f.getName().substring(1);
-            Optional<Method> getMethod = ObjectUtils.getAllMethods(o).stream()
-                    .filter(m -> m.getName().equals(getMethodName))
-                    .findFirst();
-
-            if (!getMethod.isEmpty() && getMethod.get().canAccess(o)) {
-                try {
-                    return getMethod.get().invoke(o);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), e);
-                }
-            } else {
-                return null;
-            }
-        }
+        return FieldAccessor.of(f).get(o);
     }
 
     /**
      * Sets the value of a field for an object using either a setter or direct access to public fields
      *
+     * <p>
+     *     The access strategy is resolved once per field and cached, see {@link FieldAccessor}
+     * </p>
+     *
      * @param o Object to set field value from
      * @param f Field to set
      * @param v Value to set
      *
      * @since 1.0
      */
-    @SuppressWarnings({"squid:S3011"})
     public static void setFieldValue(Object o, Field f, Object v) {
-        if (f.canAccess(o)) {
-            try {
-                f.set(o, v);
-            } catch (IllegalAccessException e) {
-                throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), e);
-            }
-        } else {
-            String setMethodName = "set" + f.getName().substring(0, 1).toUpperCase() + f.getName().substring(1);
-            Optional<Method> setMethod = getAllMethods(o).stream()
-                    .filter(m -> m.getName().equals(setMethodName))
-                    .findFirst();
-
-            if (!setMethod.isEmpty() && setMethod.get().canAccess(o)) {
-                try {
-                    setMethod.get().invoke(o, v);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new PavenSerdeException(String.format(LOG_FORMAT, f.getName(), o.getClass().getName()), e);
-                }
-            }
-        }
+        FieldAccessor.of(f).set(o, v);
     }
 
     /**
@@ -0,0 +1,233 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pools of threads used to run independent Datastore calls concurrently, and the asynchronous repository calls
+ *
+ * <p>
+ *     The number of threads used to run concurrent Datastore calls is set with the
+ *     {@code paven.persistence.loader.threads} property, 8 by default. The number of threads used to run asynchronous
+ *     calls is set with the {@code paven.persistence.async.threads} property, 16 by default
+ * </p>
+ *
+ * <p>
+ *     The number of query result batches read ahead while iterating over large queries is set with the
+ *     {@code paven.persistence.query.prefetch-depth} property, 1 by default, 0 to disable reading ahead
+ * </p>
+ *
+ * @since 1.4
+ */
+@ApplicationScoped
+public class DatastoreExecutor {
+
+    private static final String THREAD_PREFIX = "paven-datastore-";
+    private static final String ASYNC_THREAD_PREFIX = "paven-datastore-async-";
+
+    /**
+     * Marks the threads of the loader pool, set by the pool's thread factory before the thread runs any task
+     */
+    private static final ThreadLocal<Boolean> LOADER_THREAD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    @ConfigProperty(name = "paven.persistence.loader.threads", defaultValue = "8")
+    int threads;
+
+    @ConfigProperty(name = "paven.persistence.async.threads", defaultValue = "16")
+    int asyncThreads;
+
+    @ConfigProperty(name = "paven.persistence.query.prefetch-depth", defaultValue = "1")
+    int prefetchDepth;
+
+    private ExecutorService executor;
+    private ExecutorService asyncExecutor;
+
+    /**
+     * Starts the thread pools
+     *
+     * @since 1.4
+     */
+    @PostConstruct
+    void init() {
+        executor = newPool(THREAD_PREFIX, threads, true);
+        asyncExecutor = newPool(ASYNC_THREAD_PREFIX, asyncThreads, false);
+    }
+
+    /**
+     * Stops the thread pools
+     *
+     * @since 1.4
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        asyncExecutor.shutdownNow();
+    }
+
+    /**
+     * Creates a pool of daemon threads
+     *
+     * @param prefix Prefix of the names of the threads
+     * @param size Number of threads
+     * @param loader If the threads are marked as belonging to the loader pool
+     * @return The thread pool
+     *
+     * @since 1.4
+     */
+    private static ExecutorService newPool(String prefix, int size, boolean loader) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(
+                Math.max(1, size),
+                r -> {
+                    Runnable run = loader ? () -> {
+                        LOADER_THREAD.set(Boolean.TRUE);
+                        r.run();
+                    } : r;
+                    Thread t = new Thread(run, prefix + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+
+    /**
+     * Creates a {@link Uni} running a blocking call on the asynchronous pool when subscribed to
+     *
+     * @param call The blocking call
+     * @return The Uni emitting the result of the call
+     *
+     * @since 1.4
+     */
+    public <T> Uni<T> async(Supplier<T> call) {
+        return Uni.createFrom().item(call).runSubscriptionOn(asyncExecutor);
+    }
+
+    /**
+     * Makes a {@link Multi} subscribe to its source, and request items from it, on the asynchronous pool
+     *
+     * @param multi The Multi running blocking calls
+     * @return The Multi running on the asynchronous pool
+     *
+     * @since 1.4
+     */
+    public <T> Multi<T> async(Multi<T> multi) {
+        return multi.runSubscriptionOn(asyncExecutor);
+    }
+
+    /**
+     * Submits a task to run on the pool
+     *
+     * @param task The task to run
+     * @return The future result of the task
+     *
+     * @since 1.4
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Gets the number of query result batches to read ahead. Reading ahead is disabled on the pool's own threads, so
+     * they never wait for the pool
+     *
+     * @return The number of batches to read ahead, 0 if disabled
+     *
+     * @since 1.4
+     */
+    public int getPrefetchDepth() {
+        return isPoolThread() ? 0 : Math.max(0, prefetchDepth);
+    }
+
+    /**
+     * Runs a list of tasks concurrently and waits for all of them to complete.
+     *
+     * <p>
+     *     A single task, or tasks submitted from one of the pool's own threads, are run on the calling thread so nested
+     *     calls can't exhaust the pool
+     * </p>
+     *
+     * @param tasks The tasks to run
+     * @return The results of the tasks, in the same order as the tasks
+     *
+     * @since 1.4
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        if (tasks.size() <= 1 || isPoolThread()) {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PavenSerdeException("Interrupted while waiting for Datastore calls", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Checks if the current thread belongs to the pool, from the mark set by the pool's thread factory
+     *
+     * @return {@code true} if called from one of the pool's threads
+     *
+     * @since 1.4
+     */
+    private static boolean isPoolThread() {
+        return LOADER_THREAD.get();
+    }
+
+    /**
+     * Runs a task on the calling thread
+     *
+     * @param task The task to run
+     * @return The result of the task
+     *
+     * @since 1.4
+     */
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Converts the failure of a task to an unchecked exception
+     *
+     * @param t The failure
+     * @return The exception to throw
+     *
+     * @since 1.4
+     */
+    private static RuntimeException unwrap(Throwable t) {
+        if (t instanceof RuntimeException re) {
+            return re;
+        }
+        if (t instanceof Error err) {
+            throw err;
+        }
+        return new PavenSerdeException("Failed running Datastore call", t);
+    }
+}
@@ -1,15 +1,33 @@
 package com.roundfeather.persistence.utils.datastore;
 
+import com.google.cloud.Timestamp;
 import com.google.cloud.datastore.*;
+import com.google.cloud.datastore.aggregation.Aggregation;
+import com.google.datastore.v1.QueryResultBatch;
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.annotation.FetchType;
 import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import com.roundfeather.persistence.utils.datastore.metadata.EntityMetadata;
+import com.roundfeather.persistence.utils.datastore.metadata.FieldMetadata;
+import com.roundfeather.persistence.utils.datastore.query.Condition;
+import com.roundfeather.persistence.utils.datastore.query.DatastoreQuery;
+import com.roundfeather.persistence.utils.datastore.query.Sort;
 import io.quarkus.arc.Arc;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 /**
  * Generalized proxy for Datastore
@@ -21,16 +39,25 @@ import java.util.List;
 public class DatastoreOperations {
 
 
+    private static final int LOOKUP_LIMIT = 1000;
+    private static final int MUTATION_LIMIT = 500;
+    private static final int DELETE_WAVE = 16;
+    private static final String KEY_PROPERTY = "__key__";
+    private static final String AGGREGATE_ALIAS = "value";
+
     private static DatastoreOperations instance;
 
     private final EntityManager entityManager;
 
+    private final DatastoreExecutor executor;
+
     @Getter
     private final Datastore datastore;
 
-    private DatastoreOperations(Datastore datastore, EntityManager entityManager) {
+    private DatastoreOperations(Datastore datastore, EntityManager entityManager, DatastoreExecutor executor) {
         this.datastore = datastore;
         this.entityManager = entityManager;
+        this.executor = executor;
     }
 
     /**
@@ -44,18 +71,19 @@ public class DatastoreOperations {
         if (instance == null) {
             instance = new DatastoreOperations(
                     Arc.container().instance(Datastore.class).get(),
-                    Arc.container().instance(EntityManager.class).get()
+                    Arc.container().instance(EntityManager.class).get(),
+                    Arc.container().instance(DatastoreExecutor.class).get()
             );
         }
         return instance;
     }
 
     /**
-     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given class
-     * to get the object corresponding to the given key and list of ancestors
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given
+     * class to get the object corresponding to the given key and list of ancestors
      *
      * <p>
-     *     Ancestors will be applied in the order provided when generating the Datastore query
+     *     Ancestors will be applied in the order provided when generating the Datastore key
      * </p>
      *
      * @param dsNamespace The namespace to query
@@ -67,51 +95,111 @@ public class DatastoreOperations {
      * @since 1.0
      */
     public <T> T get(DatastoreNamespace dsNamespace, Class<T> tp, Key key, List<Ancestor> ancestors) {
-        EntityQuery.Builder builder = Query.newEntityQueryBuilder()
-                .setKind(tp.getAnnotation(DatastoreEntity.class).value())
-                .setNamespace(dsNamespace.getNamespace());
-
-        List<PathElement> pathElements = new ArrayList<>();
+        return get(dsNamespace, tp, key, ancestors, null);
+    }
 
-        if (!ancestors.isEmpty()) {
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given
+     * class to get the object corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the object to return
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @param fetch Fetch type of the external entities, {@code null} to use the one of each field
+     * @return The found object
+     *
+     * @since 1.4
+     */
+    public <T> T get(DatastoreNamespace dsNamespace, Class<T> tp, Key key, List<Ancestor> ancestors, FetchType fetch) {
+        Entity e = datastore.get(entityManager.createKey(dsNamespace, tp, key, ancestors));
 
-            ancestors.stream()
-                    .map(
-                            a -> {
-                                if (a.getType() == KeyType.LONG) {
-                                    return PathElement.of(a.getKind(), a.getId());
-                                } else {
-                                    return PathElement.of(a.getKind(), a.getName());
-                                }
-                            }
-                    )
-                    .forEach(
-                            pathElements::add
-                    );
+        if (e == null) {
+            return null;
         }
 
-        KeyFactory kf = datastore.newKeyFactory()
-                .addAncestors(pathElements)
-                .setNamespace(dsNamespace.getNamespace())
-                .setKind(entityManager.getKind(tp));
+        return entityManager.withExternalEntityBatch(fetch, () -> entityManager.deserialize(dsNamespace, e, tp));
+    }
+
+    /**
+     * Looks up the Datastore entities corresponding to the {@code value()} of the {@link DatastoreEntity} for the given
+     * class to get the objects corresponding to the given key paths
+     *
+     * <p>
+     *     The keys are looked up in chunks of at most 1000 keys, the lookup limit of Datastore, with the chunks running
+     *     concurrently
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects to return
+     * @param keyPaths The key paths of the entities to find
+     * @return The found objects, in the order of the key paths, with {@code null} for the keys not found
+     *
+     * @since 1.4
+     */
+    public <T> List<T> getAll(DatastoreNamespace dsNamespace, Class<T> tp, Collection<KeyPath> keyPaths) {
+        List<com.google.cloud.datastore.Key> keys = keyPaths.stream()
+                .map(kp -> entityManager.createKey(dsNamespace, tp, kp.getKey(), kp.getAncestors()))
+                .toList();
 
-        com.google.cloud.datastore.Key k;
+        List<Callable<List<Entity>>> lookups = chunks(keys, LOOKUP_LIMIT).stream()
+                .map(chunk -> (Callable<List<Entity>>) () -> datastore.fetch(chunk))
+                .toList();
 
-        if (key.getType() == KeyType.LONG) {
-            k = kf.newKey(key.getId());
-        } else {
-            k = kf.newKey(key.getName());
-        }
+        List<Entity> entities = new ArrayList<>(keys.size());
+        executor.invokeAll(lookups).forEach(entities::addAll);
 
-        builder.setFilter(StructuredQuery.PropertyFilter.hasAncestor(k));
+        return entityManager.withExternalEntityBatch(
+                () -> {
+                    List<T> objects = new ArrayList<>(entities.size());
+                    for (Entity e : entities) {
+                        objects.add(e != null ? entityManager.deserialize(dsNamespace, e, tp) : null);
+                    }
+
+                    return objects;
+                }
+        );
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given class
+     * to get the object corresponding to the given key and list of ancestors, and all its descendants of the same kind
+     *
+     * <p>
+     *     Unlike {@link #get(DatastoreNamespace, Class, Key, List)}, which looks the entity up by key, this runs an
+     *     ancestor query
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the object to return
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @return The found object and its descendants
+     *
+     * @since 1.4
+     */
+    public <T> List<T> getIncludingDescendants(DatastoreNamespace dsNamespace, Class<T> tp, Key key, List<Ancestor> ancestors) {
+        EntityQuery.Builder builder = Query.newEntityQueryBuilder()
+                .setKind(entityManager.getKind(tp))
+                .setNamespace(dsNamespace.getNamespace())
+                .setFilter(StructuredQuery.PropertyFilter.hasAncestor(entityManager.createKey(dsNamespace, tp, key, ancestors)));
 
         QueryResults<Entity> results = datastore.run(builder.build());
 
-        if (results.hasNext()) {
-            return entityManager.deserialize(dsNamespace, results.next(), tp);
-        } else {
-            return null;
-        }
+        return entityManager.withExternalEntityBatch(
+                () -> {
+                    List<T> entities = new ArrayList<>();
+                    results.forEachRemaining(
+                            e -> entities.add(entityManager.deserialize(dsNamespace, e, tp))
+                    );
+
+                    return entities;
+                }
+        );
     }
 
     /**
@@ -130,55 +218,204 @@ public class DatastoreOperations {
      * @since 1.0
      */
     public <T> List<T> list(DatastoreNamespace dsNamespace, Class<T> tp, List<Ancestor> ancestors) {
-        EntityQuery.Builder builder = Query.newEntityQueryBuilder()
-                .setKind(tp.getAnnotation(DatastoreEntity.class).value())
-                .setNamespace(dsNamespace.getNamespace());
+        return list(dsNamespace, tp, ancestors, null);
+    }
 
-        if (!ancestors.isEmpty()) {
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given class
+     * to get all objects corresponding to the given list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the object to return
+     * @param ancestors List of ancestors to apply to the query
+     * @param fetch Fetch type of the external entities, {@code null} to use the one of each field
+     * @return List of found objects
+     *
+     * @since 1.4
+     */
+    public <T> List<T> list(DatastoreNamespace dsNamespace, Class<T> tp, List<Ancestor> ancestors, FetchType fetch) {
+        Iterator<Entity> results = run(listQuery(dsNamespace, tp, ancestors));
 
-            List<PathElement> pathElements = new ArrayList<>(ancestors.stream()
-                    .map(
-                            a -> {
-                                if (a.getType() == KeyType.LONG) {
-                                    return PathElement.of(a.getKind(), a.getId());
-                                } else {
-                                    return PathElement.of(a.getKind(), a.getName());
-                                }
-                            }
-                    )
-                    .toList());
+        try {
+            return entityManager.withExternalEntityBatch(
+                    fetch,
+                    () -> {
+                        List<T> entities = new ArrayList<>();
+                        results.forEachRemaining(
+                                e -> entities.add(entityManager.deserialize(dsNamespace, e, tp))
+                        );
 
-            PathElement lastPE = pathElements.get(pathElements.size() - 1);
+                        return entities;
+                    }
+            );
+        } finally {
+            close(results);
+        }
+    }
 
-            Object kv = lastPE.getNameOrId();
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the given class
+     * to get all objects corresponding to the given list of ancestors, reading only some of their fields
+     *
+     * <p>
+     *     Runs a projection query on the properties of the given fields, every other field is left to its default value.
+     *     The key and ancestor fields are always populated, external entities are loaded lazily. Only indexed properties
+     *     can be projected, and an entity is returned once per value of a projected array property
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the object to return
+     * @param fields The Java names of the fields to read
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of found objects, partially populated
+     *
+     * @since 1.4
+     */
+    public <T> List<T> project(DatastoreNamespace dsNamespace, Class<T> tp, Collection<String> fields, List<Ancestor> ancestors) {
+        EntityMetadata metadata = EntityMetadata.of(tp);
+        List<String> properties = projectedProperties(metadata, fields);
 
-            pathElements.remove(pathElements.size() - 1);
+        Iterator<? extends BaseEntity<com.google.cloud.datastore.Key>> results;
+        if (properties.isEmpty()) {
+            QueryResults<com.google.cloud.datastore.Key> keys = datastore.run(keysQuery(dsNamespace, tp, ancestors));
+            results = new Iterator<Entity>() {
+                @Override
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
 
-            KeyFactory kf = datastore.newKeyFactory()
-                    .addAncestors(pathElements)
+                @Override
+                public Entity next() {
+                    return Entity.newBuilder(keys.next()).build();
+                }
+            };
+        } else {
+            ProjectionEntityQuery.Builder builder = Query.newProjectionEntityQueryBuilder()
+                    .setKind(entityManager.getKind(tp))
                     .setNamespace(dsNamespace.getNamespace())
-                    .setKind(lastPE.getKind());
+                    .setProjection(properties.get(0), properties.subList(1, properties.size()).toArray(new String[0]));
 
-            com.google.cloud.datastore.Key k;
-
-            if (kv.getClass() == String.class) {
-                k = kf.newKey((String) kv);
-            } else {
-                k = kf.newKey((Long) kv);
+            if (!ancestors.isEmpty()) {
+                builder.setFilter(StructuredQuery.PropertyFilter.hasAncestor(ancestorKey(dsNamespace, ancestors)));
             }
 
-            builder.setFilter(StructuredQuery.PropertyFilter.hasAncestor(k));
+            results = datastore.run(builder.build());
         }
 
-        QueryResults<Entity> results = datastore.run(builder.build());
+        return entityManager.withExternalEntityBatch(
+                FetchType.LAZY,
+                () -> {
+                    List<T> entities = new ArrayList<>();
+                    results.forEachRemaining(
+                            e -> entities.add(entityManager.deserialize(dsNamespace, toEntity(metadata, e), tp))
+                    );
 
-        List<T> entities = new ArrayList<>();
-        results.forEachRemaining(
-                e -> entities.add(entityManager.deserialize(dsNamespace, e, tp))
+                    return entities;
+                }
         );
+    }
+
+    /**
+     * Checks if an entity exists in the Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the given class, without reading its properties
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entity
+     * @param key The key of the entity
+     * @param ancestors List of ancestors of the entity
+     * @return {@code true} if the entity exists
+     *
+     * @since 1.4
+     */
+    public boolean exists(DatastoreNamespace dsNamespace, Class<?> tp, Key key, List<Ancestor> ancestors) {
+        KeyQuery.Builder builder = Query.newKeyQueryBuilder()
+                .setKind(entityManager.getKind(tp))
+                .setNamespace(dsNamespace.getNamespace())
+                .setFilter(StructuredQuery.PropertyFilter.eq(KEY_PROPERTY, entityManager.createKey(dsNamespace, tp, key, ancestors)));
+
+        return exists(builder);
+    }
+
+    /**
+     * Checks if a custom Datastore query has any result, with a keys only query limited to one result which doesn't read
+     * the properties of the entities
+     *
+     * @param query Custom Datastore Query to check
+     * @return {@code true} if at least one entity matches the query
+     *
+     * @since 1.4
+     */
+    public boolean exists(EntityQuery query) {
+        KeyQuery.Builder builder = Query.newKeyQueryBuilder()
+                .setKind(query.getKind())
+                .setNamespace(query.getNamespace())
+                .setOffset(query.getOffset());
+
+        if (query.getFilter() != null) {
+            builder.setFilter(query.getFilter());
+        }
+        query.getOrderBy().forEach(builder::addOrderBy);
+
+        return exists(builder);
+    }
+
+    /**
+     * Runs a keys only query limited to one result
+     *
+     * @param builder The keys only query, without its limit
+     * @return {@code true} if the query found an entity
+     *
+     * @since 1.4
+     */
+    private boolean exists(KeyQuery.Builder builder) {
+        return datastore.run(builder.setLimit(1).build()).hasNext();
+    }
+
+    /**
+     * Queries the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * given class corresponding to the given list of ancestors, without reading their properties
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of the key paths of the found entities
+     *
+     * @since 1.4
+     */
+    public List<KeyPath> listKeys(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        List<KeyPath> keys = new ArrayList<>();
+        datastore.run(keysQuery(dsNamespace, tp, ancestors)).forEachRemaining(k -> keys.add(toKeyPath(k)));
+
+        return keys;
+    }
+
+    /**
+     * Streams the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * given class corresponding to the given list of ancestors, without reading their properties
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to, on the pool sized with
+     *     {@code paven.persistence.async.threads}
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the key paths of the found entities
+     *
+     * @since 1.4
+     */
+    public Multi<KeyPath> streamKeys(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        KeyQuery query = keysQuery(dsNamespace, tp, ancestors);
 
-        return entities;
+        Multi<KeyPath> keys = Multi.createFrom().<com.google.cloud.datastore.Key>iterable(() -> datastore.run(query))
+                .map(DatastoreOperations::toKeyPath);
 
+        return executor.async(keys);
     }
 
     /**
@@ -199,9 +436,119 @@ public class DatastoreOperations {
      * @since 1.0
      */
     public Object persist(DatastoreNamespace dsNamespace, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors) {
+        return persist(dsNamespace, o, additionalAncestors, prependAdditionalAncestors, SaveMode.RELOAD);
+    }
+
+    /**
+     * Saves an Object  to Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * class of the object with additional Ancestors not found in the object.
+     *
+     * <p>
+     *     If the object does not have a field annotated with {@link DatastoreKey}, it cannot be serialized and written
+     *     to Datastore
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the object to
+     * @param o Object to save
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the object
+     * @param mode How the returned object is built
+     * @return The written object, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    public Object persist(DatastoreNamespace dsNamespace, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors, SaveMode mode) {
         FullEntity e = entityManager.serialize(dsNamespace, o, additionalAncestors, prependAdditionalAncestors);
         Entity pe = datastore.put(e);
-        return entityManager.deserialize(dsNamespace, pe, o.getClass());
+
+        if (canWriteBackKeys(o, mode)) {
+            entityManager.setKeyFields(o, pe);
+            return o;
+        }
+
+        return entityManager.withExternalEntityBatch(() -> entityManager.deserialize(dsNamespace, pe, o.getClass()));
+    }
+
+    /**
+     * Saves Objects to the Datastore entities corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * class of each object with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are serialized concurrently and written in chunks of at most 500 entities, the mutation limit of a
+     *     Datastore commit, with the chunks running concurrently. When several objects have the same key only the last
+     *     one is written
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the objects
+     * @param mode How the returned objects are built
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> persistAll(DatastoreNamespace dsNamespace, Collection<T> objects, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors, SaveMode mode) {
+        List<T> input = List.copyOf(objects);
+
+        List<Callable<List<FullEntity>>> serializations = chunks(input, MUTATION_LIMIT).stream()
+                .map(chunk -> (Callable<List<FullEntity>>) () -> chunk.stream()
+                        .map(o -> entityManager.serialize(dsNamespace, o, additionalAncestors, prependAdditionalAncestors))
+                        .toList())
+                .toList();
+
+        List<FullEntity> entities = new ArrayList<>(input.size());
+        executor.invokeAll(serializations).forEach(entities::addAll);
+
+        Map<com.google.cloud.datastore.Key, Integer> positions = new HashMap<>();
+        List<FullEntity> unique = new ArrayList<>(entities.size());
+        int[] written = new int[entities.size()];
+
+        for (int i = 0; i < entities.size(); i++) {
+            FullEntity e = entities.get(i);
+
+            Integer position = e.getKey() instanceof com.google.cloud.datastore.Key k ? positions.putIfAbsent(k, unique.size()) : null;
+            if (position != null) {
+                unique.set(position, e);
+                written[i] = position;
+            } else {
+                written[i] = unique.size();
+                unique.add(e);
+            }
+        }
+
+        List<Callable<List<Entity>>> puts = chunks(unique, MUTATION_LIMIT).stream()
+                .map(chunk -> (Callable<List<Entity>>) () -> datastore.put(chunk.toArray(new FullEntity[0])))
+                .toList();
+
+        List<Entity> putEntities = new ArrayList<>(unique.size());
+        executor.invokeAll(puts).forEach(putEntities::addAll);
+
+        return entityManager.withExternalEntityBatch(
+                () -> {
+                    Object[] deserialized = new Object[putEntities.size()];
+                    List<T> results = new ArrayList<>(input.size());
+
+                    for (int i = 0; i < input.size(); i++) {
+                        T o = input.get(i);
+                        int position = written[i];
+
+                        if (canWriteBackKeys(o, mode)) {
+                            entityManager.setKeyFields(o, putEntities.get(position));
+                            results.add(o);
+                            continue;
+                        }
+
+                        if (deserialized[position] == null) {
+                            deserialized[position] = entityManager.deserialize(dsNamespace, putEntities.get(position), o.getClass());
+                        }
+                        results.add((T) deserialized[position]);
+                    }
+
+                    return results;
+                }
+        );
     }
 
     /**
@@ -209,24 +556,143 @@ public class DatastoreOperations {
      * the provided class corresponding to the given key and list of ancestors
      *
      * <p>
-     *     Ancestors will be applied in the order provided when generating the Datastore query
+     *     Ancestors will be applied in the order provided when generating the Datastore query. The entity is read before
+     *     being deleted to return it, use {@link #delete(DatastoreNamespace, Class, Key, List, boolean)} with
+     *     {@code returnPrevious} {@code false} to delete it without the read
      * </p>
      *
      * @param dsNamespace Namespace to delete object from
      * @param tp The class of the object to return
      * @param key The unique key of the entity to delete
      * @param ancestors List of ancestors for the entity
-     * @return The deleted object
+     * @return The deleted object, {@code null} if not found
      *
      * @since 1.0
      */
     public <T> T delete(DatastoreNamespace dsNamespace, Class<T> tp, Key key, List<Ancestor> ancestors) {
-        T o = get(dsNamespace, tp, key, ancestors);
-        FullEntity e = entityManager.serialize(dsNamespace, o, List.of(), true);
-        datastore.delete((com.google.cloud.datastore.Key) e.getKey());
+        return delete(dsNamespace, tp, key, ancestors, true);
+    }
+
+    /**
+     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the provided class corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param tp The class of the object to return
+     * @param key The unique key of the entity to delete
+     * @param ancestors List of ancestors for the entity
+     * @param returnPrevious If the entity should be read before deleting it
+     * @return The deleted object, {@code null} if not found or not read
+     *
+     * @since 1.4
+     */
+    public <T> T delete(DatastoreNamespace dsNamespace, Class<T> tp, Key key, List<Ancestor> ancestors, boolean returnPrevious) {
+        T o = returnPrevious ? get(dsNamespace, tp, key, ancestors) : null;
+        datastore.delete(entityManager.createKey(dsNamespace, tp, key, ancestors));
         return o;
     }
 
+    /**
+     * Deletes objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * provided class corresponding to the given key paths, without reading them
+     *
+     * <p>
+     *     The keys are deleted in chunks of at most 500 keys, the mutation limit of a Datastore commit, with the chunks
+     *     running concurrently
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param tp The class of the objects
+     * @param keyPaths The key paths of the entities to delete
+     *
+     * @since 1.4
+     */
+    public void deleteAll(DatastoreNamespace dsNamespace, Class<?> tp, Collection<KeyPath> keyPaths) {
+        List<com.google.cloud.datastore.Key> keys = keyPaths.stream()
+                .map(kp -> entityManager.createKey(dsNamespace, tp, kp.getKey(), kp.getAncestors()))
+                .toList();
+
+        deleteKeys(chunks(keys, MUTATION_LIMIT));
+    }
+
+    /**
+     * Deletes all the objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity}
+     * for the provided class descending from the given list of ancestors, without reading them
+     *
+     * <p>
+     *     The keys are found with a keys only query, and deleted in chunks of at most 500 keys while the query runs. The
+     *     last ancestor itself is never deleted, even when it is of the same kind as the objects
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param tp The class of the objects
+     * @param ancestors List of ancestors of the entities to delete, at least one
+     * @return The number of deleted entities
+     *
+     * @since 1.4
+     */
+    public long deleteByAncestor(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        if (ancestors.isEmpty()) {
+            throw new IllegalArgumentException("At least one ancestor is required");
+        }
+
+        com.google.cloud.datastore.Key ancestorKey = ancestorKey(dsNamespace, ancestors);
+        QueryResults<com.google.cloud.datastore.Key> results = datastore.run(keysQuery(dsNamespace, tp, ancestors));
+
+        long deleted = 0;
+        List<List<com.google.cloud.datastore.Key>> wave = new ArrayList<>();
+        List<com.google.cloud.datastore.Key> chunk = new ArrayList<>(MUTATION_LIMIT);
+
+        while (results.hasNext()) {
+            com.google.cloud.datastore.Key key = results.next();
+            if (key.equals(ancestorKey)) {
+                continue;
+            }
+
+            chunk.add(key);
+            deleted++;
+
+            if (chunk.size() == MUTATION_LIMIT) {
+                wave.add(chunk);
+                chunk = new ArrayList<>(MUTATION_LIMIT);
+
+                if (wave.size() == DELETE_WAVE) {
+                    deleteKeys(wave);
+                    wave = new ArrayList<>();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            wave.add(chunk);
+        }
+        deleteKeys(wave);
+
+        return deleted;
+    }
+
+    /**
+     * Deletes chunks of keys, with the chunks running concurrently
+     *
+     * @param chunks The chunks of keys to delete, each within the mutation limit
+     *
+     * @since 1.4
+     */
+    private void deleteKeys(List<List<com.google.cloud.datastore.Key>> chunks) {
+        List<Callable<Void>> deletes = chunks.stream()
+                .map(chunk -> (Callable<Void>) () -> {
+                    datastore.delete(chunk.toArray(new com.google.cloud.datastore.Key[0]));
+                    return null;
+                })
+                .toList();
+
+        executor.invokeAll(deletes);
+    }
+
     /**
      * Runs a custom Datastore query
      *
@@ -237,13 +703,676 @@ public class DatastoreOperations {
      * @since 1.0
      */
     public <T> List<T> eval(Query query, Class<T> tp) {
-        QueryResults<Entity> results = datastore.run(query);
+        Iterator<Entity> results = run(query);
 
-        List<T> entities = new ArrayList<>();
-        results.forEachRemaining(
-                e -> entities.add(entityManager.deserialize(DatastoreNamespace.of(query.getNamespace()), e, tp))
-        );
+        try {
+            return entityManager.withExternalEntityBatch(
+                    () -> {
+                        List<T> entities = new ArrayList<>();
+                        results.forEachRemaining(
+                                e -> entities.add(entityManager.deserialize(DatastoreNamespace.of(query.getNamespace()), e, tp))
+                        );
+
+                        return entities;
+                    }
+            );
+        } finally {
+            close(results);
+        }
+    }
+
+    /**
+     * Queries a page of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * given class to get the objects corresponding to the given list of ancestors
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects to return
+     * @param ancestors List of ancestors to apply to the query
+     * @param pageSize The maximum number of objects in the page
+     * @param startCursor The end cursor of the previous page, {@code null} for the first page
+     * @return The page of found objects
+     *
+     * @since 1.4
+     */
+    public <T> Page<T> page(DatastoreNamespace dsNamespace, Class<T> tp, List<Ancestor> ancestors, int pageSize, Cursor startCursor) {
+        EntityQuery.Builder builder = listQueryBuilder(dsNamespace, tp, ancestors)
+                .setLimit(pageSize);
+
+        if (startCursor != null) {
+            builder.setStartCursor(startCursor);
+        }
+
+        return page(dsNamespace, builder.build(), tp);
+    }
+
+    /**
+     * Runs a page of a custom Datastore query, replacing its limit, and its start cursor when one is given
+     *
+     * @param query Custom Datastore Query to run.
+     * @param tp The class of the objects to return
+     * @param pageSize The maximum number of objects in the page
+     * @param startCursor The end cursor of the previous page, {@code null} for the first page
+     * @return The page of objects that match the query
+     *
+     * @since 1.4
+     */
+    public <T> Page<T> page(EntityQuery query, Class<T> tp, int pageSize, Cursor startCursor) {
+        EntityQuery.Builder builder = query.toBuilder()
+                .setLimit(pageSize);
+
+        if (startCursor != null) {
+            builder.setStartCursor(startCursor);
+        }
+
+        return page(DatastoreNamespace.of(query.getNamespace()), builder.build(), tp);
+    }
+
+    /**
+     * Runs a query limited to a page
+     *
+     * @param dsNamespace The namespace of the query
+     * @param query The query, with its limit and start cursor set
+     * @param tp The class of the objects to return
+     * @return The page of objects that match the query
+     *
+     * @since 1.4
+     */
+    private <T> Page<T> page(DatastoreNamespace dsNamespace, EntityQuery query, Class<T> tp) {
+        QueryResults<Entity> results = datastore.run(query);
+
+        List<T> items = entityManager.withExternalEntityBatch(
+                () -> {
+                    List<T> entities = new ArrayList<>();
+                    results.forEachRemaining(
+                            e -> entities.add(entityManager.deserialize(dsNamespace, e, tp))
+                    );
+
+                    return entities;
+                }
+        );
+
+        return Page.of(items, results.getCursorAfter(), results.getMoreResults() != QueryResultBatch.MoreResultsType.NO_MORE_RESULTS);
+    }
+
+    /**
+     * Counts the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the given class corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects to count
+     * @param ancestors List of ancestors to apply to the query
+     * @return The number of objects found
+     *
+     * @since 1.4
+     */
+    public long count(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        return count(listQuery(dsNamespace, tp, ancestors));
+    }
+
+    /**
+     * Counts the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * @param query Custom Datastore Query to count the results of
+     * @return The number of results of the query
+     *
+     * @since 1.4
+     */
+    public long count(EntityQuery query) {
+        return aggregate(query, Aggregation.count().as(AGGREGATE_ALIAS).build()).getLong(AGGREGATE_ALIAS);
+    }
+
+    /**
+     * Sums a field of the objects of the Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the given class corresponding to the given list of ancestors, with an aggregation query
+     * run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects
+     * @param field The Java name of the numeric field to sum
+     * @param ancestors List of ancestors to apply to the query
+     * @return The sum, a {@link Long} if all the values are integers, a {@link Double} otherwise
+     *
+     * @since 1.4
+     */
+    public Number sum(DatastoreNamespace dsNamespace, Class<?> tp, String field, List<Ancestor> ancestors) {
+        return sum(listQuery(dsNamespace, tp, ancestors), tp, field);
+    }
+
+    /**
+     * Sums a field of the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * @param query Custom Datastore Query to aggregate the results of
+     * @param tp The class of the objects
+     * @param field The Java name of the numeric field to sum
+     * @return The sum, a {@link Long} if all the values are integers, a {@link Double} otherwise
+     *
+     * @since 1.4
+     */
+    public Number sum(EntityQuery query, Class<?> tp, String field) {
+        String property = propertyName(EntityMetadata.of(tp), field);
+
+        return aggregate(query, Aggregation.sum(property).as(AGGREGATE_ALIAS).build()).getNumber(AGGREGATE_ALIAS);
+    }
+
+    /**
+     * Averages a field of the objects of the Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the given class corresponding to the given list of ancestors, with an aggregation query
+     * run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects
+     * @param field The Java name of the numeric field to average
+     * @param ancestors List of ancestors to apply to the query
+     * @return The average, {@code null} if no object has a numeric value for the field
+     *
+     * @since 1.4
+     */
+    public Double avg(DatastoreNamespace dsNamespace, Class<?> tp, String field, List<Ancestor> ancestors) {
+        return avg(listQuery(dsNamespace, tp, ancestors), tp, field);
+    }
+
+    /**
+     * Averages a field of the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * @param query Custom Datastore Query to aggregate the results of
+     * @param tp The class of the objects
+     * @param field The Java name of the numeric field to average
+     * @return The average, {@code null} if no result has a numeric value for the field
+     *
+     * @since 1.4
+     */
+    public Double avg(EntityQuery query, Class<?> tp, String field) {
+        String property = propertyName(EntityMetadata.of(tp), field);
+
+        return average(aggregate(query, Aggregation.avg(property).as(AGGREGATE_ALIAS).build()));
+    }
+
+    /**
+     * Reads the result of an average aggregation
+     *
+     * <p>
+     *     Datastore returns a null value when no result has a numeric value for the averaged property, and
+     *     {@link AggregationResult#getDouble(String)} fails on any value which isn't a number
+     * </p>
+     *
+     * @param result The result of the aggregation
+     * @return The average, {@code null} if there was no value to average
+     *
+     * @since 1.4
+     */
+    private static Double average(AggregationResult result) {
+        try {
+            return result.getDouble(AGGREGATE_ALIAS);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs an aggregation over the results of a query
+     *
+     * @param query The query to aggregate the results of
+     * @param aggregation The aggregation to compute
+     * @return The result of the aggregation
+     *
+     * @since 1.4
+     */
+    private AggregationResult aggregate(EntityQuery query, Aggregation aggregation) {
+        AggregationQuery aggregationQuery = Query.newAggregationQueryBuilder()
+                .setNamespace(query.getNamespace())
+                .over(query)
+                .addAggregation(aggregation)
+                .build();
+
+        return datastore.runAggregation(aggregationQuery).get(0);
+    }
+
+    /**
+     * Compiles a {@link DatastoreQuery} to a Datastore query, converting the values of its conditions with the serdes of
+     * their fields
+     *
+     * @param query The query to compile
+     * @return The Datastore query
+     * @throws PavenSerdeException if a condition or ordering is on a field which isn't an indexed property
+     *
+     * @since 1.4
+     */
+    public EntityQuery toQuery(DatastoreQuery<?> query) {
+        EntityMetadata metadata = EntityMetadata.of(query.getEntityClass());
+        DatastoreNamespace dsNamespace = query.getNamespace();
+
+        EntityQuery.Builder builder = Query.newEntityQueryBuilder()
+                .setKind(entityManager.getKind(query.getEntityClass()))
+                .setNamespace(dsNamespace.getNamespace());
+
+        List<StructuredQuery.Filter> filters = new ArrayList<>();
+        if (!query.getAncestors().isEmpty()) {
+            filters.add(StructuredQuery.PropertyFilter.hasAncestor(ancestorKey(dsNamespace, query.getAncestors())));
+        }
+        for (Condition<?> c : query.getConditions()) {
+            filters.add(toFilter(metadata, c));
+        }
+
+        if (filters.size() == 1) {
+            builder.setFilter(filters.get(0));
+        } else if (filters.size() > 1) {
+            builder.setFilter(StructuredQuery.CompositeFilter.and(
+                    filters.get(0),
+                    filters.subList(1, filters.size()).toArray(new StructuredQuery.Filter[0])
+            ));
+        }
+
+        for (Sort<?> s : query.getSorts()) {
+            String property = propertyName(metadata, s.getProperty().getName());
+            builder.addOrderBy(s.isDescending() ? StructuredQuery.OrderBy.desc(property) : StructuredQuery.OrderBy.asc(property));
+        }
+
+        if (query.getLimit() != null) {
+            builder.setLimit(query.getLimit());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Streams the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity}
+     * for the given class corresponding to the given list of ancestors
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to, on the pool sized with
+     *     {@code paven.persistence.async.threads}. Entities are deserialized one at a time as the downstream requests them,
+     *     and Datastore result batches are only fetched when needed
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the objects to return
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the found objects
+     *
+     * @since 1.4
+     */
+    public <T> Multi<T> stream(DatastoreNamespace dsNamespace, Class<T> tp, List<Ancestor> ancestors) {
+        return stream(listQuery(dsNamespace, tp, ancestors), tp);
+    }
+
+    /**
+     * Streams the objects matching a custom Datastore query
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to, on the pool sized with
+     *     {@code paven.persistence.async.threads}. Entities are deserialized one at a time as the downstream requests them,
+     *     and Datastore result batches are only fetched when needed. The batches read ahead are cancelled when the
+     *     Multi completes, fails or is cancelled
+     * </p>
+     *
+     * @param query Custom Datastore Query to run.
+     * @param tp The class of the objects to return
+     * @return Multi of the objects that match the query
+     *
+     * @since 1.4
+     */
+    public <T> Multi<T> stream(Query<Entity> query, Class<T> tp) {
+        DatastoreNamespace dsNamespace = DatastoreNamespace.of(query.getNamespace());
+
+        Multi<T> objects = Multi.createFrom().<Entity>deferred(() -> {
+                    Iterator<Entity> results = run(query);
+                    return Multi.createFrom().<Entity>iterable(() -> results)
+                            .onTermination().invoke(() -> close(results));
+                })
+                .map(e -> entityManager.withExternalEntityBatch(() -> entityManager.deserialize(dsNamespace, e, tp)));
+
+        return executor.async(objects);
+    }
+
+    /**
+     * Runs a blocking Datastore operation asynchronously, on the pool sized with {@code paven.persistence.async.threads},
+     * when the returned {@link Uni} is subscribed to
+     *
+     * @param operation The blocking operation
+     * @return The Uni emitting the result of the operation
+     *
+     * @since 1.4
+     */
+    public <T> Uni<T> async(Supplier<T> operation) {
+        return executor.async(operation);
+    }
+
+    /**
+     * Runs a query, reading the next batches of results in the background while iterating when the query allows it
+     *
+     * @param query The query to run
+     * @return Iterator over the results of the query
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("unchecked")
+    private Iterator<Entity> run(Query query) {
+        int depth = executor.getPrefetchDepth();
+
+        if (depth > 0 && query instanceof EntityQuery eq && PrefetchingIterator.supports(eq)) {
+            return new PrefetchingIterator(datastore, executor, eq, depth);
+        }
+
+        return datastore.run(query);
+    }
+
+    /**
+     * Stops the iteration over the results of a query, cancelling the batches read ahead
+     *
+     * @param results Iterator returned by {@link #run(Query)}
+     *
+     * @since 1.4
+     */
+    private static void close(Iterator<Entity> results) {
+        if (results instanceof PrefetchingIterator prefetching) {
+            prefetching.close();
+        }
+    }
+
+    /**
+     * Translates the names of fields to project to the names of their Datastore properties
+     *
+     * @param metadata Metadata of the projected class
+     * @param fields The Java names of the fields to read
+     * @return The property names, without the key and ancestor fields which are read from the key
+     *
+     * @since 1.4
+     */
+    private static List<String> projectedProperties(EntityMetadata metadata, Collection<String> fields) {
+        List<String> properties = new ArrayList<>(fields.size());
+
+        for (String name : fields) {
+            FieldMetadata f = metadata.getField(name);
+
+            if (f != null && (f.isKey() || f.isAncestor())) {
+                continue;
+            }
+
+            String property = propertyName(metadata, name);
+            if (!properties.contains(property)) {
+                properties.add(property);
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Translates the name of a field to the name of its Datastore property, for use in queries
+     *
+     * @param metadata Metadata of the queried class
+     * @param name The Java name of the field
+     * @return The property name
+     * @throws PavenSerdeException if the field doesn't exist or isn't stored as an indexed property
+     *
+     * @since 1.4
+     */
+    private static String propertyName(EntityMetadata metadata, String name) {
+        FieldMetadata f = metadata.getField(name);
+
+        if (f == null) {
+            throw new PavenSerdeException(String.format("Class [%s] has no field [%s]", metadata.getType().getName(), name));
+        }
+        if (f.isKey() || f.isAncestor() || !metadata.getPropertyFields().contains(f) || f.isSubtyped() || f.isExcludeFromIndex()) {
+            throw new PavenSerdeException(String.format("Field [%s] of [%s] isn't an indexed property", name, metadata.getType().getName()));
+        }
+
+        return f.getPropertyName();
+    }
+
+    /**
+     * Converts a projection result to an entity the serdes can read
+     *
+     * <p>
+     *     Datastore returns projected timestamps as integers of microseconds, marked with a meaning. Like
+     *     {@link ProjectionEntity#getTimestamp(String)}, such values are read back as timestamps, for the properties
+     *     decoded by a custom serde since the default serdes never read timestamps
+     * </p>
+     *
+     * @param metadata Metadata of the projected class
+     * @param e The projection result, or the entity built from a key when only keys were read
+     * @return The entity
+     *
+     * @since 1.4
+     */
+    private static Entity toEntity(EntityMetadata metadata, BaseEntity<com.google.cloud.datastore.Key> e) {
+        if (e instanceof Entity entity) {
+            return entity;
+        }
+
+        Entity.Builder builder = Entity.newBuilder(e.getKey());
+        for (String name : e.getNames()) {
+            builder.set(name, projectedValue(metadata, e, name));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Reads the value of a projected property, converting the integers Datastore returns for projected timestamps
+     *
+     * @param metadata Metadata of the projected class
+     * @param e The projection result
+     * @param name The name of the property
+     * @return The value of the property
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("deprecation")
+    private static Value<?> projectedValue(EntityMetadata metadata, BaseEntity<com.google.cloud.datastore.Key> e, String name) {
+        Value<?> v = e.getValue(name);
+
+        if (v instanceof LongValue lv && lv.getMeaning() != 0 && hasCustomSerde(metadata, name)) {
+            return TimestampValue.newBuilder(Timestamp.ofTimeMicroseconds(lv.get()))
+                    .setExcludeFromIndexes(lv.excludeFromIndexes())
+                    .build();
+        }
+
+        return v;
+    }
+
+    /**
+     * Checks if a property is decoded by a custom serde
+     *
+     * @param metadata Metadata of the projected class
+     * @param name The name of the property
+     * @return {@code true} if the field of the property has a custom serde
+     *
+     * @since 1.4
+     */
+    private static boolean hasCustomSerde(EntityMetadata metadata, String name) {
+        return metadata.getPropertyFields().stream()
+                .anyMatch(f -> f.getPropertyName().equals(name) && f.getCustomSerdeClass() != null);
+    }
+
+    /**
+     * Converts a condition of a {@link DatastoreQuery} to a property filter
+     *
+     * @param metadata Metadata of the queried class
+     * @param c The condition
+     * @return The property filter
+     *
+     * @since 1.4
+     */
+    private StructuredQuery.PropertyFilter toFilter(EntityMetadata metadata, Condition<?> c) {
+        String property = propertyName(metadata, c.getProperty().getName());
+        FieldMetadata f = metadata.getField(c.getProperty().getName());
+
+        List<Value<?>> values = c.getValues().stream()
+                .<Value<?>>map(v -> filterValue(f, v))
+                .toList();
+
+        return switch (c.getOperator()) {
+            case EQUAL -> StructuredQuery.PropertyFilter.eq(property, values.get(0));
+            case LESS_THAN -> StructuredQuery.PropertyFilter.lt(property, values.get(0));
+            case LESS_THAN_OR_EQUAL -> StructuredQuery.PropertyFilter.le(property, values.get(0));
+            case GREATER_THAN -> StructuredQuery.PropertyFilter.gt(property, values.get(0));
+            case GREATER_THAN_OR_EQUAL -> StructuredQuery.PropertyFilter.ge(property, values.get(0));
+            case IN -> StructuredQuery.PropertyFilter.in(property, ListValue.of(values));
+        };
+    }
+
+    /**
+     * Converts the value of a condition to a Datastore value, the same way as the value of the field when saving
+     *
+     * @param f The field the condition applies to
+     * @param v The value to convert
+     * @return The Datastore value
+     *
+     * @since 1.4
+     */
+    private Value<?> filterValue(FieldMetadata f, Object v) {
+        if (v == null) {
+            return NullValue.of();
+        }
+        if (f.getCustomSerdeClass() != null) {
+            return f.getCustomSerde().serialize(entityManager, v, false);
+        }
+        return entityManager.createProperty(v, false);
+    }
+
+    /**
+     * Creates the keys-only query for all the entities of a class corresponding to the given list of ancestors
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return The query
+     *
+     * @since 1.4
+     */
+    private KeyQuery keysQuery(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        KeyQuery.Builder builder = Query.newKeyQueryBuilder()
+                .setKind(entityManager.getKind(tp))
+                .setNamespace(dsNamespace.getNamespace());
+
+        if (!ancestors.isEmpty()) {
+            builder.setFilter(StructuredQuery.PropertyFilter.hasAncestor(ancestorKey(dsNamespace, ancestors)));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Converts a Datastore key to the key path of the entity
+     *
+     * @param key The Datastore key
+     * @return The key and ancestors of the entity
+     *
+     * @since 1.4
+     */
+    private static KeyPath toKeyPath(com.google.cloud.datastore.Key key) {
+        List<Ancestor> ancestors = key.getAncestors().stream()
+                .map(pe -> pe.hasId() ? Ancestor.of(pe.getKind(), pe.getId()) : Ancestor.of(pe.getKind(), pe.getName()))
+                .toList();
+
+        return KeyPath.of(key.hasId() ? Key.of(key.getId()) : Key.of(key.getName()), ancestors);
+    }
+
+    /**
+     * Creates the query for all the entities of a class corresponding to the given list of ancestors
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return The query
+     *
+     * @since 1.4
+     */
+    private EntityQuery listQuery(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        return listQueryBuilder(dsNamespace, tp, ancestors).build();
+    }
+
+    /**
+     * Creates the builder of the query for all the entities of a class corresponding to the given list of ancestors
+     *
+     * @param dsNamespace The namespace to query
+     * @param tp The class of the entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return The query builder
+     *
+     * @since 1.4
+     */
+    private EntityQuery.Builder listQueryBuilder(DatastoreNamespace dsNamespace, Class<?> tp, List<Ancestor> ancestors) {
+        EntityQuery.Builder builder = Query.newEntityQueryBuilder()
+                .setKind(entityManager.getKind(tp))
+                .setNamespace(dsNamespace.getNamespace());
+
+        if (!ancestors.isEmpty()) {
+            builder.setFilter(StructuredQuery.PropertyFilter.hasAncestor(ancestorKey(dsNamespace, ancestors)));
+        }
+
+        return builder;
+    }
+
+    /**
+     * Creates the Datastore key of the last of a list of ancestors, with the other ancestors as its path
+     *
+     * @param dsNamespace Namespace of the key
+     * @param ancestors List of ancestors, in order
+     * @return The key of the last ancestor
+     *
+     * @since 1.4
+     */
+    private com.google.cloud.datastore.Key ancestorKey(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        List<PathElement> pathElements = new ArrayList<>(ancestors.stream()
+                .map(
+                        a -> {
+                            if (a.getType() == KeyType.LONG) {
+                                return PathElement.of(a.getKind(), a.getId());
+                            } else {
+                                return PathElement.of(a.getKind(), a.getName());
+                            }
+                        }
+                )
+                .toList());
+
+        PathElement lastPE = pathElements.get(pathElements.size() - 1);
+
+        Object kv = lastPE.getNameOrId();
+
+        pathElements.remove(pathElements.size() - 1);
+
+        KeyFactory kf = datastore.newKeyFactory()
+                .addAncestors(pathElements)
+                .setNamespace(dsNamespace.getNamespace())
+                .setKind(lastPE.getKind());
+
+        if (kv.getClass() == String.class) {
+            return kf.newKey((String) kv);
+        } else {
+            return kf.newKey((Long) kv);
+        }
+    }
+
+    /**
+     * Checks if the keys of a written object can be set on the object instead of reloading it
+     *
+     * @param o The written object
+     * @param mode The requested save mode
+     * @return {@code true} if the key and ancestor values can be written back to the object
+     *
+     * @since 1.4
+     */
+    private static boolean canWriteBackKeys(Object o, SaveMode mode) {
+        return mode == SaveMode.WRITE_BACK_KEYS && EntityMetadata.of(o.getClass()).isKeyWritable();
+    }
+
+    /**
+     * Splits a list in consecutive chunks
+     *
+     * @param values The list to split
+     * @param size The maximum size of a chunk
+     * @return The chunks of the list
+     *
+     * @since 1.4
+     */
+    private static <V> List<List<V>> chunks(List<V> values, int size) {
+        List<List<V>> chunks = new ArrayList<>((values.size() + size - 1) / size);
+        for (int i = 0; i < values.size(); i += size) {
+            chunks.add(values.subList(i, Math.min(i + size, values.size())));
+        }
 
-        return entities;
+        return chunks;
     }
 }
@@ -1,14 +1,24 @@
 package com.roundfeather.persistence.utils.datastore;
 
+import com.google.cloud.datastore.Cursor;
 import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.EntityQuery;
 import com.google.cloud.datastore.Query;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 
-import java.lang.reflect.ParameterizedType;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExternalEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.FetchType;
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.metadata.EntityMetadata;
+import com.roundfeather.persistence.utils.datastore.query.DatastoreQuery;
+import com.roundfeather.persistence.utils.datastore.query.Property;
 
 /**
  * Repository interface for interacting with Google Datastore.
@@ -37,6 +47,34 @@ import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
 @SuppressWarnings({"squid:S3740"})
 public interface DatastoreRepository<E> {
 
+    /**
+     * Gets the class of the objects handled by the repository
+     *
+     * <p>
+     *     Generated repositories return the class directly, otherwise it is resolved once from the type argument of the
+     *     implementation
+     * </p>
+     *
+     * @return The class of {@link E}
+     *
+     * @since 1.4
+     */
+    default Class<E> entityClass() {
+        return RepositoryTypes.entityClass(this.getClass());
+    }
+
+    /**
+     * Gets the Datastore kind of the objects handled by the repository, the {@code value()} of the {@link DatastoreEntity}
+     * for the {@link E}
+     *
+     * @return The Datastore kind
+     *
+     * @since 1.4
+     */
+    default String kind() {
+        return EntityMetadata.of(entityClass()).getKind();
+    }
+
     /**
      * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
      * to get all objects corresponding to the given list of ancestors
@@ -70,19 +108,188 @@ public interface DatastoreRepository<E> {
      * @since 1.0
      */
     default List<E> list(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
-        Class tp = (Class) ((ParameterizedType) this.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0];
-        return DatastoreOperations.getInstance().list(dsNamespace, tp, ancestors);
+        return DatastoreOperations.getInstance().list(dsNamespace, entityClass(), ancestors);
     }
 
     /**
      * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
-     * to get the object corresponding to the given key and list of ancestors
+     * to get all objects corresponding to the given list of ancestors, loading the {@link DatastoreExternalEntity}
+     * fields with the given fetch type instead of the one of each field
      *
      * <p>
      *     Ancestors will be applied in the order provided when generating the Datastore query
      * </p>
      *
      * @param dsNamespace The namespace to query
+     * @param fetch Fetch type of the external entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<E> list(DatastoreNamespace dsNamespace, FetchType fetch, Ancestor... ancestors) {
+        return list(dsNamespace, fetch, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get all objects corresponding to the given list of ancestors, loading the {@link DatastoreExternalEntity}
+     * fields with the given fetch type instead of the one of each field
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param fetch Fetch type of the external entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<E> list(DatastoreNamespace dsNamespace, FetchType fetch, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().list(dsNamespace, entityClass(), ancestors, fetch);
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get all objects corresponding to the given list of ancestors, reading only the given fields
+     *
+     * <p>
+     *     Runs a projection query, so only indexed properties can be read. Fields not requested are left to their
+     *     default value, except the {@link DatastoreKey} and ancestor fields which are always populated
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param fields The Java names of the fields to read
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of partially populated objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<E> project(DatastoreNamespace dsNamespace, Collection<String> fields, Ancestor... ancestors) {
+        return project(dsNamespace, fields, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get all objects corresponding to the given list of ancestors, reading only the given fields
+     *
+     * <p>
+     *     Runs a projection query, so only indexed properties can be read. Fields not requested are left to their
+     *     default value, except the {@link DatastoreKey} and ancestor fields which are always populated
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param fields The Java names of the fields to read
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of partially populated objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<E> project(DatastoreNamespace dsNamespace, Collection<String> fields, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().project(dsNamespace, entityClass(), fields, ancestors);
+    }
+
+    /**
+     * Checks if an object exists in the Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E}, with a keys-only query which doesn't read its properties
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The key of the object
+     * @param ancestors List of ancestors of the object
+     * @return {@code true} if the object exists
+     *
+     * @since 1.4
+     */
+    default boolean exists(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
+        return exists(dsNamespace, key, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Checks if an object exists in the Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E}, with a keys-only query which doesn't read its properties
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The key of the object
+     * @param ancestors List of ancestors of the object
+     * @return {@code true} if the object exists
+     *
+     * @since 1.4
+     */
+    default boolean exists(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().exists(dsNamespace, entityClass(), key, ancestors);
+    }
+
+    /**
+     * Queries the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, with a keys-only query which doesn't read the
+     * properties of the objects
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of the key paths of the objects found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<KeyPath> listKeys(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return listKeys(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Queries the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, with a keys-only query which doesn't read the
+     * properties of the objects
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of the key paths of the objects found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default List<KeyPath> listKeys(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().listKeys(dsNamespace, entityClass(), ancestors);
+    }
+
+    /**
+     * Streams the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, with a keys-only query which doesn't read the
+     * properties of the objects
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the key paths of the objects found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Multi<KeyPath> streamKeys(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return streamKeys(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Streams the keys of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, with a keys-only query which doesn't read the
+     * properties of the objects
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the key paths of the objects found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Multi<KeyPath> streamKeys(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().streamKeys(dsNamespace, entityClass(), ancestors);
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the object corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
      * @param key The unique key of the entity to find
      * @param ancestors List of ancestors to apply to the query
      * @return Object of type {@link E} if found, otherwise null
@@ -94,11 +301,11 @@ public interface DatastoreRepository<E> {
     }
 
     /**
-     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
      * to get the object corresponding to the given key and list of ancestors
      *
      * <p>
-     *     Ancestors will be applied in the order provided when generating the Datastore query
+     *     Ancestors will be applied in the order provided when generating the Datastore key
      * </p>
      *
      * @param dsNamespace The namespace to query
@@ -109,8 +316,147 @@ public interface DatastoreRepository<E> {
      * @since 1.0
      */
     default E find(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
-        Class tp = (Class) ((ParameterizedType) this.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0];
-        return (E) DatastoreOperations.getInstance().get(dsNamespace, tp, key, ancestors);
+        return DatastoreOperations.getInstance().get(dsNamespace, entityClass(), key, ancestors);
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the object corresponding to the given key and list of ancestors, loading the
+     * {@link DatastoreExternalEntity} fields with the given fetch type instead of the one of each field
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param fetch Fetch type of the external entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return Object of type {@link E} if found, otherwise null
+     *
+     * @since 1.4
+     */
+    default E find(DatastoreNamespace dsNamespace, Key key, FetchType fetch, Ancestor... ancestors) {
+        return find(dsNamespace, key, fetch, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the object corresponding to the given key and list of ancestors, loading the
+     * {@link DatastoreExternalEntity} fields with the given fetch type instead of the one of each field
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param fetch Fetch type of the external entities
+     * @param ancestors List of ancestors to apply to the query
+     * @return Object of type {@link E} if found, otherwise null
+     *
+     * @since 1.4
+     */
+    default E find(DatastoreNamespace dsNamespace, Key key, FetchType fetch, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().get(dsNamespace, entityClass(), key, ancestors, fetch);
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the objects corresponding to the given keys, all sharing the same list of ancestors
+     *
+     * <p>
+     *     All the keys are looked up with as few Datastore calls as possible, ancestors will be applied in the order
+     *     provided when generating the Datastore keys
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param keys The unique keys of the entities to find
+     * @param ancestors List of ancestors of the entities
+     * @return Objects of type {@link E} in the order of the keys, {@code null} for the keys not found
+     *
+     * @since 1.4
+     */
+    default List<E> findAll(DatastoreNamespace dsNamespace, Collection<Key> keys, Ancestor... ancestors) {
+        return findAll(dsNamespace, keys, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the objects corresponding to the given keys, all sharing the same list of ancestors
+     *
+     * <p>
+     *     All the keys are looked up with as few Datastore calls as possible, ancestors will be applied in the order
+     *     provided when generating the Datastore keys
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param keys The unique keys of the entities to find
+     * @param ancestors List of ancestors of the entities
+     * @return Objects of type {@link E} in the order of the keys, {@code null} for the keys not found
+     *
+     * @since 1.4
+     */
+    default List<E> findAll(DatastoreNamespace dsNamespace, Collection<Key> keys, List<Ancestor> ancestors) {
+        return findAllByKeyPath(dsNamespace, keys.stream().map(k -> KeyPath.of(k, ancestors)).toList());
+    }
+
+    /**
+     * Looks up the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the objects corresponding to the given key paths, each with its own ancestors
+     *
+     * <p>
+     *     All the keys are looked up with as few Datastore calls as possible
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param keyPaths The key paths of the entities to find
+     * @return Objects of type {@link E} in the order of the key paths, {@code null} for the keys not found
+     *
+     * @since 1.4
+     */
+    default List<E> findAllByKeyPath(DatastoreNamespace dsNamespace, Collection<KeyPath> keyPaths) {
+        return DatastoreOperations.getInstance().getAll(dsNamespace, entityClass(), keyPaths);
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the object corresponding to the given key and list of ancestors, and all its descendants of the same kind
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. Unlike
+     *     {@link #find(DatastoreNamespace, Key, List)}, which is a key lookup, this runs an ancestor query
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of objects of type {@link E} with the given key or descending from it
+     *
+     * @since 1.4
+     */
+    default List<E> findIncludingDescendants(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
+        return findIncludingDescendants(dsNamespace, key, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Queries the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the {@link E}
+     * to get the object corresponding to the given key and list of ancestors, and all its descendants of the same kind
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. Unlike
+     *     {@link #find(DatastoreNamespace, Key, List)}, which is a key lookup, this runs an ancestor query
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @return List of objects of type {@link E} with the given key or descending from it
+     *
+     * @since 1.4
+     */
+    default List<E> findIncludingDescendants(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().getIncludingDescendants(dsNamespace, entityClass(), key, ancestors);
     }
 
     /**
@@ -217,46 +563,788 @@ public interface DatastoreRepository<E> {
      * @since 1.0
      */
     default E save(DatastoreNamespace dsNamespace, E e, boolean prependAdditionalAncestors, List<Ancestor> additionalAncestors) {
-        return (E) DatastoreOperations.getInstance().persist(dsNamespace, e, additionalAncestors, prependAdditionalAncestors);
+        return save(dsNamespace, e, SaveMode.RELOAD, prependAdditionalAncestors, additionalAncestors);
     }
 
     /**
-     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
-     * the {@link E} corresponding to the given key and list of ancestors
+     * Saves an Object of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the object.
      *
      * <p>
-     *     Ancestors will be applied in the order provided when generating the Datastore query
+     *     With {@link SaveMode#WRITE_BACK_KEYS} the generated key and ancestor values are set on the given object, which
+     *     is returned, instead of reading the written entity back
+     * </p>
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the object
      * </p>
      *
-     * @param dsNamespace Namespace to delete object from
-     * @param key The unique key of the entity to delete
-     * @param ancestors List of ancestors for the entity
-     * @return The deleted object of type {@link E}
+     * @param dsNamespace Namespace to write the object to
+     * @param e Object to save
+     * @param mode How the returned object is built
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @return The written object, including any autogenerated key fields
      *
-     * @since 1.0
+     * @since 1.4
      */
-    default E delete(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
-        return delete(dsNamespace, key, Arrays.stream(ancestors).toList());
+    default E save(DatastoreNamespace dsNamespace, E e, SaveMode mode, Ancestor... additionalAncestors) {
+        return save(dsNamespace, e, mode, true, Arrays.stream(additionalAncestors).toList());
     }
 
     /**
-     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
-     * the {@link E} corresponding to the given key and list of ancestors
+     * Saves an Object of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the object.
      *
      * <p>
-     *     Ancestors will be applied in the order provided when generating the Datastore query
+     *     With {@link SaveMode#WRITE_BACK_KEYS} the generated key and ancestor values are set on the given object, which
+     *     is returned, instead of reading the written entity back
      * </p>
      *
-     * @param dsNamespace Namespace to delete object from
-     * @param key The unique key of the entity to delete
-     * @param ancestors List of ancestors for the entity
-     * @return The deleted object of type {@link E}
+     * @param dsNamespace Namespace to write the object to
+     * @param e Object to save
+     * @param mode How the returned object is built
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the object
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @return The written object, including any autogenerated key fields
      *
-     * @since 1.0
+     * @since 1.4
      */
-    default E delete(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
-        Class tp = (Class) ((ParameterizedType) this.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0];
-        return (E) DatastoreOperations.getInstance().delete(dsNamespace, tp, key, ancestors);
+    default E save(DatastoreNamespace dsNamespace, E e, SaveMode mode, boolean prependAdditionalAncestors, List<Ancestor> additionalAncestors) {
+        return (E) DatastoreOperations.getInstance().persist(dsNamespace, e, additionalAncestors, prependAdditionalAncestors, mode);
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the objects
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, Ancestor... additionalAncestors) {
+        return saveAll(dsNamespace, objects, true, Arrays.stream(additionalAncestors).toList());
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the objects
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, List<Ancestor> additionalAncestors) {
+        return saveAll(dsNamespace, objects, true, additionalAncestors);
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the objects
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, boolean prependAdditionalAncestors, Ancestor... additionalAncestors) {
+        return saveAll(dsNamespace, objects, prependAdditionalAncestors, Arrays.stream(additionalAncestors).toList());
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the objects
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, boolean prependAdditionalAncestors, List<Ancestor> additionalAncestors) {
+        return saveAll(dsNamespace, objects, SaveMode.RELOAD, prependAdditionalAncestors, additionalAncestors);
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     * <p>
+     *     With {@link SaveMode#WRITE_BACK_KEYS} the generated key and ancestor values are set on the given objects, which
+     *     are returned, instead of reading the written entities back
+     * </p>
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the objects
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param mode How the returned objects are built
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, SaveMode mode, Ancestor... additionalAncestors) {
+        return saveAll(dsNamespace, objects, mode, true, Arrays.stream(additionalAncestors).toList());
+    }
+
+    /**
+     * Saves Objects of type {@link E} to Datastore entity corresponding to the {@code value()} of the
+     * {@link DatastoreEntity} for the {@link E} with additional Ancestors not found in the objects.
+     *
+     * <p>
+     *     The objects are written in as few Datastore commits as possible. When several objects have the same key only
+     *     the last one is written
+     * </p>
+     * <p>
+     *     With {@link SaveMode#WRITE_BACK_KEYS} the generated key and ancestor values are set on the given objects, which
+     *     are returned, instead of reading the written entities back
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the objects to
+     * @param objects Objects to save
+     * @param mode How the returned objects are built
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the objects
+     * @param additionalAncestors List of ancestors to include when in the Entities' key
+     * @return The written objects in the order of the given objects, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default List<E> saveAll(DatastoreNamespace dsNamespace, Collection<E> objects, SaveMode mode, boolean prependAdditionalAncestors, List<Ancestor> additionalAncestors) {
+        return DatastoreOperations.getInstance().persistAll(dsNamespace, objects, additionalAncestors, prependAdditionalAncestors, mode);
+    }
+
+    /**
+     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. The entity is read before
+     *     being deleted to return it, use {@link #delete(DatastoreNamespace, Key, boolean, List)} with
+     *     {@code returnPrevious} {@code false} to delete it without the read
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param ancestors List of ancestors for the entity
+     * @return The deleted object of type {@link E}, {@code null} if not found
+     *
+     * @since 1.0
+     */
+    default E delete(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
+        return delete(dsNamespace, key, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. The entity is read before
+     *     being deleted to return it, use {@link #delete(DatastoreNamespace, Key, boolean, List)} with
+     *     {@code returnPrevious} {@code false} to delete it without the read
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param ancestors List of ancestors for the entity
+     * @return The deleted object of type {@link E}, {@code null} if not found
+     *
+     * @since 1.0
+     */
+    default E delete(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().delete(dsNamespace, entityClass(), key, ancestors);
+    }
+
+    /**
+     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key. When
+     *     {@code returnPrevious} is {@code false} the entity is deleted without being read
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param returnPrevious If the deleted object should be read and returned
+     * @param ancestors List of ancestors for the entity
+     * @return The deleted object of type {@link E}, {@code null} if not found or not read
+     *
+     * @since 1.4
+     */
+    default E delete(DatastoreNamespace dsNamespace, Key key, boolean returnPrevious, Ancestor... ancestors) {
+        return delete(dsNamespace, key, returnPrevious, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Deletes an object from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given key and list of ancestors
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore key. When
+     *     {@code returnPrevious} is {@code false} the entity is deleted without being read
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param returnPrevious If the deleted object should be read and returned
+     * @param ancestors List of ancestors for the entity
+     * @return The deleted object of type {@link E}, {@code null} if not found or not read
+     *
+     * @since 1.4
+     */
+    default E delete(DatastoreNamespace dsNamespace, Key key, boolean returnPrevious, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().delete(dsNamespace, entityClass(), key, ancestors, returnPrevious);
+    }
+
+    /**
+     * Deletes objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given keys, all sharing the same list of ancestors, without reading them
+     *
+     * <p>
+     *     All the keys are deleted with as few Datastore commits as possible
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param keys The unique keys of the entities to delete
+     * @param ancestors List of ancestors for the entities
+     *
+     * @since 1.4
+     */
+    default void deleteAll(DatastoreNamespace dsNamespace, Collection<Key> keys, Ancestor... ancestors) {
+        deleteAll(dsNamespace, keys, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Deletes objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given keys, all sharing the same list of ancestors, without reading them
+     *
+     * <p>
+     *     All the keys are deleted with as few Datastore commits as possible
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param keys The unique keys of the entities to delete
+     * @param ancestors List of ancestors for the entities
+     *
+     * @since 1.4
+     */
+    default void deleteAll(DatastoreNamespace dsNamespace, Collection<Key> keys, List<Ancestor> ancestors) {
+        deleteAllByKeyPath(dsNamespace, keys.stream().map(k -> KeyPath.of(k, ancestors)).toList());
+    }
+
+    /**
+     * Deletes objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given key paths, each with its own ancestors, without reading them
+     *
+     * <p>
+     *     All the keys are deleted with as few Datastore commits as possible
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param keyPaths The key paths of the entities to delete
+     *
+     * @since 1.4
+     */
+    default void deleteAllByKeyPath(DatastoreNamespace dsNamespace, Collection<KeyPath> keyPaths) {
+        DatastoreOperations.getInstance().deleteAll(dsNamespace, entityClass(), keyPaths);
+    }
+
+    /**
+     * Deletes all objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} descending from the given list of ancestors, without reading them
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. The last ancestor itself
+     *     is never deleted, even when it is of the same kind as {@link E}
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param ancestors List of ancestors of the entities to delete, at least one
+     * @return The number of deleted entities
+     *
+     * @since 1.4
+     */
+    default long deleteByAncestor(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return deleteByAncestor(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Deletes all objects from Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} descending from the given list of ancestors, without reading them
+     *
+     * <p>
+     *     Ancestors will be applied in the order provided when generating the Datastore query. The last ancestor itself
+     *     is never deleted, even when it is of the same kind as {@link E}
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete objects from
+     * @param ancestors List of ancestors of the entities to delete, at least one
+     * @return The number of deleted entities
+     *
+     * @since 1.4
+     */
+    default long deleteByAncestor(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().deleteByAncestor(dsNamespace, entityClass(), ancestors);
+    }
+
+    /**
+     * Asynchronous version of {@link #find(DatastoreNamespace, Key, List)}, running on a dedicated pool when the
+     * returned {@link Uni} is subscribed to
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @return Uni emitting the object of type {@link E} if found, otherwise null
+     *
+     * @since 1.4
+     */
+    default Uni<E> findAsync(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
+        return findAsync(dsNamespace, key, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #find(DatastoreNamespace, Key, List)}, running on a dedicated pool when the
+     * returned {@link Uni} is subscribed to
+     *
+     * @param dsNamespace The namespace to query
+     * @param key The unique key of the entity to find
+     * @param ancestors List of ancestors to apply to the query
+     * @return Uni emitting the object of type {@link E} if found, otherwise null
+     *
+     * @since 1.4
+     */
+    default Uni<E> findAsync(DatastoreNamespace dsNamespace, Key key, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().async(() -> find(dsNamespace, key, ancestors));
+    }
+
+    /**
+     * Asynchronous version of {@link #list(DatastoreNamespace, List)}, running on a dedicated pool when the returned
+     * {@link Uni} is subscribed to
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Uni emitting the list of objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Uni<List<E>> listAsync(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return listAsync(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #list(DatastoreNamespace, List)}, running on a dedicated pool when the returned
+     * {@link Uni} is subscribed to
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Uni emitting the list of objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Uni<List<E>> listAsync(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().async(() -> list(dsNamespace, ancestors));
+    }
+
+    /**
+     * Asynchronous version of {@link #save(DatastoreNamespace, Object, Ancestor...)}, running on a dedicated pool when
+     * the returned {@link Uni} is subscribed to
+     *
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the object
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the object to
+     * @param e Object to save
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @return Uni emitting the written object, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default Uni<E> saveAsync(DatastoreNamespace dsNamespace, E e, Ancestor... additionalAncestors) {
+        return saveAsync(dsNamespace, e, SaveMode.RELOAD, true, Arrays.stream(additionalAncestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #save(DatastoreNamespace, Object, SaveMode, boolean, List)}, running on a dedicated
+     * pool when the returned {@link Uni} is subscribed to
+     *
+     * <p>
+     *     The addition ancestors will be prepended to the ancestors in the object
+     * </p>
+     *
+     * @param dsNamespace Namespace to write the object to
+     * @param e Object to save
+     * @param mode How the returned object is built
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @return Uni emitting the written object, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default Uni<E> saveAsync(DatastoreNamespace dsNamespace, E e, SaveMode mode, Ancestor... additionalAncestors) {
+        return saveAsync(dsNamespace, e, mode, true, Arrays.stream(additionalAncestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #save(DatastoreNamespace, Object, SaveMode, boolean, List)}, running on a dedicated
+     * pool when the returned {@link Uni} is subscribed to
+     *
+     * @param dsNamespace Namespace to write the object to
+     * @param e Object to save
+     * @param mode How the returned object is built
+     * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the object
+     * @param additionalAncestors List of ancestors to include when in the Entity's key
+     * @return Uni emitting the written object, including any autogenerated key fields
+     *
+     * @since 1.4
+     */
+    default Uni<E> saveAsync(DatastoreNamespace dsNamespace, E e, SaveMode mode, boolean prependAdditionalAncestors, List<Ancestor> additionalAncestors) {
+        return DatastoreOperations.getInstance().async(() -> save(dsNamespace, e, mode, prependAdditionalAncestors, additionalAncestors));
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(DatastoreNamespace, Key, Ancestor...)}, running on a dedicated pool when
+     * the returned {@link Uni} is subscribed to
+     *
+     * <p>
+     *     The entity is read before being deleted to emit it, use
+     *     {@link #deleteAsync(DatastoreNamespace, Key, boolean, List)} with {@code returnPrevious} {@code false} to
+     *     delete it without the read
+     * </p>
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param ancestors List of ancestors for the entity
+     * @return Uni emitting the deleted object of type {@link E}, {@code null} if not found
+     *
+     * @since 1.4
+     */
+    default Uni<E> deleteAsync(DatastoreNamespace dsNamespace, Key key, Ancestor... ancestors) {
+        return deleteAsync(dsNamespace, key, true, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(DatastoreNamespace, Key, boolean, List)}, running on a dedicated pool when
+     * the returned {@link Uni} is subscribed to
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param returnPrevious If the deleted object should be read and returned
+     * @param ancestors List of ancestors for the entity
+     * @return Uni emitting the deleted object of type {@link E}, {@code null} if not found or not read
+     *
+     * @since 1.4
+     */
+    default Uni<E> deleteAsync(DatastoreNamespace dsNamespace, Key key, boolean returnPrevious, Ancestor... ancestors) {
+        return deleteAsync(dsNamespace, key, returnPrevious, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Asynchronous version of {@link #delete(DatastoreNamespace, Key, boolean, List)}, running on a dedicated pool when
+     * the returned {@link Uni} is subscribed to
+     *
+     * @param dsNamespace Namespace to delete object from
+     * @param key The unique key of the entity to delete
+     * @param returnPrevious If the deleted object should be read and returned
+     * @param ancestors List of ancestors for the entity
+     * @return Uni emitting the deleted object of type {@link E}, {@code null} if not found or not read
+     *
+     * @since 1.4
+     */
+    default Uni<E> deleteAsync(DatastoreNamespace dsNamespace, Key key, boolean returnPrevious, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().async(() -> delete(dsNamespace, key, returnPrevious, ancestors));
+    }
+
+    /**
+     * Queries a page of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} to get the objects corresponding to the given list of ancestors
+     *
+     * <p>
+     *     The next page is queried with the {@link Page#getEndCursor()} of the previous one, while
+     *     {@link Page#isMoreResults()} is {@code true}
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @param pageSize The maximum number of objects in the page
+     * @param startCursor The end cursor of the previous page, {@code null} for the first page
+     * @return The page of objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Page<E> page(DatastoreNamespace dsNamespace, List<Ancestor> ancestors, int pageSize, Cursor startCursor) {
+        return DatastoreOperations.getInstance().page(dsNamespace, entityClass(), ancestors, pageSize, startCursor);
+    }
+
+    /**
+     * Runs a page of a custom Datastore query
+     *
+     * <p>
+     *     The limit of the query is replaced by the page size. The next page is queried with the
+     *     {@link Page#getEndCursor()} of the previous one, while {@link Page#isMoreResults()} is {@code true}
+     * </p>
+     *
+     * @param query Custom Datastore Query to run.
+     * @param pageSize The maximum number of objects in the page
+     * @param startCursor The end cursor of the previous page, {@code null} for the first page
+     * @return The page of objects of type {@link E} that match the query
+     *
+     * @since 1.4
+     */
+    default Page<E> page(EntityQuery query, int pageSize, Cursor startCursor) {
+        return DatastoreOperations.getInstance().page(query, entityClass(), pageSize, startCursor);
+    }
+
+    /**
+     * Creates a query on the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E}, filtered, ordered and limited by Datastore
+     *
+     * <p>
+     *     Conditions and orderings are built with the {@link Property} constants of the generated {@code <Entity>_}
+     *     metamodel, e.g. {@code repository.query(ns).where(MyObject_.status.eq("ACTIVE")).list()}
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @return The query
+     *
+     * @since 1.4
+     */
+    default DatastoreQuery<E> query(DatastoreNamespace dsNamespace) {
+        return DatastoreQuery.of(dsNamespace, entityClass());
+    }
+
+    /**
+     * Counts the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return The number of objects found
+     *
+     * @since 1.4
+     */
+    default long count(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return count(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Counts the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return The number of objects found
+     *
+     * @since 1.4
+     */
+    default long count(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().count(dsNamespace, entityClass(), ancestors);
+    }
+
+    /**
+     * Counts the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * <p>
+     *     Use it to aggregate over objects matching property filters
+     * </p>
+     *
+     * @param query Custom Datastore Query to aggregate the results of
+     * @return The number of objects found
+     *
+     * @since 1.4
+     */
+    default long count(EntityQuery query) {
+        return DatastoreOperations.getInstance().count(query);
+    }
+
+    /**
+     * Sums a field of the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param field The Java name of the numeric field to sum
+     * @param ancestors List of ancestors to apply to the query
+     * @return The sum, a {@link Long} if all the values are integers, a {@link Double} otherwise
+     *
+     * @since 1.4
+     */
+    default Number sum(DatastoreNamespace dsNamespace, String field, Ancestor... ancestors) {
+        return sum(dsNamespace, field, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Sums a field of the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param field The Java name of the numeric field to sum
+     * @param ancestors List of ancestors to apply to the query
+     * @return The sum, a {@link Long} if all the values are integers, a {@link Double} otherwise
+     *
+     * @since 1.4
+     */
+    default Number sum(DatastoreNamespace dsNamespace, String field, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().sum(dsNamespace, entityClass(), field, ancestors);
+    }
+
+    /**
+     * Sums a field of the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * <p>
+     *     Use it to aggregate over objects matching property filters
+     * </p>
+     *
+     * @param query Custom Datastore Query to aggregate the results of
+     * @param field The Java name of the numeric field to sum
+     * @return The sum, a {@link Long} if all the values are integers, a {@link Double} otherwise
+     *
+     * @since 1.4
+     */
+    default Number sum(EntityQuery query, String field) {
+        return DatastoreOperations.getInstance().sum(query, entityClass(), field);
+    }
+
+    /**
+     * Averages a field of the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param field The Java name of the numeric field to avg
+     * @param ancestors List of ancestors to apply to the query
+     * @return The average, {@code null} if no object has a numeric value for the field
+     *
+     * @since 1.4
+     */
+    default Double avg(DatastoreNamespace dsNamespace, String field, Ancestor... ancestors) {
+        return avg(dsNamespace, field, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Averages a field of the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for the
+     * {@link E} corresponding to the given list of ancestors, with an aggregation query run by Datastore
+     *
+     * @param dsNamespace The namespace to query
+     * @param field The Java name of the numeric field to avg
+     * @param ancestors List of ancestors to apply to the query
+     * @return The average, {@code null} if no object has a numeric value for the field
+     *
+     * @since 1.4
+     */
+    default Double avg(DatastoreNamespace dsNamespace, String field, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().avg(dsNamespace, entityClass(), field, ancestors);
+    }
+
+    /**
+     * Averages a field of the results of a custom Datastore query, with an aggregation query run by Datastore
+     *
+     * <p>
+     *     Use it to aggregate over objects matching property filters
+     * </p>
+     *
+     * @param query Custom Datastore Query to aggregate the results of
+     * @param field The Java name of the numeric field to avg
+     * @return The average, {@code null} if no object has a numeric value for the field
+     *
+     * @since 1.4
+     */
+    default Double avg(EntityQuery query, String field) {
+        return DatastoreOperations.getInstance().avg(query, entityClass(), field);
+    }
+
+    /**
+     * Streams the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, without holding all of them in memory
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to. Objects are read and emitted as the downstream
+     *     requests them
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Multi<E> stream(DatastoreNamespace dsNamespace, Ancestor... ancestors) {
+        return stream(dsNamespace, Arrays.stream(ancestors).toList());
+    }
+
+    /**
+     * Streams the objects of the Datastore entity corresponding to the {@code value()} of the {@link DatastoreEntity} for
+     * the {@link E} corresponding to the given list of ancestors, without holding all of them in memory
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to. Objects are read and emitted as the downstream
+     *     requests them
+     * </p>
+     *
+     * @param dsNamespace The namespace to query
+     * @param ancestors List of ancestors to apply to the query
+     * @return Multi of the objects of type {@link E} found in Datastore with the given ancestors
+     *
+     * @since 1.4
+     */
+    default Multi<E> stream(DatastoreNamespace dsNamespace, List<Ancestor> ancestors) {
+        return DatastoreOperations.getInstance().stream(dsNamespace, entityClass(), ancestors);
+    }
+
+    /**
+     * Streams the objects matching a custom Datastore query, without holding all of them in memory
+     *
+     * <p>
+     *     The query runs when the returned {@link Multi} is subscribed to. Objects are read and emitted as the downstream
+     *     requests them
+     * </p>
+     *
+     * @param query Custom Datastore Query to run.
+     * @return Multi of the objects of type {@link E} that match the query
+     *
+     * @since 1.4
+     */
+    default Multi<E> stream(Query<Entity> query) {
+        return DatastoreOperations.getInstance().stream(query, entityClass());
     }
 
     /**
@@ -268,8 +1356,7 @@ public interface DatastoreRepository<E> {
      * @since 1.0
      */
     default List<E> eval(Query query) {
-        Class tp = (Class) ((ParameterizedType) this.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[0];
-        return DatastoreOperations.getInstance().eval(query, tp);
+        return DatastoreOperations.getInstance().eval(query, entityClass());
     }
 
     /**
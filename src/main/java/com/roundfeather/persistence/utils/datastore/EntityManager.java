@@ -1,22 +1,29 @@
 package com.roundfeather.persistence.utils.datastore;
 
 import static com.roundfeather.persistence.utils.ObjectUtils.getFieldValue;
-import static com.roundfeather.persistence.utils.ObjectUtils.setFieldValue;
 
 import com.google.cloud.datastore.*;
-import com.roundfeather.persistence.utils.ObjectUtils;
 import com.roundfeather.persistence.utils.datastore.annotation.*;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import com.roundfeather.persistence.utils.datastore.metadata.EntityMetadata;
+import com.roundfeather.persistence.utils.datastore.metadata.FieldMetadata;
 import com.roundfeather.persistence.utils.datastore.serde.impl.EntitySerde;
+import com.roundfeather.persistence.utils.datastore.serde.CustomSerdeResolver;
 import com.roundfeather.persistence.utils.datastore.serde.DataStoreObjectSerde;
+import com.roundfeather.persistence.utils.datastore.serde.EntityCodec;
+import com.roundfeather.persistence.utils.datastore.serde.SerdeRegistry;
 import io.quarkus.arc.All;
-import io.quarkus.arc.Arc;
+import io.quarkus.arc.InstanceHandle;
 import io.quarkus.runtime.Startup;
-import io.smallrye.mutiny.tuples.Tuple2;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Entity Manager class for translating Datastore Entities to and from POJO objects
@@ -32,19 +39,111 @@ public class EntityManager {
     Datastore datastore;
 
     @Inject
-    @All
-    List<DataStoreObjectSerde<?>> serdes;
+    SerdeRegistry serdeRegistry;
 
     @Inject
     @All
-    List<ChildAncestorsFactory<?>> ancestorsFactories;
+    List<InstanceHandle<ChildAncestorsFactory<?>>> ancestorsFactories;
 
     @Inject
     EntitySerde defaultSerde;
 
     @Inject
     @All
-    private List<DatastoreRepository<?>> repos;
+    List<InstanceHandle<DatastoreRepository<?>>> repos;
+
+    @Inject
+    @All
+    List<EntityCodec<?>> codecs;
+
+    @Inject
+    DatastoreExecutor executor;
+
+    private Map<Class<?>, InstanceHandle<ChildAncestorsFactory<?>>> ancestorsFactoriesByType;
+
+    private Map<Class<?>, EntityCodec> codecsByType;
+
+    private Map<Class<?>, InstanceHandle<DatastoreRepository<?>>> reposByType;
+
+    /**
+     * Indexes the generated {@link EntityCodec}s by the class they convert, the {@link DatastoreRepository}s by the
+     * class they handle and the {@link ChildAncestorsFactory}s by their class, and makes the {@link CustomSerdeResolver}
+     * resolve custom serdes from this container
+     *
+     * <p>
+     *     Repositories are indexed by the type argument of their bean type, so no repository is created before it is
+     *     used. Repositories whose type argument isn't a class, e.g. generic ones, aren't indexed. Likewise each
+     *     {@link ChildAncestorsFactory} is created on first use, and only once for this container
+     * </p>
+     *
+     * @since 1.4
+     */
+    @PostConstruct
+    void init() {
+        CustomSerdeResolver.reset();
+        codecsByType = codecs.stream()
+                .collect(Collectors.toUnmodifiableMap(EntityCodec::getType, c -> c, (c1, c2) -> c1));
+
+        Map<Class<?>, InstanceHandle<DatastoreRepository<?>>> byType = new HashMap<>();
+        for (InstanceHandle<DatastoreRepository<?>> repo : repos) {
+            Class<?> tp = entityClass(repo.getBean().getTypes());
+            if (tp != null) {
+                byType.putIfAbsent(tp, repo);
+            }
+        }
+        reposByType = Map.copyOf(byType);
+
+        ancestorsFactoriesByType = ancestorsFactories.stream()
+                .collect(Collectors.toUnmodifiableMap(h -> h.getBean().getBeanClass(), h -> h, (h1, h2) -> h1));
+    }
+
+    /**
+     * Releases the {@link ChildAncestorsFactory} instances used for external entity fields, destroying the
+     * {@code @Dependent} ones
+     *
+     * @since 1.4
+     */
+    @PreDestroy
+    void destroy() {
+        ancestorsFactories.forEach(InstanceHandle::close);
+    }
+
+    /**
+     * Gets the class of the entities handled by a repository bean from its bean types
+     *
+     * @param types The bean types of the repository
+     * @return The type argument of {@link DatastoreRepository}, {@code null} if it isn't a class
+     *
+     * @since 1.4
+     */
+    private static Class<?> entityClass(Set<Type> types) {
+        for (Type t : types) {
+            if (t instanceof ParameterizedType pt && pt.getRawType() == DatastoreRepository.class
+                    && pt.getActualTypeArguments()[0] instanceof Class<?> c) {
+                return c;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the repository handling a class
+     *
+     * @param tp The class of the entities
+     * @return The repository for the class
+     *
+     * @since 1.4
+     */
+    public DatastoreRepository<?> getRepository(Class<?> tp) {
+        InstanceHandle<DatastoreRepository<?>> repo = reposByType.get(tp);
+
+        if (repo == null) {
+            throw new PavenSerdeException(String.format("No repository found for [%s]", tp.getName()));
+        }
+
+        return repo.get();
+    }
 
     /**
      * Converts a POJO object to a Datastore {@link FullEntity}
@@ -58,7 +157,12 @@ public class EntityManager {
      * @since 1.0
      */
     public FullEntity serialize(DatastoreNamespace dsNamespace, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors) {
-        IncompleteKey key = createKey(dsNamespace, o, additionalAncestors, prependAdditionalAncestors);
+        EntityCodec codec = codecsByType.get(o.getClass());
+        IncompleteKey key = createKey(dsNamespace, o, additionalAncestors, prependAdditionalAncestors, codec);
+
+        if (codec != null) {
+            return codec.serialize(this, o, key);
+        }
 
         return createEntity(o, key);
     }
@@ -90,68 +194,51 @@ public class EntityManager {
     }
 
     /**
-     * Injects ancestors into the provided {@link KeyFactory} from the provided object and additional ancestors list
+     * Injects ancestors into the provided {@link KeyFactory} from the provided object ancestors and additional ancestors list
      *
      * @param keyFactory The KeyFactory to add ancestors too
-     * @param o The object the extract ancestor fields from
+     * @param objectAncestors List of ancestors extracted from the object, ordered
      * @param additionalAncestors List of ancestors to include when in the Entity's key
      * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the object
      *
      * @since 1.0
      */
-    private void addKeyAncestors(KeyFactory keyFactory, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors) {
-        Map<Integer, Ancestor> ancestors = new HashMap<>();
+    private void addKeyAncestors(KeyFactory keyFactory, List<Ancestor> objectAncestors, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors) {
+        List<Ancestor> ancestors = new ArrayList<>(objectAncestors.size() + additionalAncestors.size());
 
-        int ancestorOffset;
         if (prependAdditionalAncestors) {
-            ancestorOffset = additionalAncestors.size();
+            ancestors.addAll(additionalAncestors);
+            ancestors.addAll(objectAncestors);
         } else {
-            ancestorOffset = 0;
+            ancestors.addAll(objectAncestors);
+            ancestors.addAll(additionalAncestors);
         }
 
-        Arrays.stream(o.getClass().getDeclaredFields())
-                .forEach(
-                        f -> {
-                            DatastoreAncestor ancestorAnnotation = f.getAnnotation(DatastoreAncestor.class);
-                            if (ancestorAnnotation != null) {
-                                ancestors.put(ancestorAnnotation.order() + ancestorOffset, Ancestor.of(ancestorAnnotation, getFieldValue(o, f)));
-                            }
-                        }
-                );
-
-        int j = 1;
-        int ancestorsCount = ancestors.size();
-
-        for (Ancestor a: additionalAncestors) {
-            int order = j;
-            if (!prependAdditionalAncestors) {
-                order = order + ancestorsCount;
-            }
-
-            ancestors.put(order, a);
-
-            j = j + 1;
-        }
-
-
-        List<Integer> ancestorsIds = new ArrayList<>(ancestors.keySet());
-        Collections.sort(ancestorsIds);
-
-        ancestorsIds.forEach(
-                i -> {
-                    if (ancestors.get(i).getType() == KeyType.LONG) {
-                        keyFactory.addAncestor(PathElement.of(
-                                ancestors.get(i).getKind(), ancestors.get(i).getId()
-                        ));
+        ancestors.forEach(
+                a -> {
+                    if (a.getType() == KeyType.LONG) {
+                        keyFactory.addAncestor(PathElement.of(a.getKind(), a.getId()));
                     } else {
-                        keyFactory.addAncestor(PathElement.of(
-                                ancestors.get(i).getKind(), ancestors.get(i).getName()
-                        ));
+                        keyFactory.addAncestor(PathElement.of(a.getKind(), a.getName()));
                     }
                 }
         );
     }
 
+    /**
+     * Extracts the ancestors of an object from its fields annotated with {@link DatastoreAncestor}
+     *
+     * @param o The object the extract ancestor fields from
+     * @return The ancestors of the object, ordered by {@link DatastoreAncestor#order()}
+     *
+     * @since 1.4
+     */
+    private List<Ancestor> getAncestors(Object o) {
+        return EntityMetadata.of(o.getClass()).getAncestorFields().stream()
+                .map(f -> Ancestor.of(f.getDatastoreAncestor(), f.getValue(o)))
+                .toList();
+    }
+
     /**
      * Creates a key from a {@link KeyFactory} by injected the id from the object or generate the default if none found
      *
@@ -162,29 +249,20 @@ public class EntityManager {
      * @since 1.0
      */
     private IncompleteKey addKeyValue(KeyFactory keyFactory, Object o) {
-        List<Tuple2<DatastoreKey, Object>> idFields = new ArrayList<>();
-
-        Arrays.stream(o.getClass().getDeclaredFields())
-                .forEach(
-                        f -> {
-                            DatastoreKey key = f.getAnnotation(DatastoreKey.class);
-                            if (key != null) {
-                                idFields.add(Tuple2.of(key, getFieldValue(o, f)));
-                            }
-                        }
-                );
+        FieldMetadata keyField = EntityMetadata.of(o.getClass()).getKeyField();
 
-        if (idFields.isEmpty()) {
+        if (keyField == null) {
             return keyFactory.newKey();
         } else {
-            if (idFields.get(0).getItem1().keyType() == KeyType.LONG) {
-                if (idFields.get(0).getItem2() != null && (long) idFields.get(0).getItem2() != 0L) {
-                    return keyFactory.newKey((long) idFields.get(0).getItem2());
+            Object keyValue = keyField.getValue(o);
+            if (keyField.getDatastoreKey().keyType() == KeyType.LONG) {
+                if (keyValue != null && (long) keyValue != 0L) {
+                    return keyFactory.newKey((long) keyValue);
                 }
                 return keyFactory.newKey();
             } else {
-                if (idFields.get(0).getItem2() != null && !idFields.get(0).getItem2().equals("")) {
-                    return keyFactory.newKey((String) idFields.get(0).getItem2());
+                if (keyValue != null && !keyValue.equals("")) {
+                    return keyFactory.newKey((String) keyValue);
                 }
                 return keyFactory.newKey(UUID.randomUUID().toString());
             }
@@ -198,31 +276,60 @@ public class EntityManager {
      * @param o Object being converted to an Entity
      * @param additionalAncestors List of ancestors to include when in the Entity's key
      * @param prependAdditionalAncestors If the additional ancestors should be added before or after the ancestors in the object
+     * @param codec The generated codec of the object, {@code null} if none
      * @return The Datastore key to use for the entity
      *
      * @since 1.0
      */
-    private IncompleteKey createKey(DatastoreNamespace dsNamespace, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors) {
-        KeyFactory keyFactory = bootstrapKeyFactory(dsNamespace, o.getClass().getAnnotation(DatastoreEntity.class).value());
-        addKeyAncestors(keyFactory, o, additionalAncestors, prependAdditionalAncestors);
+    private IncompleteKey createKey(DatastoreNamespace dsNamespace, Object o, List<Ancestor> additionalAncestors, boolean prependAdditionalAncestors, EntityCodec codec) {
+        KeyFactory keyFactory = bootstrapKeyFactory(dsNamespace, getKind(o.getClass()));
+
+        if (codec != null) {
+            addKeyAncestors(keyFactory, codec.getAncestors(o), additionalAncestors, prependAdditionalAncestors);
+            return codec.createKey(keyFactory, o);
+        }
+
+        addKeyAncestors(keyFactory, getAncestors(o), additionalAncestors, prependAdditionalAncestors);
         return addKeyValue(keyFactory, o);
     }
 
+    /**
+     * Creates the complete Datastore Key of an entity from its key and ancestors
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param tp Class of the entity
+     * @param key The unique key of the entity
+     * @param ancestors List of ancestors of the entity, in order
+     * @return The Datastore key of the entity
+     *
+     * @since 1.4
+     */
+    public com.google.cloud.datastore.Key createKey(DatastoreNamespace dsNamespace, Class<?> tp, Key key, List<Ancestor> ancestors) {
+        KeyFactory keyFactory = bootstrapKeyFactory(dsNamespace, getKind(tp));
+        addKeyAncestors(keyFactory, List.of(), ancestors, true);
+
+        if (key.getType() == KeyType.LONG) {
+            return keyFactory.newKey(key.getId());
+        } else {
+            return keyFactory.newKey(key.getName());
+        }
+    }
+
     /**
      * Converts a POJO or primitive type into a Datastore {@link Value}
      *
-     * @param o the object to convert
+     * @param o the object to convert, {@code null} is converted to a {@link NullValue}
      * @param excludeFromIndex whether the value should be excluded from the index
      * @return The Value of an entity property
      *
      * @since 1.0
      */
     public Value createProperty(Object o, boolean excludeFromIndex) {
-        DataStoreObjectSerde<?> relevantSerde = serdes.stream()
-                .filter(s -> s.getType() != defaultSerde.getType())
-                .filter(s -> s.canSerialize(o))
-                .findFirst()
-                .orElse(defaultSerde);
+        if (o == null) {
+            return NullValue.newBuilder().setExcludeFromIndexes(excludeFromIndex).build();
+        }
+
+        DataStoreObjectSerde<?> relevantSerde = serdeRegistry.forSerialization(o);
 
         return relevantSerde.serialize(this, o, excludeFromIndex);
     }
@@ -248,6 +355,25 @@ public class EntityManager {
         return createProperty(v, excludeFromIndex);
     }
 
+    /**
+     * Converts a POJO or primitive type into a Datastore {@link Value}
+     *
+     * @param o Object to convert
+     * @param f The metadata of the Object's field to convert
+     * @return The Value of an entity property
+     *
+     * @since 1.4
+     */
+    public Value createProperty(Object o, FieldMetadata f) {
+        Object v = f.getValue(o);
+
+        if (v == null) {
+            return null;
+        }
+
+        return createProperty(v, f.isExcludeFromIndex());
+    }
+
     /**
      * Creates a Datastore {@link FullEntity} which can be written to Datastore
      *
@@ -287,11 +413,7 @@ public class EntityManager {
      * @since 1.0
      */
     public <T> T handleProperty(DatastoreNamespace dsNamespace, Type t, Value v) {
-        DataStoreObjectSerde<?> relevantSerde = serdes.stream()
-                .filter(s -> s.getType() != defaultSerde.getType())
-                .filter(s -> s.canDeserialize(t, v))
-                .findFirst()
-                .orElse(defaultSerde);
+        DataStoreObjectSerde<?> relevantSerde = serdeRegistry.forDeserialization(t, v);
 
         return (T) relevantSerde.deserialize(dsNamespace, this, v, t);
     }
@@ -307,11 +429,7 @@ public class EntityManager {
      * @since 1.0
      */
     public <T> T handleProperty(DatastoreNamespace dsNamespace, Class t, Value v) {
-        DataStoreObjectSerde<?> relevantSerde = serdes.stream()
-                .filter(s -> s.getType() != defaultSerde.getType())
-                .filter(s -> s.canDeserialize(t, v))
-                .findFirst()
-                .orElse(defaultSerde);
+        DataStoreObjectSerde<?> relevantSerde = serdeRegistry.forDeserialization(t, v);
 
         return (T) relevantSerde.deserialize(dsNamespace, this, v, t);
     }
@@ -327,6 +445,11 @@ public class EntityManager {
      * @since 1.0
      */
     private <T> T createObject(DatastoreNamespace dsNamespace, FullEntity e, Class<T> tp) {
+        EntityCodec codec = codecsByType.get(tp);
+        if (codec != null) {
+            return (T) codec.deserialize(dsNamespace, this, e);
+        }
+
         Value v = EntityValue.of(e);
 
         return handleProperty(dsNamespace, tp, v);
@@ -341,17 +464,21 @@ public class EntityManager {
      * @since 1.0
      */
     private void setAncestorFields(Object o, FullEntity e) {
+        EntityMetadata metadata = EntityMetadata.of(o.getClass());
+
+        if (metadata.getAncestorFields().isEmpty()) {
+            return;
+        }
+
         e.getKey().getAncestors().forEach(
                 pe -> {
-                    Optional<Field> af = ObjectUtils.getAllFields(o.getClass()).stream()
-                            .filter(f -> f.getAnnotation(DatastoreAncestor.class) != null && f.getAnnotation(DatastoreAncestor.class).kind().equals(pe.getKind()))
-                            .findFirst();
-
-                    if (af.isPresent()) {
-                        if (af.get().getAnnotation(DatastoreAncestor.class).keyType() == KeyType.LONG) {
-                            setFieldValue(o, af.get(), pe.getId());
-                        } else if (af.get().getAnnotation(DatastoreAncestor.class).keyType() == KeyType.STRING) {
-                            setFieldValue(o, af.get(), pe.getName());
+                    FieldMetadata af = metadata.getAncestorField(pe.getKind());
+
+                    if (af != null) {
+                        if (af.getDatastoreAncestor().keyType() == KeyType.LONG) {
+                            af.setValue(o, pe.getId());
+                        } else if (af.getDatastoreAncestor().keyType() == KeyType.STRING) {
+                            af.setValue(o, pe.getName());
                         }
                     }
                 }
@@ -367,15 +494,13 @@ public class EntityManager {
      * @since 1.0
      */
     private void setKeyField(Object o, FullEntity e) {
-        Optional<Field> kf = ObjectUtils.getAllFields(o.getClass()).stream()
-                .filter(f -> f.getAnnotation(DatastoreKey.class) != null)
-                .findFirst();
-
-        if (kf.isPresent()) {
-            if (kf.get().getAnnotation(DatastoreKey.class).keyType() == KeyType.LONG) {
-                setFieldValue(o, kf.get(), ((com.google.cloud.datastore.Key) e.getKey()).getId());
-            } else if (kf.get().getAnnotation(DatastoreKey.class).keyType() == KeyType.STRING) {
-                setFieldValue(o, kf.get(), ((com.google.cloud.datastore.Key) e.getKey()).getName());
+        FieldMetadata kf = EntityMetadata.of(o.getClass()).getKeyField();
+
+        if (kf != null) {
+            if (kf.getDatastoreKey().keyType() == KeyType.LONG) {
+                kf.setValue(o, ((com.google.cloud.datastore.Key) e.getKey()).getId());
+            } else if (kf.getDatastoreKey().keyType() == KeyType.STRING) {
+                kf.setValue(o, ((com.google.cloud.datastore.Key) e.getKey()).getName());
             }
         }
     }
@@ -405,31 +530,133 @@ public class EntityManager {
      *
      * @since 1.0
      */
-    @SuppressWarnings("squid:S3655")
     public Object getExternalEntity(DatastoreNamespace dsNamespace, Object o, Field f) {
+        return getExternalEntity(dsNamespace, o, EntityMetadata.of(f.getDeclaringClass()).getField(f.getName()));
+    }
+
+    /**
+     * Queries Datastore for a list of other entities to inject as a field
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param o The POJO to inject external entities in
+     * @param f The metadata of the POJO field to inject the external entites in
+     * @return The List of POJOs to inject
+     *
+     * @since 1.4
+     */
+    public Object getExternalEntity(DatastoreNamespace dsNamespace, Object o, FieldMetadata f) {
         if (f.getType() == List.class) {
-            Class tp = (Class) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0];
+            DatastoreRepository<?> repo = getExternalRepository(f);
+            List<Ancestor> ancestors = getChildAncestors(o, f);
 
-            Optional<DatastoreRepository<?>> repo = repos.stream()
-                    .filter(
-                            r -> {
-                                Class rtp = (Class) ((ParameterizedType) ((Class) r.getClass().getGenericSuperclass()).getGenericInterfaces()[0]).getActualTypeArguments()[0];
-                                return tp == rtp;
-                            }
-                    )
-                    .findFirst();
+            return repo.list(dsNamespace, ancestors);
+        }
 
-            ChildAncestorsFactory af = Arc.container().instance(f.getAnnotation(DatastoreExternalEntity.class).ancestorFactory()).get();
-            List<Ancestor> ancestors = af.buildChildAncestors(o);
+        return "";
+    }
 
-            return repo.get().list(dsNamespace, ancestors);
+    /**
+     * Injects the external entities of a POJO field.
+     *
+     * <p>
+     *     With a {@link FetchType#LAZY} fetch a {@link LazyExternalList} is injected, which queries the entities on first
+     *     access. Otherwise, when called during a read run with {@link #withExternalEntityBatch(FetchType, Supplier)}, the
+     *     load is deferred until the end of the read so the loads of all the objects read run concurrently, or the
+     *     entities are loaded immediately
+     * </p>
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param o The POJO to inject external entities in
+     * @param f The metadata of the POJO field to inject the external entites in
+     *
+     * @since 1.4
+     */
+    public void loadExternalEntity(DatastoreNamespace dsNamespace, Object o, FieldMetadata f) {
+        ExternalEntityBatch batch = ExternalEntityBatch.current();
+
+        FetchType fetch = batch != null && batch.fetch() != null ? batch.fetch() : f.getExternalEntity().fetch();
+
+        if (fetch == FetchType.LAZY && f.getType() == List.class) {
+            DatastoreRepository repo = getExternalRepository(f);
+            List<Ancestor> ancestors = getChildAncestors(o, f);
+
+            f.setValue(o, new LazyExternalList<Object>(() -> repo.list(dsNamespace, ancestors)));
+        } else if (batch != null) {
+            batch.add(dsNamespace, o, f);
+        } else {
+            f.setValue(o, getExternalEntity(dsNamespace, o, f));
         }
+    }
 
-        return "";
+    /**
+     * Runs a read which can deserialize many objects, loading the external entities of all of them concurrently once
+     * the read is done, with at most {@code paven.persistence.loader.threads} queries at a time
+     *
+     * @param read The read to run
+     * @return The result of the read, with the external entities of the objects loaded
+     *
+     * @since 1.4
+     */
+    public <T> T withExternalEntityBatch(Supplier<T> read) {
+        return withExternalEntityBatch(null, read);
+    }
+
+    /**
+     * Runs a read which can deserialize many objects, loading the external entities of all of them concurrently once
+     * the read is done, with at most {@code paven.persistence.loader.threads} queries at a time
+     *
+     * <p>
+     *     When called during another read, the read joins the batch of the outer one, with its own fetch type
+     * </p>
+     *
+     * @param fetch Fetch type of all the external entities of the read, {@code null} to use the one of the outer read
+     *              if any, else the one of each field
+     * @param read The read to run
+     * @return The result of the read, with the external entities of the objects loaded
+     *
+     * @since 1.4
+     */
+    public <T> T withExternalEntityBatch(FetchType fetch, Supplier<T> read) {
+        return ExternalEntityBatch.run(this, executor, fetch, read);
     }
 
     /**
-     * Gets the Datastore kind for a given class
+     * Gets the repository of the entities of an external entity field
+     *
+     * @param f The metadata of the external entity field
+     * @return The repository for the class of the list elements
+     *
+     * @since 1.4
+     */
+    private DatastoreRepository getExternalRepository(FieldMetadata f) {
+        Class tp = (Class) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0];
+
+        return getRepository(tp);
+    }
+
+    /**
+     * Derives the ancestors of the external entities of a POJO field
+     *
+     * @param o The POJO holding the external entities
+     * @param f The metadata of the external entity field
+     * @return The ancestors of the external entities
+     *
+     * @since 1.4
+     */
+    private List<Ancestor> getChildAncestors(Object o, FieldMetadata f) {
+        InstanceHandle<ChildAncestorsFactory<?>> af = ancestorsFactoriesByType.get(f.getExternalEntity().ancestorFactory());
+
+        if (af == null) {
+            throw new PavenSerdeException(String.format("No ancestors factory bean found for [%s]", f.getExternalEntity().ancestorFactory().getName()));
+        }
+
+        return ((ChildAncestorsFactory) af.get()).buildChildAncestors(o);
+    }
+
+    /**
+     * Gets the Datastore kind for a given class, from the {@link DatastoreRepository#kind()} of the repository handling
+     * it, which generated repositories resolve at compile time. Classes without a repository read it from their
+     * {@link EntityMetadata}
      *
      * @param tp The class to get the kind for
      * @return The POJO's Datastore kind
@@ -437,6 +664,12 @@ public class EntityManager {
      * @since 1.0
      */
     public String getKind(Class tp) {
-        return ((DatastoreEntity) tp.getAnnotation(DatastoreEntity.class)).value();
+        InstanceHandle<DatastoreRepository<?>> repo = reposByType.get(tp);
+
+        if (repo != null) {
+            return repo.get().kind();
+        }
+
+        return EntityMetadata.of(tp).getKind();
     }
 }
@@ -0,0 +1,200 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExternalEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.FetchType;
+import com.roundfeather.persistence.utils.datastore.metadata.FieldMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Collects the {@link DatastoreExternalEntity} fields of the objects deserialized by a read, so the queries loading
+ * them run concurrently once the read is done instead of one after the other while deserializing.
+ *
+ * <p>
+ *     Loads are run in waves: the external entities of the objects loaded by a wave are queued to the same batch and
+ *     loaded by the next wave, until there are no pending loads left
+ * </p>
+ *
+ * <p>
+ *     A read run while a batch is already open joins it, and can override its fetch type for the objects it reads.
+ *     Each queued load keeps the fetch type it was queued with, so the external entities of the objects it loads
+ *     follow it too
+ * </p>
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740"})
+final class ExternalEntityBatch {
+
+    private static final ThreadLocal<ExternalEntityBatch> CURRENT = new ThreadLocal<>();
+
+    private final Queue<PendingLoad> pending;
+    private final FetchType fetch;
+
+    private ExternalEntityBatch(FetchType fetch, Queue<PendingLoad> pending) {
+        this.fetch = fetch;
+        this.pending = pending;
+    }
+
+    /**
+     * Gets a view of this batch queuing to the same pending loads with another fetch type
+     *
+     * @param fetch The fetch type of the view, {@code null} to keep the one of this batch
+     * @return The view, or this batch if the fetch type is the same
+     *
+     * @since 1.4
+     */
+    private ExternalEntityBatch withFetch(FetchType fetch) {
+        return fetch == null || fetch == this.fetch ? this : new ExternalEntityBatch(fetch, pending);
+    }
+
+    /**
+     * Gets the fetch type requested for the read
+     *
+     * @return The fetch type overriding {@link DatastoreExternalEntity#fetch()}, {@code null} to use the field's
+     *
+     * @since 1.4
+     */
+    FetchType fetch() {
+        return fetch;
+    }
+
+    /**
+     * Gets the batch open on the current thread
+     *
+     * @return The open batch, {@code null} if there is none
+     *
+     * @since 1.4
+     */
+    static ExternalEntityBatch current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a read with a batch open, then loads all the external entities it queued. If a batch is already open the
+     * read joins it with its own fetch type, and the external entities are loaded when the outermost read completes
+     *
+     * @param em EntityManager used to load the external entities
+     * @param executor Executor used to run the loads concurrently
+     * @param fetch Fetch type of all the external entities of the read, {@code null} to use the one of the open batch
+     *              if any, else the one of each field
+     * @param read The read to run
+     * @return The result of the read, with all external entities loaded
+     *
+     * @since 1.4
+     */
+    static <T> T run(EntityManager em, DatastoreExecutor executor, FetchType fetch, Supplier<T> read) {
+        ExternalEntityBatch current = CURRENT.get();
+        if (current != null) {
+            return current.withFetch(fetch).inBatch(read);
+        }
+
+        ExternalEntityBatch batch = new ExternalEntityBatch(fetch, new ConcurrentLinkedQueue<>());
+        CURRENT.set(batch);
+        try {
+            T result = read.get();
+            batch.flush(em, executor);
+            return result;
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Queues the load of an external entity field
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param o The POJO to inject the external entities in
+     * @param f The field to inject the external entities in
+     *
+     * @since 1.4
+     */
+    void add(DatastoreNamespace dsNamespace, Object o, FieldMetadata f) {
+        pending.add(new PendingLoad(dsNamespace, o, f, fetch));
+    }
+
+    /**
+     * Runs the pending loads, wave by wave, until there are none left
+     *
+     * @param em EntityManager used to load the external entities
+     * @param executor Executor used to run the loads concurrently
+     *
+     * @since 1.4
+     */
+    private void flush(EntityManager em, DatastoreExecutor executor) {
+        List<PendingLoad> wave = drain();
+
+        while (!wave.isEmpty()) {
+            List<Callable<Object>> tasks = new ArrayList<>(wave.size());
+            for (PendingLoad load : wave) {
+                tasks.add(() -> withFetch(load.fetch()).inBatch(() -> em.getExternalEntity(load.dsNamespace(), load.o(), load.f())));
+            }
+
+            List<Object> results = executor.invokeAll(tasks);
+
+            for (int i = 0; i < wave.size(); i++) {
+                PendingLoad load = wave.get(i);
+                load.f().setValue(load.o(), results.get(i));
+            }
+
+            wave = drain();
+        }
+    }
+
+    /**
+     * Runs a load with this batch open on the current thread, so the external entities of the loaded objects are
+     * queued to it
+     *
+     * @param load The load to run
+     * @return The result of the load
+     *
+     * @since 1.4
+     */
+    private <T> T inBatch(Supplier<T> load) {
+        ExternalEntityBatch previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return load.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Removes all the pending loads
+     *
+     * @return The removed loads
+     *
+     * @since 1.4
+     */
+    private List<PendingLoad> drain() {
+        List<PendingLoad> loads = new ArrayList<>();
+        PendingLoad load;
+        while ((load = pending.poll()) != null) {
+            loads.add(load);
+        }
+        return loads;
+    }
+
+    /**
+     * Load of an external entity field waiting to run
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param o The POJO to inject the external entities in
+     * @param f The field to inject the external entities in
+     * @param fetch The fetch type of the read which queued the load, {@code null} to use the one of each field
+     *
+     * @since 1.4
+     */
+    private record PendingLoad(DatastoreNamespace dsNamespace, Object o, FieldMetadata f, FetchType fetch) {
+    }
+}
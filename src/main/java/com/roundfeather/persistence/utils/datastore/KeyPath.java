@@ -0,0 +1,61 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the full path of a Datastore key, its ancestors and its own key
+ *
+ * @since 1.4
+ */
+@Getter
+@Data
+@EqualsAndHashCode
+public class KeyPath {
+
+    List<Ancestor> ancestors;
+    Key key;
+
+    /**
+     * Creates a new key path
+     *
+     * @param key The key of the entity
+     * @param ancestors The ancestors of the entity, in order
+     * @return The new key path
+     *
+     * @since 1.4
+     */
+    public static KeyPath of(Key key, Ancestor... ancestors) {
+        return new KeyPath(Arrays.stream(ancestors).toList(), key);
+    }
+
+    /**
+     * Creates a new key path
+     *
+     * @param key The key of the entity
+     * @param ancestors The ancestors of the entity, in order
+     * @return The new key path
+     *
+     * @since 1.4
+     */
+    public static KeyPath of(Key key, List<Ancestor> ancestors) {
+        return new KeyPath(List.copyOf(ancestors), key);
+    }
+
+    /**
+     * KeyPath constructor
+     *
+     * @param ancestors The ancestors of the entity, in order
+     * @param key The key of the entity
+     *
+     * @since 1.4
+     */
+    private KeyPath(List<Ancestor> ancestors, Key key) {
+        this.ancestors = ancestors;
+        this.key = key;
+    }
+}
@@ -0,0 +1,103 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExternalEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.FetchType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link List} injected in {@link DatastoreExternalEntity} fields with a {@link FetchType#LAZY} fetch, which queries the
+ * external entities the first time it is accessed.
+ *
+ * <p>
+ *     The list can be modified once loaded, the changes aren't written back to Datastore
+ * </p>
+ *
+ * @param <E> Type of the external entities
+ *
+ * @since 1.4
+ */
+public final class LazyExternalList<E> extends AbstractList<E> {
+
+    private Supplier<List<E>> loader;
+    private volatile List<E> delegate;
+
+    /**
+     * Creates a list which loads its content on first access
+     *
+     * @param loader Query for the external entities
+     *
+     * @since 1.4
+     */
+    LazyExternalList(Supplier<List<E>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Checks if the external entities were already queried
+     *
+     * @return {@code true} if the list was loaded
+     *
+     * @since 1.4
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    /**
+     * Gets the loaded external entities, querying them if needed
+     *
+     * @return The external entities
+     *
+     * @since 1.4
+     */
+    private List<E> delegate() {
+        List<E> d = delegate;
+        if (d == null) {
+            synchronized (this) {
+                d = delegate;
+                if (d == null) {
+                    d = new ArrayList<>(loader.get());
+                    delegate = d;
+                    loader = null;
+                }
+            }
+        }
+        return d;
+    }
+
+    @Override
+    public E get(int index) {
+        return delegate().get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate().size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return delegate().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        modCount++;
+        delegate().add(index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        modCount++;
+        return delegate().remove(index);
+    }
+
+    @Override
+    public String toString() {
+        return isLoaded() ? delegate.toString() : "LazyExternalList[not loaded]";
+    }
+}
@@ -0,0 +1,56 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.google.cloud.datastore.Cursor;
+import lombok.Data;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents a page of query results
+ *
+ * <p>
+ *     The {@code endCursor} is the start cursor of the next page
+ * </p>
+ *
+ * @param <E> Type of {@link Object} of the results
+ *
+ * @since 1.4
+ */
+@Getter
+@Data
+public class Page<E> {
+
+    List<E> items;
+    Cursor endCursor;
+    boolean moreResults;
+
+    /**
+     * Creates a new page
+     *
+     * @param items The results of the page
+     * @param endCursor The cursor after the last result of the page
+     * @param moreResults If there can be more results after the page
+     * @return The new page
+     *
+     * @since 1.4
+     */
+    public static <E> Page<E> of(List<E> items, Cursor endCursor, boolean moreResults) {
+        return new Page<>(items, endCursor, moreResults);
+    }
+
+    /**
+     * Page constructor
+     *
+     * @param items The results of the page
+     * @param endCursor The cursor after the last result of the page
+     * @param moreResults If there can be more results after the page
+     *
+     * @since 1.4
+     */
+    private Page(List<E> items, Cursor endCursor, boolean moreResults) {
+        this.items = items;
+        this.endCursor = endCursor;
+        this.moreResults = moreResults;
+    }
+}
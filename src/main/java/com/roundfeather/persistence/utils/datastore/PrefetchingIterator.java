@@ -0,0 +1,204 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.google.cloud.datastore.Cursor;
+import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.EntityQuery;
+import com.google.cloud.datastore.QueryResults;
+import com.google.datastore.v1.QueryResultBatch;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Iterator over the results of a query which reads the next batches of results in the background while the current one
+ * is consumed.
+ *
+ * <p>
+ *     The query is split in batches of {@value #BATCH_SIZE} entities, each starting at the end cursor of the previous
+ *     one. Up to {@code depth} batches are read ahead of the batch being consumed, so the latency of the Datastore calls
+ *     overlaps with the work done on the results
+ * </p>
+ *
+ * <p>
+ *     The iterator must be closed when it isn't consumed to the end, which cancels the batches read ahead and stops
+ *     scheduling new ones
+ * </p>
+ *
+ * @since 1.4
+ */
+final class PrefetchingIterator implements Iterator<Entity>, AutoCloseable {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final Batch END = new Batch(List.of(), null, false);
+
+    private final Datastore datastore;
+    private final DatastoreExecutor executor;
+    private final EntityQuery query;
+    private final int depth;
+
+    private final Deque<CompletableFuture<Batch>> ahead = new ArrayDeque<>();
+    private CompletableFuture<Batch> last;
+    private Iterator<Entity> current = Collections.emptyIterator();
+    private boolean done;
+    private volatile boolean closed;
+
+    /**
+     * Creates the iterator and starts reading the first batches
+     *
+     * @param datastore Datastore client to run the query with
+     * @param executor Executor to read the batches with
+     * @param query The query to iterate over, without limit, offset or cursors
+     * @param depth The number of batches to read ahead, at least 1
+     *
+     * @since 1.4
+     */
+    PrefetchingIterator(Datastore datastore, DatastoreExecutor executor, EntityQuery query, int depth) {
+        this.datastore = datastore;
+        this.executor = executor;
+        this.query = query;
+        this.depth = depth;
+
+        this.last = executor.submit(() -> fetch(null));
+        this.ahead.add(this.last);
+        fill();
+    }
+
+    /**
+     * Checks if a query can be iterated over in batches
+     *
+     * @param query The query
+     * @return {@code true} if the query doesn't set a limit, offset or cursors of its own
+     *
+     * @since 1.4
+     */
+    static boolean supports(EntityQuery query) {
+        return query.getLimit() == null && query.getOffset() == 0 && query.getStartCursor() == null && query.getEndCursor() == null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (done) {
+                return false;
+            }
+            nextBatch();
+        }
+        return true;
+    }
+
+    @Override
+    public Entity next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Stops the iteration, cancelling the batch reads which haven't completed. Reads already sent to Datastore complete
+     * in the background, but no further batch is read after them
+     *
+     * @since 1.4
+     */
+    @Override
+    public void close() {
+        closed = true;
+        done = true;
+        current = Collections.emptyIterator();
+
+        ahead.forEach(f -> f.cancel(false));
+        ahead.clear();
+        last.cancel(false);
+    }
+
+    /**
+     * Waits for the next batch to consume and schedules the read of the following ones
+     *
+     * @since 1.4
+     */
+    private void nextBatch() {
+        Batch batch = await(ahead.poll());
+
+        current = batch.entities().iterator();
+        done = !batch.more();
+
+        if (!done) {
+            fill();
+        }
+    }
+
+    /**
+     * Schedules the reads of the batches until {@code depth} batches are read ahead. Each read starts once the previous
+     * one completes, with its end cursor, unless the iterator was closed in between
+     *
+     * @since 1.4
+     */
+    private void fill() {
+        while (ahead.size() < depth) {
+            last = last.thenCompose(b -> b.more() && !closed ? executor.submit(() -> fetch(b.end())) : CompletableFuture.completedFuture(END));
+            ahead.add(last);
+        }
+    }
+
+    /**
+     * Reads a batch of results
+     *
+     * @param start The cursor to start at, {@code null} for the first batch
+     * @return The batch
+     *
+     * @since 1.4
+     */
+    private Batch fetch(Cursor start) {
+        EntityQuery.Builder builder = query.toBuilder().setLimit(BATCH_SIZE);
+        if (start != null) {
+            builder.setStartCursor(start);
+        }
+
+        QueryResults<Entity> results = datastore.run(builder.build());
+
+        List<Entity> entities = new ArrayList<>(BATCH_SIZE);
+        results.forEachRemaining(entities::add);
+
+        boolean more = !entities.isEmpty() && results.getMoreResults() != QueryResultBatch.MoreResultsType.NO_MORE_RESULTS;
+
+        return new Batch(entities, results.getCursorAfter(), more);
+    }
+
+    /**
+     * Waits for a batch read
+     *
+     * @param future The batch read
+     * @return The batch
+     *
+     * @since 1.4
+     */
+    private static Batch await(CompletableFuture<Batch> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PavenSerdeException("Interrupted while waiting for query results", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new PavenSerdeException("Failed reading query results", e.getCause());
+        }
+    }
+
+    /**
+     * Batch of results
+     *
+     * @param entities The entities of the batch
+     * @param end The cursor after the last entity
+     * @param more If there can be more results after the batch
+     *
+     * @since 1.4
+     */
+    private record Batch(List<Entity> entities, Cursor end, boolean more) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Resolves the entity class of {@link DatastoreRepository} implementations which don't override
+ * {@link DatastoreRepository#entityClass()}, e.g. repositories written by hand.
+ *
+ * <p>
+ *     The type argument is looked up once per implementation class, walking its interfaces and superclasses so CDI
+ *     client proxies and subclasses of repositories are resolved too
+ * </p>
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740"})
+final class RepositoryTypes {
+
+    private static final ClassValue<Class> ENTITY_CLASSES = new ClassValue<>() {
+        @Override
+        protected Class computeValue(Class<?> type) {
+            Class entityClass = find(type);
+
+            if (entityClass == null) {
+                throw new PavenSerdeException(String.format("Can't determine the entity class of repository [%s]", type.getName()));
+            }
+
+            return entityClass;
+        }
+    };
+
+    private RepositoryTypes() {
+    }
+
+    /**
+     * Gets the entity class of a repository implementation
+     *
+     * @param repositoryClass The class of the repository
+     * @return The class of the entities handled by the repository
+     *
+     * @since 1.4
+     */
+    static Class entityClass(Class<?> repositoryClass) {
+        return ENTITY_CLASSES.get(repositoryClass);
+    }
+
+    /**
+     * Looks for the type argument of {@link DatastoreRepository} in the hierarchy of a class
+     *
+     * @param type The class to search
+     * @return The type argument, {@code null} if not found
+     *
+     * @since 1.4
+     */
+    private static Class find(Class<?> type) {
+        if (type == null || type == Object.class) {
+            return null;
+        }
+
+        for (Type i : type.getGenericInterfaces()) {
+            if (i instanceof ParameterizedType pt && pt.getRawType() == DatastoreRepository.class
+                    && pt.getActualTypeArguments()[0] instanceof Class c) {
+                return c;
+            }
+        }
+
+        for (Class<?> i : type.getInterfaces()) {
+            Class c = find(i);
+            if (c != null) {
+                return c;
+            }
+        }
+
+        return find(type.getSuperclass());
+    }
+}
@@ -0,0 +1,24 @@
+package com.roundfeather.persistence.utils.datastore;
+
+/**
+ * This enum is used to identify how the objects returned by a save are built
+ *
+ * @since 1.4
+ */
+public enum SaveMode {
+
+    /**
+     * The written entity is deserialized to a new object, including its external entities
+     *
+     * @since 1.4
+     */
+    RELOAD,
+
+    /**
+     * The key and ancestor values of the written entity are set on the saved object, which is returned. Falls back to
+     * {@link #RELOAD} when the key or ancestor fields of the object can't be written
+     *
+     * @since 1.4
+     */
+    WRITE_BACK_KEYS
+}
@@ -6,6 +6,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+import com.roundfeather.persistence.utils.datastore.serde.EntityCodec;
 
 /**
  * Mark an object as a Datastore entity
@@ -20,6 +21,11 @@ import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
  *     to {@code false}
  * </p>
  *
+ * <p>
+ *     A reflection free {@link EntityCodec} is also generated for classes whose fields can all be accessed directly or
+ *     through getters and setters. This can be disabled by setting the property {@code generateCodec} to {@code false}
+ * </p>
+ *
  * @since 1.0
  */
 @Target({ElementType.TYPE})
@@ -47,4 +53,17 @@ public @interface DatastoreEntity {
      * @since 1.0
      */
     boolean autoGenerateRepository() default true;
+
+    /**
+     * Set if a codec converting the class without reflection should be generated for this class
+     *
+     * <p>
+     *     default: {@code true}
+     * </p>
+     *
+     * @return If a codec should be generated for this class
+     *
+     * @since 1.4
+     */
+    boolean generateCodec() default true;
 }
@@ -16,6 +16,12 @@ import java.lang.annotation.Target;
  *     for the external entities to embed
  * </p>
  *
+ * <p>
+ *     {@code fetch} specifies if the external entities are loaded with the object, or the first time the field is
+ *     accessed. The fetch type can be overridden for a single read with the methods of the repository taking a
+ *     {@link FetchType}
+ * </p>
+ *
  * @since 1.0
  */
 @Target({ElementType.FIELD})
@@ -29,4 +35,13 @@ public @interface DatastoreExternalEntity {
      * @since 1.0
      */
     Class<? extends ChildAncestorsFactory> ancestorFactory();
+
+    /**
+     * Sets when the external entities are loaded
+     *
+     * @return The {@link FetchType} of this external entity
+     *
+     * @since 1.4
+     */
+    FetchType fetch() default FetchType.EAGER;
 }
@@ -0,0 +1,37 @@
+package com.roundfeather.persistence.utils.datastore.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+
+/**
+ * Mark an interface extending {@link DatastoreRepository} to have its finder methods implemented at compile time
+ *
+ * <p>
+ *     The query of each abstract method is derived from its name, e.g. {@code findByStatusAndRegion},
+ *     {@code findFirstByStatusOrderByCreatedDesc}, {@code countByScoreGreaterThan} or {@code existsByEmail}. The first
+ *     parameter is the {@code DatastoreNamespace} to query, followed by one parameter per condition in order, and
+ *     optionally the {@code Ancestor}s to apply as a varargs or a {@code List}
+ * </p>
+ *
+ * <p>
+ *     Conditions are combined with {@code And} and each is an equality unless suffixed by {@code GreaterThan},
+ *     {@code GreaterThanEqual}, {@code LessThan}, {@code LessThanEqual} or {@code In}, which takes a {@code Collection}.
+ *     Fields are resolved against the entity, and an error is reported at compile time for unknown or unindexed fields
+ *     and mismatched parameters
+ * </p>
+ *
+ * <p>
+ *     An implementation named {@code <Interface>Impl} is generated next to the interface, and can be injected with the
+ *     interface type
+ * </p>
+ *
+ * @since 1.4
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DatastoreFinders {
+}
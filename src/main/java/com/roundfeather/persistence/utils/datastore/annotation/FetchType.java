@@ -0,0 +1,23 @@
+package com.roundfeather.persistence.utils.datastore.annotation;
+
+/**
+ * This enum is used to identify when the entities of a {@link DatastoreExternalEntity} field are loaded
+ *
+ * @since 1.4
+ */
+public enum FetchType {
+
+    /**
+     * The external entities are loaded when the object holding them is read
+     *
+     * @since 1.4
+     */
+    EAGER,
+
+    /**
+     * The external entities are loaded the first time the field's list is accessed
+     *
+     * @since 1.4
+     */
+    LAZY
+}
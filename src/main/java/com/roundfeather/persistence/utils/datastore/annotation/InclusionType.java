@@ -9,6 +9,11 @@ public enum InclusionType {
     /**
      * Property to use for determining subtype is external to the object
      *
+     * <p>
+     *     The property is a sibling field of the object holding the value. When used on a class, values of the class which
+     *     aren't held by another object, e.g. list elements, are deserialized as {@link DatastoreTypeInfo#defaultImpl()}
+     * </p>
+     *
      * @since 1.1
      */
     EXTERNAL_PROPERTY,
@@ -4,10 +4,13 @@ import com.google.auto.service.AutoService;
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
 import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
 import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+import com.roundfeather.persistence.utils.datastore.query.Property;
+import com.roundfeather.persistence.utils.datastore.serde.EntityCodec;
 
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
@@ -24,6 +27,12 @@ import java.util.Set;
  *     Generates an implementation of the {@link DatastoreRepository} interface for the annotated classes
  * </p>
  * <p>
+ *     Generates an {@link EntityCodec} for the annotated classes which can be converted without reflection
+ * </p>
+ * <p>
+ *     Generates a {@code <Entity>_} metamodel with the {@link Property} of each queryable field of the annotated classes
+ * </p>
+ * <p>
  *     Checks and provides a warning if a class has a Key field
  * </p>
  *
@@ -38,6 +47,8 @@ public class DatastoreEntityProcessor extends AbstractProcessor {
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         for (TypeElement annotation : annotations) {
             generateRepository(annotation, roundEnv);
+            generateCodec(annotation, roundEnv);
+            generateMetamodel(annotation, roundEnv);
             verifySerializable(annotation, roundEnv);
         }
 
@@ -71,8 +82,9 @@ public class DatastoreEntityProcessor extends AbstractProcessor {
     }
 
     /**
-     * Generates a {@link DatastoreRepository} implementation for the classes annotated with {@link DatastoreEntity}.
-     * If {@link DatastoreEntity#autoGenerateRepository()} is {@code false} then it will skip the repository
+     * Generates a {@link DatastoreRepository} implementation for the classes annotated with {@link DatastoreEntity}, with
+     * the entity class and kind resolved at compile time. If {@link DatastoreEntity#autoGenerateRepository()} is
+     * {@code false} then it will skip the repository
      *
      * @param annotation the annotation interface being processed
      * @param roundEnv environment for information about the current and prior round
@@ -123,6 +135,22 @@ public class DatastoreEntityProcessor extends AbstractProcessor {
                             writer.println("@Inject");
                             writer.println("Datastore datastore;");
                             writer.println();
+                            writer.println("@Override");
+                            writer.print("public Class<");
+                            writer.print(entityClassName);
+                            writer.println("> entityClass() {");
+                            writer.print("    return ");
+                            writer.print(entityClassName);
+                            writer.println(".class;");
+                            writer.println("}");
+                            writer.println();
+                            writer.println("@Override");
+                            writer.println("public String kind() {");
+                            writer.print("    return ");
+                            writer.print(processingEnv.getElementUtils().getConstantExpression(deAnnotation.value()));
+                            writer.println(";");
+                            writer.println("}");
+                            writer.println();
                             writer.println("}");
 
                             writer.close();
@@ -135,4 +163,72 @@ public class DatastoreEntityProcessor extends AbstractProcessor {
                 }
         );
     }
+
+    /**
+     * Generates an {@link EntityCodec} for the classes annotated with {@link DatastoreEntity}. If
+     * {@link DatastoreEntity#generateCodec()} is {@code false}, or the class can't be converted without reflection, then
+     * it will skip the codec
+     *
+     * @param annotation the annotation interface being processed
+     * @param roundEnv environment for information about the current and prior round
+     *
+     * @since 1.4
+     */
+    private void generateCodec(TypeElement annotation, RoundEnvironment roundEnv) {
+        Set<? extends Element> classes = roundEnv.getElementsAnnotatedWith(annotation);
+        classes.forEach(
+                e -> {
+                    DatastoreEntity deAnnotation = e.getAnnotation(DatastoreEntity.class);
+                    if (deAnnotation.generateCodec()) {
+                        EntityModel model = new EntityModel(processingEnv, (TypeElement) e);
+                        List<String> limitations = model.codecLimitations(processingEnv);
+
+                        if (!limitations.isEmpty()) {
+                            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format("Skipped Codec for '%s', using reflection: %s", model.qualifiedName, String.join(", ", limitations)), e);
+                            return;
+                        }
+
+                        EntityCodecGenerator generator = new EntityCodecGenerator(processingEnv, model);
+                        try {
+                            generator.generate();
+
+                            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format("Generated Codec '%s'", generator.codecName()));
+                        } catch (IOException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                }
+        );
+    }
+
+    /**
+     * Generates the {@code <Entity>_} metamodel for the classes annotated with {@link DatastoreEntity}, used to build
+     * type safe queries. Classes with type parameters or not accessible from their package are skipped
+     *
+     * @param annotation the annotation interface being processed
+     * @param roundEnv environment for information about the current and prior round
+     *
+     * @since 1.4
+     */
+    private void generateMetamodel(TypeElement annotation, RoundEnvironment roundEnv) {
+        Set<? extends Element> classes = roundEnv.getElementsAnnotatedWith(annotation);
+        classes.forEach(
+                e -> {
+                    TypeElement clazz = (TypeElement) e;
+                    if (!clazz.getTypeParameters().isEmpty() || clazz.getModifiers().contains(Modifier.PRIVATE)) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format("Skipped Metamodel for '%s'", clazz.getQualifiedName()), e);
+                        return;
+                    }
+
+                    MetamodelGenerator generator = new MetamodelGenerator(processingEnv, new EntityModel(processingEnv, clazz));
+                    try {
+                        generator.generate();
+
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format("Generated Metamodel '%s'", generator.metamodelName()));
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+        );
+    }
 }
@@ -0,0 +1,261 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.google.auto.service.AutoService;
+import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders;
+import com.roundfeather.persistence.utils.datastore.query.Property;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link AbstractProcessor} for processing the {@link DatastoreFinders} annotation. Generates the implementation of the
+ * annotated interfaces, with the query of each finder method derived from its name at compile time.
+ *
+ * <p>
+ *     Validates that the annotated interfaces extend {@link DatastoreRepository} for a class annotated with
+ *     {@link DatastoreEntity}, and that the fields, parameters and return type of each finder method match the entity
+ * </p>
+ *
+ * @since 1.4
+ */
+@SupportedAnnotationTypes({"com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders"})
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+@AutoService(Processor.class)
+public class DatastoreFindersProcessor extends AbstractProcessor {
+
+    private static final String INDENT = "        ";
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            generateFinders(annotation, roundEnv);
+        }
+
+        return true;
+    }
+
+    /**
+     * Generates the implementation of the interfaces annotated with {@link DatastoreFinders}. Nothing is generated for
+     * an interface with invalid finder methods, the errors are reported on the methods instead
+     *
+     * @param annotation the annotation interface being processed
+     * @param roundEnv environment for information about the current and prior round
+     *
+     * @since 1.4
+     */
+    private void generateFinders(TypeElement annotation, RoundEnvironment roundEnv) {
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(annotation);
+        elements.forEach(
+                e -> {
+                    if (e.getKind() != ElementKind.INTERFACE) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "DatastoreFinders can only annotate an interface", e);
+                        return;
+                    }
+
+                    TypeElement iface = (TypeElement) e;
+                    TypeElement entity = findEntity(iface.asType());
+                    if (entity == null || entity.getAnnotation(DatastoreEntity.class) == null) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Interface '%s' must extend DatastoreRepository of a DatastoreEntity", iface.getQualifiedName()), e);
+                        return;
+                    }
+
+                    EntityModel model = new EntityModel(processingEnv, entity);
+                    List<FinderMethod> finders = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(iface)).stream()
+                            .filter(m -> m.getModifiers().contains(Modifier.ABSTRACT))
+                            .map(m -> new FinderMethod(processingEnv, model, m))
+                            .toList();
+
+                    boolean valid = true;
+                    for (FinderMethod finder : finders) {
+                        for (String error : finder.errors) {
+                            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Finder '%s' %s", finder.element.getSimpleName(), error), finder.element);
+                            valid = false;
+                        }
+                    }
+
+                    if (!valid) {
+                        return;
+                    }
+
+                    try {
+                        String implName = writeImplementation(iface, model, finders);
+
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format("Generated Finders '%s'", implName));
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Finds the entity handled by a repository interface, from the type argument of {@link DatastoreRepository}
+     *
+     * @param type The repository interface, or one of its super interfaces
+     * @return The entity class, {@code null} if the interface doesn't extend {@link DatastoreRepository}
+     *
+     * @since 1.4
+     */
+    private TypeElement findEntity(TypeMirror type) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            DeclaredType declared = (DeclaredType) supertype;
+            TypeElement element = (TypeElement) declared.asElement();
+
+            if (element.getQualifiedName().contentEquals(DatastoreRepository.class.getName())) {
+                List<? extends TypeMirror> arguments = declared.getTypeArguments();
+                if (arguments.size() == 1 && arguments.get(0).getKind() == TypeKind.DECLARED) {
+                    return (TypeElement) ((DeclaredType) arguments.get(0)).asElement();
+                }
+                return null;
+            }
+
+            TypeElement entity = findEntity(supertype);
+            if (entity != null) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the implementation of a repository interface
+     *
+     * @param iface The repository interface
+     * @param model The entity handled by the repository
+     * @param finders The finder methods to implement
+     * @return The qualified name of the implementation
+     * @throws IOException if the file can't be written
+     *
+     * @since 1.4
+     */
+    private String writeImplementation(TypeElement iface, EntityModel model, List<FinderMethod> finders) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(iface).getQualifiedName().toString();
+        String className = iface.getSimpleName().toString() + "Impl";
+        String implName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        JavaFileObject implFile = processingEnv.getFiler().createSourceFile(implName, iface);
+        try (PrintWriter writer = new PrintWriter(implFile.openWriter())) {
+            if (!packageName.isEmpty()) {
+                writer.printf("package %s;%n%n", packageName);
+            }
+
+            writer.println("@jakarta.enterprise.context.ApplicationScoped");
+            writer.printf("@jakarta.enterprise.inject.Typed(%s.class)%n", iface.getQualifiedName());
+            writer.printf("public class %s implements %s {%n%n", className, iface.getQualifiedName());
+
+            Map<String, FieldModel> properties = finders.stream()
+                    .flatMap(f -> Stream.concat(
+                            f.criteria.stream().map(FinderMethod.Criterion::field),
+                            f.orderings.stream().map(FinderMethod.Ordering::field)
+                    ))
+                    .collect(Collectors.toMap(f -> f.name, f -> f, (f1, f2) -> f1, TreeMap::new));
+
+            properties.values().forEach(f -> writer.printf(
+                    "    private static final %s<%s, %s> %s = %s.of(%s.class, \"%s\", %s);%n",
+                    Property.class.getName(), model.qualifiedName, f.boxedTypeName(processingEnv), constant(f),
+                    Property.class.getName(), model.qualifiedName, f.name,
+                    processingEnv.getElementUtils().getConstantExpression(f.propertyName)
+            ));
+            if (!properties.isEmpty()) {
+                writer.println();
+            }
+
+            writer.println("    @Override");
+            writer.printf("    public Class<%s> entityClass() {%n", model.qualifiedName);
+            writer.printf("        return %s.class;%n", model.qualifiedName);
+            writer.println("    }");
+            writer.println();
+            writer.println("    @Override");
+            writer.println("    public String kind() {");
+            writer.printf("        return %s;%n", processingEnv.getElementUtils().getConstantExpression(model.kind));
+            writer.println("    }");
+
+            finders.forEach(f -> writeFinder(writer, f));
+
+            writer.println("}");
+        }
+
+        return implName;
+    }
+
+    /**
+     * Writes the implementation of a finder method, building the query with the derived conditions and orderings
+     *
+     * @param writer Writer of the implementation
+     * @param finder The finder method
+     *
+     * @since 1.4
+     */
+    private void writeFinder(PrintWriter writer, FinderMethod finder) {
+        ExecutableElement method = finder.element;
+        List<? extends VariableElement> parameters = method.getParameters();
+
+        List<String> declarations = new ArrayList<>(parameters.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement p = parameters.get(i);
+            TypeMirror type = p.asType();
+            if (method.isVarArgs() && i == parameters.size() - 1) {
+                declarations.add(((ArrayType) type).getComponentType() + "... " + p.getSimpleName());
+            } else {
+                declarations.add(type + " " + p.getSimpleName());
+            }
+        }
+
+        writer.println();
+        writer.println("    @Override");
+        writer.printf("    public %s %s(%s) {%n", method.getReturnType(), method.getSimpleName(), String.join(", ", declarations));
+        writer.printf("%sreturn query(%s)", INDENT, finder.namespace.getSimpleName());
+
+        if (finder.ancestors != null) {
+            writer.printf("%n%s        .ancestors(%s)", INDENT, finder.ancestors.getSimpleName());
+        }
+        if (!finder.criteria.isEmpty()) {
+            String conditions = finder.criteria.stream()
+                    .map(c -> String.format("%s.%s(%s)", constant(c.field()), c.operator(), c.parameter().getSimpleName()))
+                    .collect(Collectors.joining(", "));
+            writer.printf("%n%s        .where(%s)", INDENT, conditions);
+        }
+        if (!finder.orderings.isEmpty()) {
+            String orderings = finder.orderings.stream()
+                    .map(o -> String.format("%s.%s()", constant(o.field()), o.descending() ? "desc" : "asc"))
+                    .collect(Collectors.joining(", "));
+            writer.printf("%n%s        .orderBy(%s)", INDENT, orderings);
+        }
+
+        String terminal = switch (finder.result) {
+            case LIST -> "list()";
+            case FIRST -> "first()";
+            case COUNT -> "count()";
+            case EXISTS -> "exists()";
+        };
+        writer.printf("%n%s        .%s;%n", INDENT, terminal);
+        writer.println("    }");
+    }
+
+    /**
+     * Gets the name of the constant holding the {@link Property} of a field
+     *
+     * @param f The field
+     * @return The name of the constant, e.g. {@code CREATED_AT} for {@code createdAt}
+     *
+     * @since 1.4
+     */
+    private static String constant(FieldModel f) {
+        return f.name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,406 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+import com.roundfeather.persistence.utils.datastore.serde.EntityCodec;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Generates the {@link EntityCodec} of a class annotated with {@link DatastoreEntity}.
+ *
+ * <p>
+ *     The generated codec reads and writes every field with straight-line calls to the fields, getters, setters and
+ *     builder of the entity, with the property names, key and ancestors resolved at compile time
+ * </p>
+ *
+ * <p>
+ *     Entities with a builder are created the same way as the reflective deserialization does: the decoded values of
+ *     the fields declared by the entity class are passed to the builder, e.g. {@code builder().name(v)...build()}, so
+ *     immutable {@code @Builder} and {@code @Value} entities don't need setters. Inherited fields, which Lombok
+ *     {@code @Builder} doesn't take, are set on the built instance and still need a setter
+ * </p>
+ *
+ * @since 1.4
+ */
+final class EntityCodecGenerator {
+
+    private static final String ENTITY_MANAGER = "com.roundfeather.persistence.utils.datastore.EntityManager";
+    private static final String ANCESTOR = "com.roundfeather.persistence.utils.datastore.Ancestor";
+    private static final String NAMESPACE = "com.roundfeather.persistence.utils.datastore.DatastoreNamespace";
+    private static final String FULL_ENTITY = "com.google.cloud.datastore.FullEntity";
+    private static final String INCOMPLETE_KEY = "com.google.cloud.datastore.IncompleteKey";
+    private static final String CUSTOM_SERDES = "com.roundfeather.persistence.utils.datastore.serde.CustomSerdeResolver";
+    private static final String INDENT = "        ";
+
+    private final ProcessingEnvironment env;
+    private final EntityModel model;
+
+    /**
+     * Creates a generator for an entity
+     *
+     * @param env The processing environment
+     * @param model The entity to generate the codec for
+     *
+     * @since 1.4
+     */
+    EntityCodecGenerator(ProcessingEnvironment env, EntityModel model) {
+        this.env = env;
+        this.model = model;
+    }
+
+    /**
+     * Gets the qualified name of the generated codec
+     *
+     * @return The qualified name of the codec
+     *
+     * @since 1.4
+     */
+    String codecName() {
+        return model.packageName + "." + model.simpleName + "Codec";
+    }
+
+    /**
+     * Writes the codec source file
+     *
+     * @throws IOException if the file can't be written
+     *
+     * @since 1.4
+     */
+    void generate() throws IOException {
+        JavaFileObject codecFile = env.getFiler().createSourceFile(codecName(), model.element);
+        try (PrintWriter writer = new PrintWriter(codecFile.openWriter())) {
+            writer.printf("package %s;%n%n", model.packageName);
+
+            writer.println("@jakarta.enterprise.context.ApplicationScoped");
+            writer.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            writer.printf("public class %sCodec implements %s<%s> {%n%n", model.simpleName, EntityCodec.class.getName(), model.qualifiedName);
+
+            writeTypes(writer);
+            writeGetType(writer);
+            writeGetAncestors(writer);
+            writeCreateKey(writer);
+            writeSerialize(writer);
+            writeDeserialize(writer);
+
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Writes the constants holding the generic types of the parameterized properties
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeTypes(PrintWriter writer) {
+        List<FieldModel> parameterized = properties().stream()
+                .filter(f -> f.customSerde == null && f.isParameterized())
+                .toList();
+
+        parameterized.forEach(f -> writer.printf(
+                "    private static final java.lang.reflect.Type %s = %s.fieldType(%s.class, \"%s\");%n",
+                typeConstant(f), EntityCodec.class.getName(), f.declaringClass.getQualifiedName(), f.name
+        ));
+
+        if (!parameterized.isEmpty()) {
+            writer.println();
+        }
+    }
+
+    /**
+     * Writes {@link EntityCodec#getType()}
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeGetType(PrintWriter writer) {
+        writer.println("    @Override");
+        writer.printf("    public Class<%s> getType() {%n", model.qualifiedName);
+        writer.printf("        return %s.class;%n", model.qualifiedName);
+        writer.println("    }");
+        writer.println();
+    }
+
+    /**
+     * Writes {@link EntityCodec#getAncestors(Object)}
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeGetAncestors(PrintWriter writer) {
+        writer.println("    @Override");
+        writer.printf("    public java.util.List<%s> getAncestors(%s o) {%n", ANCESTOR, model.qualifiedName);
+        writer.printf("        java.util.List<%s> ancestors = new java.util.ArrayList<>(%d);%n", ANCESTOR, model.ancestorFields.size());
+        model.ancestorFields.forEach(f -> writer.printf(
+                "        ancestors.add(%s.of(\"%s\", %s));%n", ANCESTOR, escape(f.ancestor.kind()), f.getter
+        ));
+        writer.println("        return ancestors;");
+        writer.println("    }");
+        writer.println();
+    }
+
+    /**
+     * Writes {@link EntityCodec#createKey(com.google.cloud.datastore.KeyFactory, Object)}
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeCreateKey(PrintWriter writer) {
+        writer.println("    @Override");
+        writer.printf("    public %s createKey(com.google.cloud.datastore.KeyFactory keyFactory, %s o) {%n", INCOMPLETE_KEY, model.qualifiedName);
+
+        FieldModel kf = model.keyField;
+        if (kf == null) {
+            writer.println("        return keyFactory.newKey();");
+        } else if (kf.key.keyType() == KeyType.LONG) {
+            writer.printf("        java.lang.Long key = %s;%n", kf.getter);
+            writer.println("        if (key != null && key != 0L) {");
+            writer.println("            return keyFactory.newKey(key);");
+            writer.println("        }");
+            writer.println("        return keyFactory.newKey();");
+        } else {
+            writer.printf("        java.lang.String key = %s;%n", kf.getter);
+            writer.println("        if (key != null && !key.isEmpty()) {");
+            writer.println("            return keyFactory.newKey(key);");
+            writer.println("        }");
+            writer.println("        return keyFactory.newKey(java.util.UUID.randomUUID().toString());");
+        }
+
+        writer.println("    }");
+        writer.println();
+    }
+
+    /**
+     * Writes {@link EntityCodec#serialize(com.roundfeather.persistence.utils.datastore.EntityManager, Object, com.google.cloud.datastore.IncompleteKey)}
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeSerialize(PrintWriter writer) {
+        writer.println("    @Override");
+        writer.printf("    public %s serialize(%s em, %s o, %s key) {%n", FULL_ENTITY, ENTITY_MANAGER, model.qualifiedName, INCOMPLETE_KEY);
+        writer.printf("        %s.Builder builder = key != null ? %s.newBuilder(key) : %s.newBuilder();%n", FULL_ENTITY, FULL_ENTITY, FULL_ENTITY);
+        writer.println("        com.google.cloud.datastore.Value v;");
+
+        for (FieldModel f : properties()) {
+            String index = String.valueOf(f.excludeFromIndex);
+            if (f.customSerde != null) {
+                writer.printf("        v = %s.of(%s.class).serialize(em, %s, %s);%n", CUSTOM_SERDES, f.customSerde, f.getter, index);
+                writer.println("        if (v != null) {");
+            } else if (f.isPrimitive()) {
+                writer.printf("        v = em.createProperty(%s, %s);%n", f.getter, index);
+                writer.println("        if (v != null) {");
+            } else {
+                writer.printf("        java.lang.Object %s = %s;%n", local(f), f.getter);
+                writer.printf("        v = %s != null ? em.createProperty(%s, %s) : null;%n", local(f), local(f), index);
+                writer.println("        if (v != null) {");
+            }
+            writer.printf("            builder.set(\"%s\", v);%n", escape(f.propertyName));
+            writer.println("        }");
+        }
+
+        writer.println("        return builder.build();");
+        writer.println("    }");
+        writer.println();
+    }
+
+    /**
+     * Writes {@link EntityCodec#deserialize(com.roundfeather.persistence.utils.datastore.DatastoreNamespace, com.roundfeather.persistence.utils.datastore.EntityManager, com.google.cloud.datastore.FullEntity)}
+     *
+     * @param writer Writer of the codec
+     *
+     * @since 1.4
+     */
+    private void writeDeserialize(PrintWriter writer) {
+        writer.println("    @Override");
+        writer.printf("    public %s deserialize(%s dsNamespace, %s em, %s e) {%n", model.qualifiedName, NAMESPACE, ENTITY_MANAGER, FULL_ENTITY);
+
+        if (model.keyField != null || !model.ancestorFields.isEmpty()) {
+            writer.printf("        %s entityKey = e.getKey();%n", INCOMPLETE_KEY);
+        }
+
+        if (model.builder != null) {
+            writer.printf("        var builder = %s;%n", model.builder);
+            writeFields(writer, model::builderSetter);
+            writer.printf("        %s o = builder.%s();%n", model.qualifiedName, model.buildMethod);
+            writeFields(writer, f -> model.builderSetter(f) == null ? f.setter : null);
+        } else {
+            writer.printf("        %s o = %s;%n", model.qualifiedName, model.constructor());
+            writeFields(writer, f -> f.setter);
+        }
+
+        writer.println("        return o;");
+        writer.println("    }");
+    }
+
+    /**
+     * Writes the statements decoding the key, ancestors and properties of the entity and passing them to the fields
+     *
+     * @param writer Writer of the codec
+     * @param setters Gets the format of the statement writing {@code %s} to a field, {@code null} to skip the field
+     *
+     * @since 1.4
+     */
+    private void writeFields(PrintWriter writer, Function<FieldModel, String> setters) {
+        writeKeyFields(writer, setters);
+
+        for (FieldModel f : properties()) {
+            String setter = setters.apply(f);
+            if (setter == null) {
+                continue;
+            }
+
+            writer.printf("        if (e.contains(\"%s\")) {%n", escape(f.propertyName));
+            if (f.customSerde != null) {
+                writer.printf("            %s %s = (%s) %s.of(%s.class).deserialize(em, e.getValue(\"%s\"));%n",
+                        f.boxedTypeName(env), local(f), f.boxedTypeName(env), CUSTOM_SERDES, f.customSerde, escape(f.propertyName));
+            } else {
+                String type = f.isParameterized() ? typeConstant(f) : f.classLiteral(env);
+                writer.printf("            %s %s = em.handleProperty(dsNamespace, %s, e.getValue(\"%s\"));%n",
+                        f.boxedTypeName(env), local(f), type, escape(f.propertyName));
+            }
+            writeAssignment(writer, f, setter, local(f), INDENT + "    ");
+            writer.println("        }");
+        }
+    }
+
+    /**
+     * Writes the statements injecting the key and ancestors of the entity in the object, reading them from a variable
+     * named {@code entityKey}
+     *
+     * @param writer Writer of the codec
+     * @param setters Gets the format of the statement writing {@code %s} to a field, {@code null} to skip the field
+     *
+     * @since 1.4
+     */
+    private void writeKeyFields(PrintWriter writer, Function<FieldModel, String> setters) {
+        List<FieldModel> ancestorFields = model.ancestorFields.stream()
+                .filter(f -> setters.apply(f) != null)
+                .toList();
+        FieldModel kf = model.keyField != null && setters.apply(model.keyField) != null ? model.keyField : null;
+
+        if (kf == null && ancestorFields.isEmpty()) {
+            return;
+        }
+
+        writer.println("        if (entityKey != null) {");
+
+        if (!ancestorFields.isEmpty()) {
+            writer.println("            for (com.google.cloud.datastore.PathElement pe : entityKey.getAncestors()) {");
+            writer.println("                switch (pe.getKind()) {");
+            for (FieldModel f : ancestorFields) {
+                writer.printf("                    case \"%s\" -> {%n", escape(f.ancestor.kind()));
+                writeAssignment(writer, f, setters.apply(f), keyAccessor("pe", f.ancestor.keyType()), INDENT + "                ");
+                writer.println("                    }");
+            }
+            writer.println("                    default -> {");
+            writer.println("                        // ancestor isn't mapped to a field");
+            writer.println("                    }");
+            writer.println("                }");
+            writer.println("            }");
+        }
+
+        if (kf != null) {
+            writer.println("            if (entityKey instanceof com.google.cloud.datastore.Key completeKey) {");
+            writeAssignment(writer, kf, setters.apply(kf), keyAccessor("completeKey", kf.key.keyType()), INDENT + "        ");
+            writer.println("            }");
+        }
+
+        writer.println("        }");
+    }
+
+    /**
+     * Writes the statement setting a field, ignoring {@code null} values for primitive fields
+     *
+     * @param writer Writer of the codec
+     * @param f Field to set
+     * @param setter Format of the statement writing {@code %s} to the field
+     * @param value Expression of the value to set
+     * @param indent Indentation of the statement
+     *
+     * @since 1.4
+     */
+    private static void writeAssignment(PrintWriter writer, FieldModel f, String setter, String value, String indent) {
+        String assignment = String.format(setter, value) + ";";
+        if (f.isPrimitive()) {
+            writer.printf("%sif (%s != null) {%n", indent, value);
+            writer.printf("%s    %s%n", indent, assignment);
+            writer.printf("%s}%n", indent);
+        } else {
+            writer.printf("%s%s%n", indent, assignment);
+        }
+    }
+
+    /**
+     * Gets the expression reading the id or name of a key or path element
+     *
+     * @param variable Variable holding the key or path element
+     * @param keyType Type of the key
+     * @return The expression
+     *
+     * @since 1.4
+     */
+    private static String keyAccessor(String variable, KeyType keyType) {
+        return variable + (keyType == KeyType.LONG ? ".getId()" : ".getName()");
+    }
+
+    /**
+     * Gets the fields written as properties of the entity
+     *
+     * @return The property fields
+     *
+     * @since 1.4
+     */
+    private List<FieldModel> properties() {
+        return model.fields.stream()
+                .filter(FieldModel::isProperty)
+                .toList();
+    }
+
+    /**
+     * Gets the name of the constant holding the generic type of a field
+     *
+     * @param f The field
+     * @return The name of the constant
+     *
+     * @since 1.4
+     */
+    private String typeConstant(FieldModel f) {
+        return "TYPE_" + properties().indexOf(f);
+    }
+
+    /**
+     * Gets the name of the local variable holding the value of a field
+     *
+     * @param f The field
+     * @return The name of the variable
+     *
+     * @since 1.4
+     */
+    private String local(FieldModel f) {
+        return "v" + properties().indexOf(f);
+    }
+
+    /**
+     * Escapes a value to be written as a string literal
+     *
+     * @param s The value
+     * @return The escaped value
+     *
+     * @since 1.4
+     */
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,259 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Compile time view of a class annotated with {@link DatastoreEntity}, used to generate code for the entity
+ *
+ * @since 1.4
+ */
+final class EntityModel {
+
+    private static final String LOMBOK_BUILDER = "lombok.Builder";
+
+    final TypeElement element;
+    final String packageName;
+    final String simpleName;
+    final String qualifiedName;
+    final String kind;
+    final List<FieldModel> fields;
+    final FieldModel keyField;
+    final List<FieldModel> ancestorFields;
+
+    /**
+     * Expression creating the builder of the entity, {@code null} if the entity has no builder
+     */
+    final String builder;
+
+    /**
+     * Name of the builder method creating the entity, {@code null} if the entity has no builder
+     */
+    final String buildMethod;
+
+    private final String setterPrefix;
+    private final Set<String> builderFields;
+
+    /**
+     * Builds the model of an entity by walking the class hierarchy once
+     *
+     * @param env The processing environment
+     * @param clazz The entity class
+     *
+     * @since 1.4
+     */
+    EntityModel(ProcessingEnvironment env, TypeElement clazz) {
+        this.element = clazz;
+        this.packageName = env.getElementUtils().getPackageOf(clazz).getQualifiedName().toString();
+        this.simpleName = clazz.getSimpleName().toString();
+        this.qualifiedName = clazz.getQualifiedName().toString();
+        this.kind = clazz.getAnnotation(DatastoreEntity.class).value();
+
+        List<FieldModel> all = new ArrayList<>();
+        TypeElement c = clazz;
+        while (c != null && !c.getQualifiedName().contentEquals(Object.class.getName())) {
+            for (VariableElement ve : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+                if (!ve.getModifiers().contains(Modifier.STATIC)) {
+                    all.add(new FieldModel(env, ve));
+                }
+            }
+
+            TypeMirror superclass = c.getSuperclass();
+            c = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        this.fields = List.copyOf(all);
+        this.keyField = all.stream()
+                .filter(f -> f.key != null)
+                .findFirst()
+                .orElse(null);
+
+        Set<String> kinds = new HashSet<>();
+        this.ancestorFields = all.stream()
+                .filter(f -> f.ancestor != null)
+                .sorted(Comparator.comparingInt(f -> f.ancestor.order()))
+                .filter(f -> kinds.add(f.ancestor.kind()))
+                .toList();
+
+        AnnotationMirror lombokBuilder = FieldModel.findAnnotation(clazz, LOMBOK_BUILDER);
+        ExecutableElement builderMethod = ElementFilter.methodsIn(clazz.getEnclosedElements()).stream()
+                .filter(m -> m.getSimpleName().contentEquals("builder") && m.getModifiers().contains(Modifier.STATIC) &&
+                        m.getParameters().isEmpty() && !m.getModifiers().contains(Modifier.PRIVATE))
+                .findFirst()
+                .orElse(null);
+        Set<String> declared = new HashSet<>();
+        all.stream()
+                .filter(f -> f.declaringClass.equals(clazz))
+                .forEach(f -> declared.add(f.name));
+
+        if (lombokBuilder != null) {
+            this.builder = String.format("%s.%s()", qualifiedName, annotationValue(lombokBuilder, "builderMethodName", "builder"));
+            this.buildMethod = annotationValue(lombokBuilder, "buildMethodName", "build");
+            this.setterPrefix = annotationValue(lombokBuilder, "setterPrefix", "");
+            this.builderFields = declared;
+        } else if (builderMethod != null && builderMethod.getReturnType().getKind() == TypeKind.DECLARED) {
+            TypeElement builderType = (TypeElement) ((DeclaredType) builderMethod.getReturnType()).asElement();
+            Set<String> methods = new HashSet<>();
+            ElementFilter.methodsIn(builderType.getEnclosedElements()).stream()
+                    .filter(m -> m.getParameters().size() == 1 && !m.getModifiers().contains(Modifier.PRIVATE) &&
+                            !m.getModifiers().contains(Modifier.STATIC))
+                    .forEach(m -> methods.add(m.getSimpleName().toString()));
+            declared.retainAll(methods);
+
+            this.builder = qualifiedName + ".builder()";
+            this.buildMethod = "build";
+            this.setterPrefix = "";
+            this.builderFields = declared;
+        } else {
+            this.builder = null;
+            this.buildMethod = null;
+            this.setterPrefix = "";
+            this.builderFields = Set.of();
+        }
+    }
+
+    /**
+     * Gets the format of the statement passing {@code %s} to the builder method of a field, on a variable named
+     * {@code builder}. The builder only takes the fields declared by the entity class itself, as Lombok {@code @Builder}
+     * does
+     *
+     * @param f The field
+     * @return The format of the statement, {@code null} if the builder has no method for the field
+     *
+     * @since 1.4
+     */
+    String builderSetter(FieldModel f) {
+        if (!f.declaringClass.equals(element) || !builderFields.contains(f.name)) {
+            return null;
+        }
+
+        String method = setterPrefix.isEmpty() ? f.name : setterPrefix + Character.toUpperCase(f.name.charAt(0)) + f.name.substring(1);
+        return "builder." + method + "(%s)";
+    }
+
+    /**
+     * Gets the expression creating a new instance of the entity with its no arguments constructor
+     *
+     * @return The expression, {@code null} if the entity has no accessible no arguments constructor
+     *
+     * @since 1.4
+     */
+    String constructor() {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(element.getEnclosedElements());
+        boolean explicitNoArgs = constructors.stream()
+                .anyMatch(ce -> ce.getParameters().isEmpty() && !ce.getModifiers().contains(Modifier.PRIVATE));
+        AnnotationMirror noArgs = FieldModel.findAnnotation(element, "lombok.NoArgsConstructor");
+        boolean lombokNoArgs = noArgs != null && !"PRIVATE".equals(annotationValue(noArgs, "access", "PUBLIC"));
+        boolean defaultConstructor = constructors.isEmpty() &&
+                Stream.of("lombok.AllArgsConstructor", "lombok.RequiredArgsConstructor", "lombok.Data", "lombok.Value")
+                        .noneMatch(a -> FieldModel.hasLombok(element, a));
+
+        if (explicitNoArgs || lombokNoArgs || defaultConstructor) {
+            return "new " + qualifiedName + "()";
+        }
+
+        return null;
+    }
+
+    /**
+     * Lists the reasons a codec can't be generated for the entity, in which case the reflective serde is used
+     *
+     * @param env The processing environment
+     * @return The reasons, empty if a codec can be generated
+     *
+     * @since 1.4
+     */
+    List<String> codecLimitations(ProcessingEnvironment env) {
+        List<String> limitations = new ArrayList<>();
+
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            limitations.add("not a concrete class");
+        }
+        if (element.getModifiers().contains(Modifier.PRIVATE) ||
+                (element.getNestingKind() != NestingKind.TOP_LEVEL && !element.getModifiers().contains(Modifier.STATIC))) {
+            limitations.add("not accessible from its package");
+        }
+        if (!element.getTypeParameters().isEmpty()) {
+            limitations.add("has type parameters");
+        }
+        if (element.getAnnotation(DatastoreTypeInfo.class) != null || element.getAnnotation(DatastoreSubTypes.class) != null) {
+            limitations.add("has subtypes");
+        }
+        if (builder == null && constructor() == null) {
+            limitations.add("has no builder or no arguments constructor");
+        }
+
+        fields.stream()
+                .filter(f -> !f.skip)
+                .forEach(f -> fieldLimitation(env, f).ifPresent(l -> limitations.add(String.format("field '%s' %s", f.name, l))));
+
+        return limitations;
+    }
+
+    /**
+     * Checks if a field can be handled by a generated codec. A field passed to the builder of the entity doesn't need a
+     * setter
+     *
+     * @param env The processing environment
+     * @param f The field to check
+     * @return The reason the field can't be handled, empty if it can
+     *
+     * @since 1.4
+     */
+    private Optional<String> fieldLimitation(ProcessingEnvironment env, FieldModel f) {
+        if (f.nested || f.subtyped || f.external) {
+            return Optional.of("requires the reflective serde");
+        }
+        if (!f.hasSupportedType()) {
+            return Optional.of("has an unsupported type");
+        }
+        if (f.getter == null || (f.setter == null && builderSetter(f) == null)) {
+            return Optional.of("has no accessible getter and setter");
+        }
+        if (f.key != null && !expectedType(f.key.keyType()).equals(f.boxedTypeName(env))) {
+            return Optional.of("doesn't match its key type");
+        }
+        if (f.ancestor != null && !expectedType(f.ancestor.keyType()).equals(f.boxedTypeName(env))) {
+            return Optional.of("doesn't match its ancestor key type");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the Java type expected for a key type
+     *
+     * @param keyType The key type
+     * @return The qualified name of the Java type
+     *
+     * @since 1.4
+     */
+    static String expectedType(KeyType keyType) {
+        return keyType == KeyType.LONG ? Long.class.getName() : String.class.getName();
+    }
+
+    /**
+     * Gets an explicitly set value of an annotation
+     *
+     * @param am The annotation
+     * @param name The name of the annotation member
+     * @param defaultValue The value to return if not explicitly set
+     * @return The value of the member as a string
+     *
+     * @since 1.4
+     */
+    private static String annotationValue(AnnotationMirror am, String name, String defaultValue) {
+        return am.getElementValues().entrySet().stream()
+                .filter(ev -> ev.getKey().getSimpleName().contentEquals(name))
+                .map(ev -> ev.getValue().getValue().toString())
+                .findFirst()
+                .orElse(defaultValue);
+    }
+}
@@ -0,0 +1,325 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compile time view of a field of a class annotated with {@link DatastoreEntity}, used to generate code that accesses
+ * the field without reflection
+ *
+ * @since 1.4
+ */
+final class FieldModel {
+
+    private static final Set<String> NON_ACCESSIBLE_LEVELS = Set.of("PRIVATE", "PROTECTED", "PACKAGE", "MODULE", "NONE");
+
+    final VariableElement element;
+    final TypeElement declaringClass;
+    final String name;
+    final String propertyName;
+    final TypeMirror type;
+    final DatastoreKey key;
+    final DatastoreAncestor ancestor;
+    final boolean skip;
+    final boolean external;
+    final boolean nested;
+    final boolean subtyped;
+    final boolean excludeFromIndex;
+
+    /**
+     * Qualified name of the {@link DatastoreWithSerde} class, {@code null} if the field has none
+     */
+    final String customSerde;
+
+    /**
+     * Expression reading the field from a variable named {@code o}, {@code null} if the field can't be read
+     */
+    final String getter;
+
+    /**
+     * Format of the statement writing {@code %s} to the field of a variable named {@code o}, {@code null} if the field
+     * can't be written
+     */
+    final String setter;
+
+    /**
+     * Builds the model of a field
+     *
+     * @param env The processing environment
+     * @param ve The field
+     *
+     * @since 1.4
+     */
+    FieldModel(ProcessingEnvironment env, VariableElement ve) {
+        this.element = ve;
+        this.declaringClass = (TypeElement) ve.getEnclosingElement();
+        this.name = ve.getSimpleName().toString();
+        this.type = ve.asType();
+
+        DatastorePropertyAs propertyAs = ve.getAnnotation(DatastorePropertyAs.class);
+        this.propertyName = propertyAs != null ? propertyAs.value() : name;
+
+        this.key = ve.getAnnotation(DatastoreKey.class);
+        this.ancestor = ve.getAnnotation(DatastoreAncestor.class);
+        this.skip = ve.getAnnotation(DatastoreSkip.class) != null;
+        this.external = ve.getAnnotation(DatastoreExternalEntity.class) != null;
+        this.nested = ve.getAnnotation(DatastoreNested.class) != null;
+        this.subtyped = ve.getAnnotation(DatastoreTypeInfo.class) != null ||
+                ve.getAnnotation(DatastoreSubTypes.class) != null ||
+                ve.getAnnotation(DatastoreSubType.class) != null ||
+                hasExternalTypeInfo(type);
+        this.excludeFromIndex = ve.getAnnotation(DatastoreExcludeFromIndex.class) != null;
+        AnnotationMirror withSerde = findAnnotation(ve, DatastoreWithSerde.class.getName());
+        this.customSerde = withSerde == null ? null : withSerde.getElementValues().entrySet().stream()
+                .filter(ev -> ev.getKey().getSimpleName().contentEquals("value"))
+                .map(ev -> env.getTypeUtils().erasure((TypeMirror) ev.getValue().getValue()).toString())
+                .findFirst()
+                .orElse(null);
+
+        boolean publicClass = declaringClass.getModifiers().contains(Modifier.PUBLIC);
+        boolean directAccess = publicClass && ve.getModifiers().contains(Modifier.PUBLIC) &&
+                !hasLombok(declaringClass, "lombok.Value") && !hasLombok(declaringClass, "lombok.experimental.FieldDefaults");
+        boolean isFinal = ve.getModifiers().contains(Modifier.FINAL);
+        boolean lombokNaming = publicClass && !hasLombok(declaringClass, "lombok.experimental.Accessors") &&
+                !hasLombok(ve, "lombok.experimental.Accessors");
+        boolean boolField = type.getKind() == TypeKind.BOOLEAN;
+
+        if (directAccess) {
+            this.getter = "o." + name;
+        } else if (hasMethod(declaringClass, getterName(), 0) ||
+                (lombokNaming && !boolField && (lombokAccess(ve, "lombok.Getter") || lombokAccess(declaringClass, "lombok.Getter") ||
+                        hasLombok(declaringClass, "lombok.Data") || hasLombok(declaringClass, "lombok.Value")))) {
+            this.getter = "o." + getterName() + "()";
+        } else {
+            this.getter = null;
+        }
+
+        if (directAccess && !isFinal) {
+            this.setter = "o." + name + " = %s";
+        } else if (hasMethod(declaringClass, setterName(), 1) ||
+                (lombokNaming && !isFinal && !(boolField && isPrefixed()) && (lombokAccess(ve, "lombok.Setter") ||
+                        lombokAccess(declaringClass, "lombok.Setter") || hasLombok(declaringClass, "lombok.Data")))) {
+            this.setter = "o." + setterName() + "(%s)";
+        } else {
+            this.setter = null;
+        }
+    }
+
+    /**
+     * If the field is written to the entity as a property
+     *
+     * @return if the field is a property of the entity
+     *
+     * @since 1.4
+     */
+    boolean isProperty() {
+        return key == null && ancestor == null && !skip && !external;
+    }
+
+    /**
+     * If the type of the field is a primitive
+     *
+     * @return if the field is a primitive
+     *
+     * @since 1.4
+     */
+    boolean isPrimitive() {
+        return type.getKind().isPrimitive();
+    }
+
+    /**
+     * If the type of the field has type arguments, e.g. {@code List<String>}
+     *
+     * @return if the field has a parameterized type
+     *
+     * @since 1.4
+     */
+    boolean isParameterized() {
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * If the type of the field can be referenced from generated code, i.e. is a primitive or a declared type
+     *
+     * @return if the field has a supported type
+     *
+     * @since 1.4
+     */
+    boolean hasSupportedType() {
+        return isPrimitive() || type.getKind() == TypeKind.DECLARED;
+    }
+
+    /**
+     * Gets the name of the type of the field to use in casts, boxing primitives and erasing type arguments
+     *
+     * @param env The processing environment
+     * @return The qualified name of the type
+     *
+     * @since 1.4
+     */
+    String boxedTypeName(ProcessingEnvironment env) {
+        if (isPrimitive()) {
+            return env.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return env.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Gets the class literal of the type of the field, erasing type arguments
+     *
+     * @param env The processing environment
+     * @return The class literal
+     *
+     * @since 1.4
+     */
+    String classLiteral(ProcessingEnvironment env) {
+        return env.getTypeUtils().erasure(type).toString() + ".class";
+    }
+
+    /**
+     * Checks if the class of a field uses an {@link InclusionType#EXTERNAL_PROPERTY} discriminator, which is resolved
+     * from the object holding the field
+     *
+     * @param type The type of the field
+     * @return if the subtype of the field depends on its holder
+     *
+     * @since 1.4
+     */
+    private static boolean hasExternalTypeInfo(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        DatastoreTypeInfo typeInfo = ((DeclaredType) type).asElement().getAnnotation(DatastoreTypeInfo.class);
+        return typeInfo != null && typeInfo.include() == InclusionType.EXTERNAL_PROPERTY;
+    }
+
+    /**
+     * Gets the name of the getter, {@code getX} for every type like the reflective access does, so the codec reads the
+     * same fields as the reflective serde
+     *
+     * @return The name of the getter
+     *
+     * @since 1.4
+     */
+    private String getterName() {
+        return "get" + capitalize(name);
+    }
+
+    /**
+     * Gets the name of the setter, {@code setX} for every type like the reflective access does
+     *
+     * @return The name of the setter
+     *
+     * @since 1.4
+     */
+    private String setterName() {
+        return "set" + capitalize(name);
+    }
+
+    /**
+     * If the name of a boolean field is already prefixed with {@code is}, e.g. {@code isActive}, in which case Lombok
+     * names its setter {@code setActive} instead of {@link #setterName()}
+     *
+     * @return if the name is prefixed
+     *
+     * @since 1.4
+     */
+    private boolean isPrefixed() {
+        return name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+    }
+
+    /**
+     * Checks if a public class declares a public method with the given name and number of parameters
+     *
+     * @param c Class to check
+     * @param methodName Name of the method
+     * @param parameters Number of parameters
+     * @return if the method exists
+     *
+     * @since 1.4
+     */
+    private static boolean hasMethod(TypeElement c, String methodName, int parameters) {
+        return ElementFilter.methodsIn(c.getEnclosedElements()).stream()
+                .anyMatch(m -> m.getSimpleName().contentEquals(methodName) &&
+                        m.getParameters().size() == parameters &&
+                        !m.getModifiers().contains(Modifier.STATIC) &&
+                        c.getModifiers().contains(Modifier.PUBLIC) &&
+                        m.getModifiers().contains(Modifier.PUBLIC)
+                );
+    }
+
+    /**
+     * Checks if an element is annotated with a Lombok annotation. Lombok annotations have a {@code SOURCE} retention so
+     * they're checked by name
+     *
+     * @param e Element to check
+     * @param annotation Qualified name of the annotation
+     * @return if the element has the annotation
+     *
+     * @since 1.4
+     */
+    static boolean hasLombok(Element e, String annotation) {
+        return findAnnotation(e, annotation) != null;
+    }
+
+    /**
+     * Checks if an element is annotated with a Lombok accessor annotation that generates an accessible method
+     *
+     * @param e Element to check
+     * @param annotation Qualified name of the annotation
+     * @return if the accessor will be generated
+     *
+     * @since 1.4
+     */
+    private static boolean lombokAccess(Element e, String annotation) {
+        AnnotationMirror am = findAnnotation(e, annotation);
+        if (am == null) {
+            return false;
+        }
+
+        return am.getElementValues().entrySet().stream()
+                .filter(ev -> ev.getKey().getSimpleName().contentEquals("value"))
+                .map(Map.Entry::getValue)
+                .noneMatch(v -> NON_ACCESSIBLE_LEVELS.contains(v.getValue().toString()));
+    }
+
+    /**
+     * Finds an annotation on an element by name
+     *
+     * @param e Element to check
+     * @param annotation Qualified name of the annotation
+     * @return The annotation, {@code null} if not found
+     *
+     * @since 1.4
+     */
+    static AnnotationMirror findAnnotation(Element e, String annotation) {
+        List<? extends AnnotationMirror> mirrors = e.getAnnotationMirrors();
+        return mirrors.stream()
+                .filter(am -> ((TypeElement) am.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Capitalizes the first letter of a name
+     *
+     * @param s The name
+     * @return The capitalized name
+     *
+     * @since 1.4
+     */
+    private static String capitalize(String s) {
+        return s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+}
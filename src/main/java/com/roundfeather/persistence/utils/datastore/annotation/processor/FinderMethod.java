@@ -0,0 +1,364 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compile time view of an abstract method of an interface annotated with {@link DatastoreFinders}, with the query
+ * derived from its name
+ *
+ * @since 1.4
+ */
+final class FinderMethod {
+
+    /**
+     * What the generated method returns
+     *
+     * @since 1.4
+     */
+    enum Result {
+        LIST,
+        FIRST,
+        COUNT,
+        EXISTS
+    }
+
+    /**
+     * Condition derived from the name of the method
+     *
+     * @param field The field the condition applies to
+     * @param operator The name of the {@code Property} method building the condition
+     * @param parameter The parameter holding the value of the condition
+     *
+     * @since 1.4
+     */
+    record Criterion(FieldModel field, String operator, VariableElement parameter) {
+    }
+
+    /**
+     * Ordering derived from the name of the method
+     *
+     * @param field The field to order by
+     * @param descending If the results are ordered by descending values
+     *
+     * @since 1.4
+     */
+    record Ordering(FieldModel field, boolean descending) {
+    }
+
+    private static final String ORDER_BY = "OrderBy";
+
+    /**
+     * Operator suffixes of the conditions, longest first, and the {@code Property} method each one maps to
+     */
+    private static final List<Map.Entry<String, String>> OPERATORS = List.of(
+            Map.entry("GreaterThanEqual", "ge"),
+            Map.entry("LessThanEqual", "le"),
+            Map.entry("GreaterThan", "gt"),
+            Map.entry("LessThan", "lt"),
+            Map.entry("In", "in")
+    );
+
+    final ExecutableElement element;
+    final Result result;
+    final VariableElement namespace;
+    final List<Criterion> criteria = new ArrayList<>();
+    final List<Ordering> orderings = new ArrayList<>();
+    final List<String> errors = new ArrayList<>();
+    VariableElement ancestors;
+
+    /**
+     * Derives the query of a method and validates its parameters and return type
+     *
+     * @param env The processing environment
+     * @param entity The entity handled by the repository
+     * @param method The method
+     *
+     * @since 1.4
+     */
+    FinderMethod(ProcessingEnvironment env, EntityModel entity, ExecutableElement method) {
+        this.element = method;
+
+        String name = method.getSimpleName().toString();
+        String expression;
+        if (name.startsWith("findFirstBy")) {
+            this.result = Result.FIRST;
+            expression = name.substring("findFirstBy".length());
+        } else if (name.startsWith("findBy")) {
+            this.result = isList(env, method.getReturnType()) ? Result.LIST : Result.FIRST;
+            expression = name.substring("findBy".length());
+        } else if (name.startsWith("countBy")) {
+            this.result = Result.COUNT;
+            expression = name.substring("countBy".length());
+        } else if (name.startsWith("existsBy")) {
+            this.result = Result.EXISTS;
+            expression = name.substring("existsBy".length());
+        } else {
+            this.result = null;
+            this.namespace = null;
+            errors.add("must start with findBy, findFirstBy, countBy or existsBy");
+            return;
+        }
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (parameters.isEmpty() || !isType(parameters.get(0).asType(), DatastoreNamespace.class)) {
+            this.namespace = null;
+            errors.add("must take a DatastoreNamespace as first parameter");
+            return;
+        }
+        this.namespace = parameters.get(0);
+
+        validateReturnType(env, entity);
+
+        int orderBy = expression.indexOf(ORDER_BY);
+        String conditions = orderBy < 0 ? expression : expression.substring(0, orderBy);
+        if (orderBy >= 0) {
+            parseOrderings(entity, expression.substring(orderBy + ORDER_BY.length()));
+        }
+
+        int next = 1;
+        if (!conditions.isEmpty()) {
+            for (String condition : conditions.split("And(?=[A-Z])")) {
+                VariableElement parameter = next < parameters.size() ? parameters.get(next) : null;
+                if (parseCondition(env, entity, condition, parameter)) {
+                    next++;
+                }
+            }
+        }
+
+        if (next < parameters.size()) {
+            VariableElement last = parameters.get(next);
+            if (next == parameters.size() - 1 && isAncestors(env, last.asType())) {
+                this.ancestors = last;
+            } else {
+                errors.add(String.format("parameter '%s' doesn't match any condition", last.getSimpleName()));
+            }
+        }
+    }
+
+    /**
+     * Checks the return type of the method matches its result
+     *
+     * @param env The processing environment
+     * @param entity The entity handled by the repository
+     *
+     * @since 1.4
+     */
+    private void validateReturnType(ProcessingEnvironment env, EntityModel entity) {
+        Types types = env.getTypeUtils();
+        TypeMirror returnType = element.getReturnType();
+        TypeMirror entityType = entity.element.asType();
+
+        boolean valid = switch (result) {
+            case LIST -> types.isSameType(((DeclaredType) returnType).getTypeArguments().get(0), entityType);
+            case FIRST -> types.isSameType(returnType, entityType);
+            case COUNT -> isType(boxed(env, returnType), Long.class);
+            case EXISTS -> isType(boxed(env, returnType), Boolean.class);
+        };
+
+        if (!valid) {
+            String expected = switch (result) {
+                case LIST -> "List<" + entity.simpleName + ">";
+                case FIRST -> entity.simpleName;
+                case COUNT -> "long";
+                case EXISTS -> "boolean";
+            };
+            errors.add(String.format("must return %s", expected));
+        }
+    }
+
+    /**
+     * Parses a condition of the method name
+     *
+     * @param env The processing environment
+     * @param entity The entity handled by the repository
+     * @param condition The condition, e.g. {@code ScoreGreaterThan}
+     * @param parameter The parameter holding the value of the condition, {@code null} if missing
+     * @return If the condition consumed the parameter
+     *
+     * @since 1.4
+     */
+    private boolean parseCondition(ProcessingEnvironment env, EntityModel entity, String condition, VariableElement parameter) {
+        Optional<FieldModel> field = findField(entity, condition);
+        String operator = "eq";
+
+        if (field.isEmpty()) {
+            for (Map.Entry<String, String> op : OPERATORS) {
+                if (condition.endsWith(op.getKey())) {
+                    field = findField(entity, condition.substring(0, condition.length() - op.getKey().length()));
+                    operator = op.getValue();
+                    if (field.isPresent()) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (field.isEmpty()) {
+            errors.add(String.format("condition '%s' doesn't match a queryable field of '%s'", condition, entity.qualifiedName));
+            return parameter != null;
+        }
+        if (parameter == null) {
+            errors.add(String.format("has no parameter for condition '%s'", condition));
+            return false;
+        }
+
+        FieldModel f = field.get();
+        Types types = env.getTypeUtils();
+        TypeMirror fieldType = boxed(env, f.type);
+        boolean valid;
+        if ("in".equals(operator)) {
+            TypeMirror collection = types.erasure(env.getElementUtils().getTypeElement(Collection.class.getName()).asType());
+            valid = parameter.asType().getKind() == TypeKind.DECLARED &&
+                    types.isAssignable(types.erasure(parameter.asType()), collection) &&
+                    ((DeclaredType) parameter.asType()).getTypeArguments().size() == 1 &&
+                    isElementType(env, ((DeclaredType) parameter.asType()).getTypeArguments().get(0), fieldType);
+        } else {
+            valid = types.isSameType(boxed(env, parameter.asType()), fieldType);
+        }
+
+        if (!valid) {
+            errors.add(String.format("parameter '%s' doesn't match the type of field '%s'", parameter.getSimpleName(), f.name));
+        }
+
+        criteria.add(new Criterion(f, operator, parameter));
+        return true;
+    }
+
+    /**
+     * Parses the orderings of the method name
+     *
+     * @param entity The entity handled by the repository
+     * @param expression The orderings, e.g. {@code ScoreDescNameAsc}
+     *
+     * @since 1.4
+     */
+    private void parseOrderings(EntityModel entity, String expression) {
+        for (String ordering : expression.split("(?<=Asc|Desc)(?=[A-Z])")) {
+            boolean descending = ordering.endsWith("Desc");
+            String fieldName = descending ? ordering.substring(0, ordering.length() - 4) :
+                    ordering.endsWith("Asc") ? ordering.substring(0, ordering.length() - 3) : ordering;
+
+            Optional<FieldModel> field = findField(entity, fieldName);
+            if (field.isPresent()) {
+                orderings.add(new Ordering(field.get(), descending));
+            } else {
+                errors.add(String.format("ordering '%s' doesn't match a queryable field of '%s'", ordering, entity.qualifiedName));
+            }
+        }
+    }
+
+    /**
+     * Finds the queryable field named by a part of the method name
+     *
+     * @param entity The entity handled by the repository
+     * @param capitalized The capitalized name of the field
+     * @return The field, empty if the entity has no such queryable field
+     *
+     * @since 1.4
+     */
+    private static Optional<FieldModel> findField(EntityModel entity, String capitalized) {
+        if (capitalized.isEmpty()) {
+            return Optional.empty();
+        }
+        String name = Character.toLowerCase(capitalized.charAt(0)) + capitalized.substring(1);
+        return MetamodelGenerator.queryableFields(entity).stream()
+                .filter(f -> f.name.equals(name) || f.name.equals(capitalized))
+                .findFirst();
+    }
+
+    /**
+     * Checks if the type argument of the collection of an {@code In} condition holds values of the type of the field
+     *
+     * @param env The processing environment
+     * @param argument The type argument of the collection, e.g. {@code String} or {@code ? extends String}
+     * @param fieldType The boxed type of the field
+     * @return if the values of the collection have the type of the field
+     *
+     * @since 1.4
+     */
+    private static boolean isElementType(ProcessingEnvironment env, TypeMirror argument, TypeMirror fieldType) {
+        if (argument.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType) argument).getExtendsBound();
+            return bound != null && env.getTypeUtils().isSameType(bound, fieldType);
+        }
+        return env.getTypeUtils().isSameType(argument, fieldType);
+    }
+
+    /**
+     * Checks if a return type is a {@link List}
+     *
+     * @param env The processing environment
+     * @param type The return type
+     * @return if the type is a list
+     *
+     * @since 1.4
+     */
+    private static boolean isList(ProcessingEnvironment env, TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED &&
+                env.getTypeUtils().erasure(type).toString().equals(List.class.getName()) &&
+                ((DeclaredType) type).getTypeArguments().size() == 1;
+    }
+
+    /**
+     * Checks if a parameter holds the ancestors, either as a varargs or a {@link List} of {@link Ancestor}
+     *
+     * @param env The processing environment
+     * @param type The type of the parameter
+     * @return if the parameter holds ancestors
+     *
+     * @since 1.4
+     */
+    private static boolean isAncestors(ProcessingEnvironment env, TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isType(((ArrayType) type).getComponentType(), Ancestor.class);
+        }
+        return isList(env, type) && isType(((DeclaredType) type).getTypeArguments().get(0), Ancestor.class);
+    }
+
+    /**
+     * Checks if a type is a given class
+     *
+     * @param type The type
+     * @param c The class
+     * @return if the type is the class
+     *
+     * @since 1.4
+     */
+    private static boolean isType(TypeMirror type, Class<?> c) {
+        return type.getKind() == TypeKind.DECLARED && type.toString().equals(c.getName());
+    }
+
+    /**
+     * Boxes a primitive type
+     *
+     * @param env The processing environment
+     * @param type The type
+     * @return The boxed type, or the type itself if it isn't a primitive
+     *
+     * @since 1.4
+     */
+    private static TypeMirror boxed(ProcessingEnvironment env, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return env.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+        return type;
+    }
+}
@@ -0,0 +1,101 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.query.DatastoreQuery;
+import com.roundfeather.persistence.utils.datastore.query.Property;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates the {@code <Entity>_} metamodel of a class annotated with {@link DatastoreEntity}.
+ *
+ * <p>
+ *     The metamodel has a {@link Property} constant for each field which can be used in the conditions and orderings
+ *     of a {@link DatastoreQuery}, i.e. each indexed property which isn't nested, subtyped or a collection, with its
+ *     property name resolved at compile time
+ * </p>
+ *
+ * @since 1.4
+ */
+final class MetamodelGenerator {
+
+    private final ProcessingEnvironment env;
+    private final EntityModel model;
+
+    /**
+     * Creates a generator for an entity
+     *
+     * @param env The processing environment
+     * @param model The entity to generate the metamodel for
+     *
+     * @since 1.4
+     */
+    MetamodelGenerator(ProcessingEnvironment env, EntityModel model) {
+        this.env = env;
+        this.model = model;
+    }
+
+    /**
+     * Gets the qualified name of the generated metamodel
+     *
+     * @return The qualified name of the metamodel
+     *
+     * @since 1.4
+     */
+    String metamodelName() {
+        return model.packageName + "." + model.simpleName + "_";
+    }
+
+    /**
+     * Writes the metamodel source file
+     *
+     * @throws IOException if the file can't be written
+     *
+     * @since 1.4
+     */
+    void generate() throws IOException {
+        JavaFileObject metamodelFile = env.getFiler().createSourceFile(metamodelName(), model.element);
+        try (PrintWriter writer = new PrintWriter(metamodelFile.openWriter())) {
+            writer.printf("package %s;%n%n", model.packageName);
+
+            writer.printf("public final class %s_ {%n%n", model.simpleName);
+
+            for (FieldModel f : queryableFields(model)) {
+                writer.printf(
+                        "    public static final %s<%s, %s> %s = %s.of(%s.class, \"%s\", %s);%n",
+                        Property.class.getName(), model.qualifiedName, f.boxedTypeName(env), f.name,
+                        Property.class.getName(), model.qualifiedName, f.name,
+                        env.getElementUtils().getConstantExpression(f.propertyName)
+                );
+            }
+
+            writer.println();
+            writer.printf("    private %s_() {%n", model.simpleName);
+            writer.println("    }");
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Lists the fields of an entity which can be used in query conditions and orderings
+     *
+     * @param model The entity
+     * @return The fields, the first one of each name when a subclass hides a field of its parent
+     *
+     * @since 1.4
+     */
+    static List<FieldModel> queryableFields(EntityModel model) {
+        Set<String> names = new HashSet<>();
+        return model.fields.stream()
+                .filter(f -> names.add(f.name))
+                .filter(f -> f.isProperty() && !f.nested && !f.subtyped && !f.excludeFromIndex)
+                .filter(f -> f.hasSupportedType() && !f.isParameterized())
+                .toList();
+    }
+}
@@ -0,0 +1,201 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSubTypes;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreTypeInfo;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Compiled Datastore mapping information for a class.
+ *
+ * <p>
+ *     Metadata is computed once per class the first time it is requested and cached in a {@link ClassValue}, which makes
+ *     lookups lock-free and lets the cache be collected together with the class loader
+ * </p>
+ *
+ * @since 1.4
+ */
+@Getter
+@SuppressWarnings({"squid:S3740"})
+public final class EntityMetadata {
+
+    private static final ClassValue<EntityMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return new EntityMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final String kind;
+    private final DatastoreTypeInfo typeInfo;
+    private final DatastoreSubTypes subTypes;
+    private final SubtypeTable subtypeTable;
+    private final String discriminatorProperty;
+    private final List<FieldMetadata> fields;
+    private final FieldMetadata keyField;
+    private final List<FieldMetadata> ancestorFields;
+    private final List<FieldMetadata> serializableFields;
+    private final List<FieldMetadata> deserializableFields;
+    private final List<FieldMetadata> propertyFields;
+    private final List<FieldMetadata> nestedFields;
+    private final List<FieldMetadata> externalFields;
+    private final List<FieldMetadata> subtypedFields;
+    private final boolean keyWritable;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, FieldMetadata> fieldsByName;
+
+    @Getter(AccessLevel.NONE)
+    private volatile Instantiator instantiator;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, FieldMetadata> ancestorFieldsByKind;
+
+    /**
+     * Gets the metadata for a class, computing it on first access
+     *
+     * @param type The class to get the metadata for
+     * @return The metadata of the class
+     *
+     * @since 1.4
+     */
+    public static EntityMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Builds the metadata by walking the class hierarchy once
+     *
+     * @param type The class to build the metadata for
+     *
+     * @since 1.4
+     */
+    private EntityMetadata(Class<?> type) {
+        this.type = type;
+
+        DatastoreEntity entity = type.getAnnotation(DatastoreEntity.class);
+        this.kind = entity != null ? entity.value() : null;
+        this.typeInfo = type.getAnnotation(DatastoreTypeInfo.class);
+        this.subTypes = type.getAnnotation(DatastoreSubTypes.class);
+        this.subtypeTable = this.typeInfo != null ? new SubtypeTable(this.typeInfo, this.subTypes) : null;
+
+        List<FieldMetadata> all = new ArrayList<>();
+        Map<String, FieldMetadata> byName = new HashMap<>();
+
+        Class<?> c = type;
+        while (c != null && c.getSuperclass() != null) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(f.getModifiers()) && !f.isSynthetic()) {
+                    FieldMetadata fm = new FieldMetadata(f, all.size());
+                    all.add(fm);
+                    byName.putIfAbsent(fm.getName(), fm);
+                }
+            }
+            c = c.getSuperclass();
+        }
+
+        this.fields = List.copyOf(all);
+        this.fieldsByName = Map.copyOf(byName);
+
+        if (this.typeInfo != null) {
+            FieldMetadata discriminator = byName.get(this.typeInfo.property());
+            this.discriminatorProperty = discriminator != null ? discriminator.getPropertyName() : this.typeInfo.property();
+        } else {
+            this.discriminatorProperty = null;
+        }
+
+        this.keyField = all.stream()
+                .filter(FieldMetadata::isKey)
+                .findFirst()
+                .orElse(null);
+
+        this.ancestorFields = all.stream()
+                .filter(FieldMetadata::isAncestor)
+                .sorted(Comparator.comparingInt(f -> f.getDatastoreAncestor().order()))
+                .toList();
+
+        Map<String, FieldMetadata> byKind = new HashMap<>();
+        this.ancestorFields.forEach(f -> byKind.putIfAbsent(f.getDatastoreAncestor().kind(), f));
+        this.ancestorFieldsByKind = Map.copyOf(byKind);
+
+        this.serializableFields = all.stream().filter(FieldMetadata::isSerializable).toList();
+        this.deserializableFields = all.stream().filter(FieldMetadata::isDeserializable).toList();
+        this.propertyFields = this.deserializableFields.stream().filter(f -> !f.isNested()).toList();
+        this.nestedFields = this.deserializableFields.stream().filter(FieldMetadata::isNested).toList();
+        this.externalFields = all.stream().filter(FieldMetadata::isExternal).toList();
+        this.subtypedFields = all.stream().filter(f -> f.isSerializable() && f.isSubtyped()).toList();
+        this.keyWritable = (this.keyField == null || this.keyField.getAccessor().isWritable())
+                && this.ancestorFields.stream().allMatch(f -> f.getAccessor().isWritable());
+    }
+
+    /**
+     * Gets the metadata of a field by its Java name
+     *
+     * @param name The name of the field
+     * @return The field metadata, {@code null} if the class has no such field
+     *
+     * @since 1.4
+     */
+    public FieldMetadata getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * Gets the field annotated as the ancestor of a given kind
+     *
+     * @param kind The kind of the ancestor
+     * @return The field metadata, {@code null} if the class has no ancestor field for the kind
+     *
+     * @since 1.4
+     */
+    public FieldMetadata getAncestorField(String kind) {
+        return ancestorFieldsByKind.get(kind);
+    }
+
+    /**
+     * Gets how to create instances of the class, resolving it on first access
+     *
+     * @return The instantiator of the class
+     *
+     * @since 1.4
+     */
+    public Instantiator getInstantiator() {
+        Instantiator i = instantiator;
+        if (i == null) {
+            i = Instantiator.of(this);
+            instantiator = i;
+        }
+        return i;
+    }
+
+    /**
+     * Creates an array to hold the values of the fields of the class, indexed by {@link FieldMetadata#getIndex()}, with
+     * every value set to {@link Instantiator#ABSENT}
+     *
+     * @return The array of values
+     *
+     * @since 1.4
+     */
+    public Object[] newValues() {
+        Object[] values = new Object[fields.size()];
+        Arrays.fill(values, Instantiator.ABSENT);
+        return values;
+    }
+
+    /**
+     * If the class is annotated with {@link DatastoreEntity}
+     *
+     * @return if the class is a Datastore entity
+     *
+     * @since 1.4
+     */
+    public boolean isEntity() {
+        return kind != null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.FieldAccessor;
+import com.roundfeather.persistence.utils.datastore.annotation.*;
+import com.roundfeather.persistence.utils.datastore.serde.CustomSerde;
+import com.roundfeather.persistence.utils.datastore.serde.CustomSerdeResolver;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+
+/**
+ * Precomputed Datastore mapping information for a single field of a POJO.
+ *
+ * <p>
+ *     All annotations relevant to serialization are read once when the owning {@link EntityMetadata} is built, so the
+ *     serde paths never need to call {@link Field#getAnnotation(Class)} again
+ * </p>
+ *
+ * @since 1.4
+ */
+@Getter
+@SuppressWarnings({"squid:S3740"})
+public final class FieldMetadata {
+
+    private final Field field;
+    private final int index;
+    private final FieldAccessor accessor;
+    private final String name;
+    private final String propertyName;
+    private final Class<?> type;
+    private final Type genericType;
+    private final DatastoreKey datastoreKey;
+    private final DatastoreAncestor datastoreAncestor;
+    private final DatastoreExternalEntity externalEntity;
+    private final DatastoreTypeInfo typeInfo;
+    private final DatastoreSubTypes subTypes;
+    private final Class<? extends CustomSerde> customSerdeClass;
+    private final boolean excludeFromIndex;
+    private final boolean nested;
+    private final boolean skip;
+    private final boolean subtyped;
+    private final SubtypeTable subtypeTable;
+
+    /**
+     * Reads all the Datastore annotations of a field
+     *
+     * @param field The field to build the metadata for
+     * @param index The position of the field in {@link EntityMetadata#getFields()}
+     *
+     * @since 1.4
+     */
+    FieldMetadata(Field field, int index) {
+        this.field = field;
+        this.index = index;
+        this.accessor = FieldAccessor.of(field);
+        this.name = field.getName();
+        this.type = field.getType();
+        this.genericType = field.getGenericType();
+
+        DatastorePropertyAs propertyAs = field.getAnnotation(DatastorePropertyAs.class);
+        this.propertyName = propertyAs != null ? propertyAs.value() : field.getName();
+
+        this.datastoreKey = field.getAnnotation(DatastoreKey.class);
+        this.datastoreAncestor = field.getAnnotation(DatastoreAncestor.class);
+        this.externalEntity = field.getAnnotation(DatastoreExternalEntity.class);
+        this.typeInfo = field.getAnnotation(DatastoreTypeInfo.class);
+        this.subTypes = field.getAnnotation(DatastoreSubTypes.class);
+
+        DatastoreWithSerde withSerde = field.getAnnotation(DatastoreWithSerde.class);
+        this.customSerdeClass = withSerde != null ? withSerde.value() : null;
+
+        this.excludeFromIndex = field.getAnnotation(DatastoreExcludeFromIndex.class) != null;
+        this.nested = field.getAnnotation(DatastoreNested.class) != null;
+        this.skip = field.getAnnotation(DatastoreSkip.class) != null;
+        this.subtypeTable = buildSubtypeTable(this.typeInfo, this.subTypes, this.type);
+        this.subtyped = this.subtypeTable != null;
+    }
+
+    /**
+     * Builds the subtype table of the field, either from its own type info, or from the type info of its class when the
+     * discriminator is an {@link InclusionType#EXTERNAL_PROPERTY} of the object holding the field
+     *
+     * @param typeInfo The type info of the field, {@code null} if none
+     * @param subTypes The subtypes of the field, {@code null} if none
+     * @param type The class of the field
+     * @return The subtype table, {@code null} if the field isn't polymorphic
+     *
+     * @since 1.4
+     */
+    private static SubtypeTable buildSubtypeTable(DatastoreTypeInfo typeInfo, DatastoreSubTypes subTypes, Class<?> type) {
+        if (typeInfo != null) {
+            return new SubtypeTable(typeInfo, subTypes);
+        }
+
+        DatastoreTypeInfo classTypeInfo = type.getAnnotation(DatastoreTypeInfo.class);
+        if (classTypeInfo != null && classTypeInfo.include() == InclusionType.EXTERNAL_PROPERTY) {
+            return new SubtypeTable(classTypeInfo, type.getAnnotation(DatastoreSubTypes.class));
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the value of the field for an object
+     *
+     * @param o Object to get the field value from
+     * @return The value of the field
+     *
+     * @since 1.4
+     */
+    public Object getValue(Object o) {
+        return accessor.get(o);
+    }
+
+    /**
+     * Sets the value of the field for an object
+     *
+     * @param o Object to set the field value for
+     * @param v Value to set
+     *
+     * @since 1.4
+     */
+    public void setValue(Object o, Object v) {
+        accessor.set(o, v);
+    }
+
+    /**
+     * Gets the custom serde set with {@link DatastoreWithSerde}, shared through the {@link CustomSerdeResolver}
+     * which resolves it once per CDI container
+     *
+     * @return The custom serde, {@code null} if the field has none
+     *
+     * @since 1.4
+     */
+    public CustomSerde<Object> getCustomSerde() {
+        if (customSerdeClass == null) {
+            return null;
+        }
+
+        return CustomSerdeResolver.of(customSerdeClass);
+    }
+
+    /**
+     * If the field is annotated with {@link DatastoreKey}
+     *
+     * @return if the field holds the key of the entity
+     *
+     * @since 1.4
+     */
+    public boolean isKey() {
+        return datastoreKey != null;
+    }
+
+    /**
+     * If the field is annotated with {@link DatastoreAncestor}
+     *
+     * @return if the field holds an ancestor of the entity
+     *
+     * @since 1.4
+     */
+    public boolean isAncestor() {
+        return datastoreAncestor != null;
+    }
+
+    /**
+     * If the field is annotated with {@link DatastoreExternalEntity}
+     *
+     * @return if the field is loaded from another entity
+     *
+     * @since 1.4
+     */
+    public boolean isExternal() {
+        return externalEntity != null;
+    }
+
+    /**
+     * If the field is written to the entity as a property
+     *
+     * @return if the field should be serialized
+     *
+     * @since 1.4
+     */
+    boolean isSerializable() {
+        return !isKey() && !isAncestor() && !isExternal() && !skip;
+    }
+
+    /**
+     * If the field is read from a property of the entity without any subtype resolution, see {@link #getSubtypeTable()}
+     *
+     * @return if the field should be deserialized directly
+     *
+     * @since 1.4
+     */
+    boolean isDeserializable() {
+        return isSerializable() && subtypeTable == null;
+    }
+}
@@ -0,0 +1,495 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Creates instances of a class from the decoded values of its fields.
+ *
+ * <p>
+ *     The fastest way to create an instance is resolved once per class, in order:
+ * </p>
+ * <ul>
+ *     <li>The canonical constructor of a record</li>
+ *     <li>The static {@code builder()} method, e.g. Lombok {@code @Builder}, passing the values to the builder methods
+ *     named after the fields</li>
+ *     <li>A constructor taking every field declared by the class, e.g. Lombok {@code @AllArgsConstructor}, when there is
+ *     no no arguments constructor or some fields can't be written. Parameters are matched to the fields by name when
+ *     the class is compiled with {@code -parameters}, otherwise by type, which is only used when no two fields have the
+ *     same type</li>
+ *     <li>The no arguments constructor</li>
+ * </ul>
+ * <p>
+ *     Values not passed to the constructor or builder have to be set on the new instance, see {@link #consumes(int)}
+ * </p>
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740", "squid:S1181"})
+public abstract class Instantiator {
+
+    /**
+     * Marker for fields without a value in the entity, which are left to their default
+     */
+    public static final Object ABSENT = new Object();
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final boolean[] consumed;
+
+    /**
+     * Creates an instantiator
+     *
+     * @param type The class to instantiate
+     * @param consumed For every field of the class, if its value is used to create the instance
+     *
+     * @since 1.4
+     */
+    private Instantiator(Class<?> type, boolean[] consumed) {
+        this.type = type;
+        this.consumed = consumed;
+    }
+
+    /**
+     * Creates a new instance of the class
+     *
+     * @param values The values of the fields, indexed by {@link FieldMetadata#getIndex()}, {@link #ABSENT} if not set
+     * @return The new instance
+     *
+     * @since 1.4
+     */
+    public Object newInstance(Object[] values) {
+        try {
+            return create(values);
+        } catch (PavenSerdeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new PavenSerdeException(String.format("Failed creating [%s]", type.getName()), t);
+        }
+    }
+
+    /**
+     * If the value of a field is used to create the instance, otherwise it has to be set on the new instance
+     *
+     * @param index The index of the field, see {@link FieldMetadata#getIndex()}
+     * @return if the value is used to create the instance
+     *
+     * @since 1.4
+     */
+    public boolean consumes(int index) {
+        return consumed[index];
+    }
+
+    /**
+     * Creates a new instance of the class
+     *
+     * @param values The values of the fields
+     * @return The new instance
+     * @throws Throwable if the instance can't be created
+     *
+     * @since 1.4
+     */
+    abstract Object create(Object[] values) throws Throwable;
+
+    /**
+     * Resolves how to create instances of a class
+     *
+     * @param metadata The metadata of the class
+     * @return The instantiator of the class
+     *
+     * @since 1.4
+     */
+    static Instantiator of(EntityMetadata metadata) {
+        Class<?> type = metadata.getType();
+        List<FieldMetadata> fields = metadata.getFields();
+
+        try {
+            if (type.isRecord()) {
+                return canonicalConstructor(type, metadata);
+            }
+
+            Method builder = findBuilder(type);
+            if (builder != null) {
+                return builder(type, builder, fields);
+            }
+
+            if (Modifier.isAbstract(type.getModifiers()) || type.isInterface()) {
+                return new Unsupported(type, fields.size());
+            }
+
+            Constructor<?> noArgs = Arrays.stream(type.getDeclaredConstructors())
+                    .filter(c -> c.getParameterCount() == 0)
+                    .findFirst()
+                    .orElse(null);
+            AllArgs allArgs = findAllArgsConstructor(type, fields);
+            boolean allWritable = fields.stream()
+                    .filter(f -> !f.isSkip())
+                    .allMatch(f -> f.getAccessor().isWritable());
+
+            if (allArgs != null && (noArgs == null || !allWritable)) {
+                return new ConstructorArgs(type, allArgs.constructor(), allArgs.mapping(), fields);
+            }
+
+            if (noArgs != null) {
+                return new NoArgs(type, noArgs, fields.size());
+            }
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new PavenSerdeException(String.format("Can't access the constructor of [%s]", type.getName()), e);
+        }
+
+        return new Unsupported(type, fields.size());
+    }
+
+    /**
+     * Creates the instantiator of a record using its canonical constructor
+     *
+     * @param type The record class
+     * @param metadata The metadata of the record
+     * @return The instantiator
+     * @throws NoSuchMethodException if there is no canonical constructor
+     * @throws IllegalAccessException if the constructor can't be accessed
+     *
+     * @since 1.4
+     */
+    private static Instantiator canonicalConstructor(Class<?> type, EntityMetadata metadata) throws NoSuchMethodException, IllegalAccessException {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        int[] mapping = Arrays.stream(components).mapToInt(c -> metadata.getField(c.getName()).getIndex()).toArray();
+
+        return new ConstructorArgs(type, type.getDeclaredConstructor(types), mapping, metadata.getFields());
+    }
+
+    /**
+     * Creates the instantiator of a class with a builder
+     *
+     * @param type The class
+     * @param builder The static method creating the builder
+     * @param fields The fields of the class
+     * @return The instantiator
+     * @throws NoSuchMethodException if the builder has no {@code build()} method
+     * @throws IllegalAccessException if the builder can't be accessed
+     *
+     * @since 1.4
+     */
+    private static Instantiator builder(Class<?> type, Method builder, List<FieldMetadata> fields) throws NoSuchMethodException, IllegalAccessException {
+        Class<?> builderType = builder.getReturnType();
+        Method build = findMethod(builderType, "build");
+        if (build == null) {
+            throw new NoSuchMethodException(builderType.getName() + ".build()");
+        }
+
+        MethodHandle[] setters = new MethodHandle[fields.size()];
+        boolean[] primitives = new boolean[fields.size()];
+        for (FieldMetadata f : fields) {
+            Method setter = findMethod(builderType, f.getName(), f.getType());
+            if (setter != null && setter.getReturnType() != void.class && !f.isSkip()) {
+                setters[f.getIndex()] = unreflect(setter).asType(SETTER_TYPE);
+                primitives[f.getIndex()] = f.getType().isPrimitive();
+            }
+        }
+
+        return new BuilderArgs(
+                type,
+                unreflect(builder).asType(FACTORY_TYPE),
+                unreflect(build).asType(MethodType.methodType(Object.class, Object.class)),
+                setters,
+                primitives
+        );
+    }
+
+    /**
+     * Finds the static no arguments {@code builder()} method of a class
+     *
+     * @param type The class
+     * @return The method, {@code null} if the class has no builder
+     *
+     * @since 1.4
+     */
+    private static Method findBuilder(Class<?> type) {
+        return Arrays.stream(type.getDeclaredMethods())
+                .filter(m -> m.getName().equals("builder") && m.getParameterCount() == 0 && Modifier.isStatic(m.getModifiers()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Finds a constructor taking every field declared by the class
+     *
+     * @param type The class
+     * @param fields The fields of the class, starting with the ones it declares
+     * @return The constructor and the field of each of its parameters, {@code null} if none matches
+     *
+     * @since 1.4
+     */
+    private static AllArgs findAllArgsConstructor(Class<?> type, List<FieldMetadata> fields) {
+        List<FieldMetadata> declared = fields.stream()
+                .filter(f -> f.getField().getDeclaringClass() == type)
+                .toList();
+
+        if (declared.isEmpty()) {
+            return null;
+        }
+
+        for (Constructor<?> c : type.getDeclaredConstructors()) {
+            if (c.getParameterCount() == declared.size()) {
+                int[] mapping = allArgsMapping(c, declared);
+                if (mapping != null) {
+                    return new AllArgs(c, mapping);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Matches the parameters of a constructor to the fields declared by the class. Parameters are matched by name when
+     * their names are available and match the fields, otherwise by type, only if no two fields have the same type so
+     * values can't be passed to the wrong field
+     *
+     * @param constructor The constructor
+     * @param declared The fields declared by the class
+     * @return The index of the field of each parameter, {@code null} if the parameters don't match the fields
+     *
+     * @since 1.4
+     */
+    private static int[] allArgsMapping(Constructor<?> constructor, List<FieldMetadata> declared) {
+        Parameter[] parameters = constructor.getParameters();
+        int[] mapping = new int[parameters.length];
+
+        if (Arrays.stream(parameters).allMatch(Parameter::isNamePresent) &&
+                matchParameters(parameters, declared, mapping, (p, f) -> f.getName().equals(p.getName()))) {
+            return mapping;
+        }
+
+        Set<Class<?>> types = new HashSet<>();
+        if (!declared.stream().allMatch(f -> types.add(f.getType()))) {
+            return null;
+        }
+
+        return matchParameters(parameters, declared, mapping, (p, f) -> true) ? mapping : null;
+    }
+
+    /**
+     * Matches each parameter of a constructor to a distinct field of the same type
+     *
+     * @param parameters The parameters of the constructor
+     * @param declared The fields declared by the class
+     * @param mapping Receives the index of the field of each parameter
+     * @param matches Additional condition for a parameter to match a field
+     * @return if every parameter matches a distinct field
+     *
+     * @since 1.4
+     */
+    private static boolean matchParameters(Parameter[] parameters, List<FieldMetadata> declared, int[] mapping, BiPredicate<Parameter, FieldMetadata> matches) {
+        Set<FieldMetadata> matched = new HashSet<>();
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter p = parameters[i];
+            FieldMetadata f = declared.stream()
+                    .filter(d -> d.getType() == p.getType() && matches.test(p, d))
+                    .findFirst()
+                    .orElse(null);
+            if (f == null || !matched.add(f)) {
+                return false;
+            }
+            mapping[i] = f.getIndex();
+        }
+        return true;
+    }
+
+    /**
+     * Finds a method declared by a class or inherited
+     *
+     * @param type The class
+     * @param name The name of the method
+     * @param parameterTypes The parameter types of the method
+     * @return The method, {@code null} if not found
+     *
+     * @since 1.4
+     */
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            try {
+                return type.getDeclaredMethod(name, parameterTypes);
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Gets a method handle for a method or constructor, bypassing access checks when allowed
+     *
+     * @param e The method or constructor
+     * @return The method handle
+     * @throws IllegalAccessException if the method can't be accessed
+     *
+     * @since 1.4
+     */
+    private static MethodHandle unreflect(Executable e) throws IllegalAccessException {
+        e.trySetAccessible();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        return e instanceof Constructor<?> c ? lookup.unreflectConstructor(c) : lookup.unreflect((Method) e);
+    }
+
+    /**
+     * Gets the default value of a constructor parameter when the field has no value
+     *
+     * @param type The type of the parameter
+     * @return {@code null}, or zero for primitives
+     *
+     * @since 1.4
+     */
+    private static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    /**
+     * Constructor taking every field declared by a class
+     *
+     * @param constructor The constructor
+     * @param mapping The index of the field of each parameter
+     *
+     * @since 1.4
+     */
+    private record AllArgs(Constructor<?> constructor, int[] mapping) {
+    }
+
+    /**
+     * Creates instances with the no arguments constructor, every value is set afterwards
+     *
+     * @since 1.4
+     */
+    private static final class NoArgs extends Instantiator {
+
+        private final MethodHandle constructor;
+
+        NoArgs(Class<?> type, Constructor<?> constructor, int fields) throws IllegalAccessException {
+            super(type, new boolean[fields]);
+            this.constructor = unreflect(constructor).asType(FACTORY_TYPE);
+        }
+
+        @Override
+        Object create(Object[] values) throws Throwable {
+            return (Object) constructor.invokeExact();
+        }
+    }
+
+    /**
+     * Creates instances with a constructor taking the values of the fields
+     *
+     * @since 1.4
+     */
+    private static final class ConstructorArgs extends Instantiator {
+
+        private final MethodHandle constructor;
+        private final int[] mapping;
+        private final Object[] defaults;
+
+        ConstructorArgs(Class<?> type, Constructor<?> constructor, int[] mapping, List<FieldMetadata> fields) throws IllegalAccessException {
+            super(type, consumed(mapping, fields.size()));
+            this.mapping = mapping;
+            this.defaults = Arrays.stream(constructor.getParameterTypes()).map(Instantiator::defaultValue).toArray();
+            this.constructor = unreflect(constructor)
+                    .asSpreader(Object[].class, mapping.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        @Override
+        Object create(Object[] values) throws Throwable {
+            Object[] args = new Object[mapping.length];
+            for (int i = 0; i < mapping.length; i++) {
+                Object v = values[mapping[i]];
+                args[i] = v == ABSENT || v == null ? defaults[i] : v;
+            }
+            return (Object) constructor.invokeExact(args);
+        }
+
+        private static boolean[] consumed(int[] mapping, int fields) {
+            boolean[] consumed = new boolean[fields];
+            for (int i : mapping) {
+                consumed[i] = true;
+            }
+            return consumed;
+        }
+    }
+
+    /**
+     * Creates instances with a builder, passing the values of the fields the builder has a method for
+     *
+     * @since 1.4
+     */
+    private static final class BuilderArgs extends Instantiator {
+
+        private final MethodHandle builder;
+        private final MethodHandle build;
+        private final MethodHandle[] setters;
+        private final boolean[] primitives;
+
+        BuilderArgs(Class<?> type, MethodHandle builder, MethodHandle build, MethodHandle[] setters, boolean[] primitives) {
+            super(type, consumed(setters));
+            this.builder = builder;
+            this.build = build;
+            this.setters = setters;
+            this.primitives = primitives;
+        }
+
+        @Override
+        Object create(Object[] values) throws Throwable {
+            Object b = (Object) builder.invokeExact();
+            for (int i = 0; i < setters.length; i++) {
+                Object v = values[i];
+                if (setters[i] != null && v != ABSENT && (v != null || !primitives[i])) {
+                    b = (Object) setters[i].invokeExact(b, v);
+                }
+            }
+            return (Object) build.invokeExact(b);
+        }
+
+        private static boolean[] consumed(MethodHandle[] setters) {
+            boolean[] consumed = new boolean[setters.length];
+            for (int i = 0; i < setters.length; i++) {
+                consumed[i] = setters[i] != null;
+            }
+            return consumed;
+        }
+    }
+
+    /**
+     * Fails to create instances of classes which can't be instantiated
+     *
+     * @since 1.4
+     */
+    private static final class Unsupported extends Instantiator {
+
+        private final String message;
+
+        Unsupported(Class<?> type, int fields) {
+            super(type, new boolean[fields]);
+            this.message = String.format("No builder or constructor found to create [%s]", type.getName());
+        }
+
+        @Override
+        Object create(Object[] values) {
+            throw new PavenSerdeException(message);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSubType;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSubTypes;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreTypeInfo;
+import com.roundfeather.persistence.utils.datastore.annotation.InclusionType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled {@link DatastoreTypeInfo} and {@link DatastoreSubTypes} of a polymorphic class or field, mapping every
+ * discriminator value to the subtype to deserialize as
+ *
+ * @since 1.4
+ */
+@Getter
+@SuppressWarnings({"squid:S3740"})
+public final class SubtypeTable {
+
+    private final InclusionType include;
+    private final String property;
+    private final Class<?> defaultImpl;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Class<?>> subTypes;
+
+    /**
+     * Builds the discriminator table
+     *
+     * @param typeInfo The type info of the class or field
+     * @param subTypes The subtypes of the class or field, {@code null} if none
+     *
+     * @since 1.4
+     */
+    SubtypeTable(DatastoreTypeInfo typeInfo, DatastoreSubTypes subTypes) {
+        this.include = typeInfo.include();
+        this.property = typeInfo.property();
+        this.defaultImpl = typeInfo.defaultImpl() == DatastoreTypeInfo.class ? null : typeInfo.defaultImpl();
+
+        Map<String, Class<?>> table = new HashMap<>();
+        if (subTypes != null) {
+            for (DatastoreSubType st : subTypes.value()) {
+                table.putIfAbsent(st.name(), st.type());
+                for (String name : st.names()) {
+                    table.putIfAbsent(name, st.type());
+                }
+            }
+        }
+        this.subTypes = Map.copyOf(table);
+    }
+
+    /**
+     * Gets the subtype for a discriminator value, falling back to {@link DatastoreTypeInfo#defaultImpl()}
+     *
+     * @param discriminator The value of the discriminator property
+     * @return The subtype, {@code null} if no subtype matches and there is no default implementation
+     *
+     * @since 1.4
+     */
+    public Class<?> resolve(String discriminator) {
+        Class<?> subType = discriminator != null ? subTypes.get(discriminator) : null;
+        return subType != null ? subType : defaultImpl;
+    }
+}
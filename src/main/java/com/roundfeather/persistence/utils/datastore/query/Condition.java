@@ -0,0 +1,55 @@
+package com.roundfeather.persistence.utils.datastore.query;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Condition on a {@link Property} of an entity, applied as a property filter of a {@link DatastoreQuery}
+ *
+ * @param <E> Type of the entity
+ *
+ * @since 1.4
+ */
+@Getter
+public final class Condition<E> {
+
+    /**
+     * Comparison applied by a condition
+     *
+     * @since 1.4
+     */
+    public enum Operator {
+        EQUAL,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        IN
+    }
+
+    private final Property<E, ?> property;
+    private final Operator operator;
+    private final List<Object> values;
+
+    /**
+     * Condition constructor
+     *
+     * @param property The property the condition applies to
+     * @param operator The comparison
+     * @param values The values to compare to, a single one unless the operator is {@link Operator#IN}
+     *
+     * @since 1.4
+     */
+    Condition(Property<E, ?> property, Operator operator, List<?> values) {
+        this.property = property;
+        this.operator = operator;
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    @Override
+    public String toString() {
+        return property + " " + operator + " " + values;
+    }
+}
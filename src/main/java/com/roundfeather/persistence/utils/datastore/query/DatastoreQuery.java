@@ -0,0 +1,225 @@
+package com.roundfeather.persistence.utils.datastore.query;
+
+import com.google.cloud.datastore.Cursor;
+import com.google.cloud.datastore.EntityQuery;
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.DatastoreOperations;
+import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+import com.roundfeather.persistence.utils.datastore.Page;
+import io.smallrye.mutiny.Multi;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fluent query on the objects of a class annotated with {@link com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity},
+ * with its conditions, orderings and limit run by Datastore.
+ *
+ * <p>
+ *     Queries are created with {@link DatastoreRepository#query(DatastoreNamespace)} and built with the {@link Property}
+ *     constants of the generated {@code <Entity>_} metamodel:
+ * </p>
+ *
+ * <pre>{@code
+ * List<MyObject> objects = repository.query(namespace)
+ *         .ancestors(Ancestor.of("parent", 1L))
+ *         .where(MyObject_.status.eq("ACTIVE"), MyObject_.score.ge(10L))
+ *         .orderBy(MyObject_.score.desc())
+ *         .limit(20)
+ *         .list();
+ * }</pre>
+ *
+ * <p>
+ *     Conditions are combined with a logical AND, and their values are converted with the same serdes as the fields
+ *     when saving. The combinations of conditions and orderings Datastore supports may require composite indexes
+ * </p>
+ *
+ * @param <E> Type of the entity
+ *
+ * @since 1.4
+ */
+@Getter
+public final class DatastoreQuery<E> {
+
+    private final DatastoreNamespace namespace;
+    private final Class<E> entityClass;
+    private final List<Ancestor> ancestors = new ArrayList<>();
+    private final List<Condition<E>> conditions = new ArrayList<>();
+    private final List<Sort<E>> sorts = new ArrayList<>();
+    private Integer limit;
+
+    /**
+     * Creates a query on all the objects of a class
+     *
+     * @param namespace The namespace to query
+     * @param entityClass The class of the objects
+     * @return The query
+     *
+     * @since 1.4
+     */
+    public static <E> DatastoreQuery<E> of(DatastoreNamespace namespace, Class<E> entityClass) {
+        return new DatastoreQuery<>(namespace, entityClass);
+    }
+
+    /**
+     * DatastoreQuery constructor
+     *
+     * @param namespace The namespace to query
+     * @param entityClass The class of the objects
+     *
+     * @since 1.4
+     */
+    private DatastoreQuery(DatastoreNamespace namespace, Class<E> entityClass) {
+        this.namespace = namespace;
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Restricts the query to the descendants of the given ancestors
+     *
+     * @param ancestors The ancestors, applied in order
+     * @return This query
+     *
+     * @since 1.4
+     */
+    public DatastoreQuery<E> ancestors(Ancestor... ancestors) {
+        return ancestors(Arrays.asList(ancestors));
+    }
+
+    /**
+     * Restricts the query to the descendants of the given ancestors
+     *
+     * @param ancestors The ancestors, applied in order
+     * @return This query
+     *
+     * @since 1.4
+     */
+    public DatastoreQuery<E> ancestors(List<Ancestor> ancestors) {
+        this.ancestors.addAll(ancestors);
+        return this;
+    }
+
+    /**
+     * Adds conditions the objects must match
+     *
+     * @param conditions The conditions
+     * @return This query
+     *
+     * @since 1.4
+     */
+    @SafeVarargs
+    public final DatastoreQuery<E> where(Condition<E>... conditions) {
+        this.conditions.addAll(Arrays.asList(conditions));
+        return this;
+    }
+
+    /**
+     * Adds orderings of the results, applied in the order they are added
+     *
+     * @param sorts The orderings
+     * @return This query
+     *
+     * @since 1.4
+     */
+    @SafeVarargs
+    public final DatastoreQuery<E> orderBy(Sort<E>... sorts) {
+        this.sorts.addAll(Arrays.asList(sorts));
+        return this;
+    }
+
+    /**
+     * Limits the number of results
+     *
+     * @param limit The maximum number of results
+     * @return This query
+     *
+     * @since 1.4
+     */
+    public DatastoreQuery<E> limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Compiles the query to a Datastore query
+     *
+     * @return The Datastore query
+     *
+     * @since 1.4
+     */
+    public EntityQuery build() {
+        return DatastoreOperations.getInstance().toQuery(this);
+    }
+
+    /**
+     * Runs the query
+     *
+     * @return The objects matching the query
+     *
+     * @since 1.4
+     */
+    public List<E> list() {
+        return DatastoreOperations.getInstance().eval(build(), entityClass);
+    }
+
+    /**
+     * Runs the query for its first result
+     *
+     * @return The first object matching the query, {@code null} if there is none
+     *
+     * @since 1.4
+     */
+    public E first() {
+        List<E> results = DatastoreOperations.getInstance().eval(build().toBuilder().setLimit(1).build(), entityClass);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /**
+     * Counts the results of the query with an aggregation query run by Datastore
+     *
+     * @return The number of objects matching the query
+     *
+     * @since 1.4
+     */
+    public long count() {
+        return DatastoreOperations.getInstance().count(build());
+    }
+
+    /**
+     * Checks if any object matches the query, with a keys only query limited to one result which doesn't read the objects
+     *
+     * @return {@code true} if at least one object matches the query
+     *
+     * @since 1.4
+     */
+    public boolean exists() {
+        return DatastoreOperations.getInstance().exists(build());
+    }
+
+    /**
+     * Runs a page of the query, replacing its limit by the page size
+     *
+     * @param pageSize The maximum number of objects in the page
+     * @param startCursor The end cursor of the previous page, {@code null} for the first page
+     * @return The page of objects matching the query
+     *
+     * @since 1.4
+     */
+    public Page<E> page(int pageSize, Cursor startCursor) {
+        return DatastoreOperations.getInstance().page(build(), entityClass, pageSize, startCursor);
+    }
+
+    /**
+     * Streams the results of the query
+     *
+     * @return Multi of the objects matching the query
+     *
+     * @since 1.4
+     */
+    public Multi<E> stream() {
+        return DatastoreOperations.getInstance().stream(build(), entityClass);
+    }
+}
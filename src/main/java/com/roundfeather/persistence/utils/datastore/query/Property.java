@@ -0,0 +1,178 @@
+package com.roundfeather.persistence.utils.datastore.query;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastorePropertyAs;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Typed reference to a property of a class annotated with {@link DatastoreEntity}, used to build {@link DatastoreQuery}
+ * conditions and orderings.
+ *
+ * <p>
+ *     Properties are generated as constants of the {@code <Entity>_} metamodel of each entity, with the property name
+ *     resolved from {@link DatastorePropertyAs} at compile time
+ * </p>
+ *
+ * @param <E> Type of the entity
+ * @param <T> Type of the field
+ *
+ * @since 1.4
+ */
+@Getter
+@EqualsAndHashCode
+public final class Property<E, T> {
+
+    private final Class<E> entityClass;
+    private final String name;
+    private final String propertyName;
+
+    /**
+     * Creates a reference to a property
+     *
+     * @param entityClass The class of the entity
+     * @param name The Java name of the field
+     * @param propertyName The name of the Datastore property
+     * @return The property
+     *
+     * @since 1.4
+     */
+    public static <E, T> Property<E, T> of(Class<E> entityClass, String name, String propertyName) {
+        return new Property<>(entityClass, name, propertyName);
+    }
+
+    /**
+     * Property constructor
+     *
+     * @param entityClass The class of the entity
+     * @param name The Java name of the field
+     * @param propertyName The name of the Datastore property
+     *
+     * @since 1.4
+     */
+    private Property(Class<E> entityClass, String name, String propertyName) {
+        this.entityClass = entityClass;
+        this.name = name;
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * Matches the objects whose property is equal to a value
+     *
+     * @param value The value, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> eq(T value) {
+        return new Condition<>(this, Condition.Operator.EQUAL, Collections.singletonList(value));
+    }
+
+    /**
+     * Matches the objects whose property is lower than a value
+     *
+     * @param value The value, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> lt(T value) {
+        return new Condition<>(this, Condition.Operator.LESS_THAN, Collections.singletonList(value));
+    }
+
+    /**
+     * Matches the objects whose property is lower than or equal to a value
+     *
+     * @param value The value, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> le(T value) {
+        return new Condition<>(this, Condition.Operator.LESS_THAN_OR_EQUAL, Collections.singletonList(value));
+    }
+
+    /**
+     * Matches the objects whose property is greater than a value
+     *
+     * @param value The value, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> gt(T value) {
+        return new Condition<>(this, Condition.Operator.GREATER_THAN, Collections.singletonList(value));
+    }
+
+    /**
+     * Matches the objects whose property is greater than or equal to a value
+     *
+     * @param value The value, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> ge(T value) {
+        return new Condition<>(this, Condition.Operator.GREATER_THAN_OR_EQUAL, Collections.singletonList(value));
+    }
+
+    /**
+     * Matches the objects whose property is equal to one of the values
+     *
+     * @param values The values, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    @SafeVarargs
+    public final Condition<E> in(T... values) {
+        return in(Arrays.asList(values));
+    }
+
+    /**
+     * Matches the objects whose property is equal to one of the values
+     *
+     * @param values The values, converted with the serde of the field
+     * @return The condition
+     *
+     * @since 1.4
+     */
+    public Condition<E> in(Collection<? extends T> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("At least one value is required");
+        }
+        return new Condition<>(this, Condition.Operator.IN, Collections.unmodifiableList(new ArrayList<>(values)));
+    }
+
+    /**
+     * Orders the results by ascending values of the property
+     *
+     * @return The ordering
+     *
+     * @since 1.4
+     */
+    public Sort<E> asc() {
+        return new Sort<>(this, false);
+    }
+
+    /**
+     * Orders the results by descending values of the property
+     *
+     * @return The ordering
+     *
+     * @since 1.4
+     */
+    public Sort<E> desc() {
+        return new Sort<>(this, true);
+    }
+
+    @Override
+    public String toString() {
+        return entityClass.getSimpleName() + "." + name;
+    }
+}
@@ -0,0 +1,35 @@
+package com.roundfeather.persistence.utils.datastore.query;
+
+import lombok.Getter;
+
+/**
+ * Ordering of the results of a {@link DatastoreQuery} by a {@link Property} of an entity
+ *
+ * @param <E> Type of the entity
+ *
+ * @since 1.4
+ */
+@Getter
+public final class Sort<E> {
+
+    private final Property<E, ?> property;
+    private final boolean descending;
+
+    /**
+     * Sort constructor
+     *
+     * @param property The property to order by
+     * @param descending If the results are ordered by descending values
+     *
+     * @since 1.4
+     */
+    Sort(Property<E, ?> property, boolean descending) {
+        this.property = property;
+        this.descending = descending;
+    }
+
+    @Override
+    public String toString() {
+        return property + (descending ? " DESC" : " ASC");
+    }
+}
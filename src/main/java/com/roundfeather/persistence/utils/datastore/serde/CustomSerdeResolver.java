@@ -0,0 +1,124 @@
+package com.roundfeather.persistence.utils.datastore.serde;
+
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreWithSerde;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InstanceHandle;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves the {@link CustomSerde} instances set with {@link DatastoreWithSerde}.
+ *
+ * <p>
+ *     Each serde class is resolved once per CDI container: the CDI bean is used when the class is a bean, otherwise a
+ *     single instance is created with its no arguments constructor. Custom serdes must therefore be stateless
+ * </p>
+ *
+ * <p>
+ *     Resolved serdes are kept until {@link #reset()} is called, which the {@link EntityManager} does every time a
+ *     container starts. A serde first used before the container is started, or resolved from a container of an
+ *     application which restarted in the same class loader, is then resolved again on its next use. Getting a resolved
+ *     serde doesn't look up the container
+ * </p>
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740"})
+public final class CustomSerdeResolver {
+
+    private static final ClassValue<AtomicReference<Resolved>> CACHE = new ClassValue<>() {
+        @Override
+        protected AtomicReference<Resolved> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private CustomSerdeResolver() {
+    }
+
+    /**
+     * Gets the instance of a custom serde, resolving it from the current container on first access after a
+     * {@link #reset()}
+     *
+     * @param serdeClass The class of the custom serde
+     * @return The shared instance of the custom serde
+     *
+     * @since 1.4
+     */
+    @SuppressWarnings("unchecked")
+    public static CustomSerde<Object> of(Class<? extends CustomSerde> serdeClass) {
+        int generation = GENERATION.get();
+        AtomicReference<Resolved> cached = CACHE.get(serdeClass);
+
+        Resolved resolved = cached.get();
+        if (resolved == null || resolved.generation() != generation) {
+            resolved = new Resolved(generation, resolve(serdeClass, currentContainer()));
+            cached.set(resolved);
+        }
+
+        return resolved.serde();
+    }
+
+    /**
+     * Discards the resolved serdes so they are resolved again from the current container on their next use
+     *
+     * @since 1.4
+     */
+    public static void reset() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Gets the running CDI container
+     *
+     * @return The container, {@code null} if none is running
+     *
+     * @since 1.4
+     */
+    private static ArcContainer currentContainer() {
+        ArcContainer container = Arc.container();
+        return container != null && container.isRunning() ? container : null;
+    }
+
+    /**
+     * Looks up the CDI bean of a custom serde, creating a new instance if there is none
+     *
+     * @param serdeClass The class of the custom serde
+     * @param container The running container, {@code null} if none is running
+     * @return The custom serde
+     *
+     * @since 1.4
+     */
+    private static CustomSerde resolve(Class<?> serdeClass, ArcContainer container) {
+        if (container != null) {
+            InstanceHandle<?> handle = container.instance(serdeClass);
+            if (handle.isAvailable()) {
+                return (CustomSerde) handle.get();
+            }
+        }
+
+        try {
+            return (CustomSerde) serdeClass.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new PavenSerdeException(String.format("Failed creating custom serde [%s]", serdeClass.getName()), e);
+        }
+    }
+
+    /**
+     * Custom serde resolved since the last {@link #reset()}
+     *
+     * @param generation The number of resets when the serde was resolved
+     * @param serde The custom serde
+     *
+     * @since 1.4
+     */
+    private record Resolved(int generation, CustomSerde serde) {
+    }
+}
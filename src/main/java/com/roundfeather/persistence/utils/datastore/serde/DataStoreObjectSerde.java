@@ -10,6 +10,12 @@ import java.lang.reflect.Type;
 /**
  * Serde for serializing and deserializing Datastore {@link Value} to and from Java Objects
  *
+ * <p>
+ *     The serde used for a value is resolved once per runtime class when serializing, and once per declared type and
+ *     {@link com.google.cloud.datastore.ValueType} when deserializing, see {@link SerdeRegistry}. {@link #canSerialize(Object)}
+ *     and {@code canDeserialize} should therefore only depend on those
+ * </p>
+ *
  * @param <T> Type of Object to being serialized/deserialized
  *
  * @since 1.0
@@ -24,6 +30,22 @@ public interface DataStoreObjectSerde<T>{
      */
     Class<T> getType();
 
+    /**
+     * Get the priority of this serde. When several serdes can handle the same value the one with the highest priority
+     * is used, serdes with the same priority are checked in the order they are injected
+     *
+     * <p>
+     *     default: {@code 0}, use a higher value to override the provided serdes
+     * </p>
+     *
+     * @return The priority of the serde
+     *
+     * @since 1.4
+     */
+    default int getPriority() {
+        return 0;
+    }
+
     /**
      * Predicate to determine if the Object is serializable by this serde
      *
@@ -0,0 +1,106 @@
+package com.roundfeather.persistence.utils.datastore.serde;
+
+import com.google.cloud.datastore.FullEntity;
+import com.google.cloud.datastore.IncompleteKey;
+import com.google.cloud.datastore.KeyFactory;
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Converts a class annotated with {@link DatastoreEntity} to and from a Datastore {@link FullEntity} without reflection.
+ *
+ * <p>
+ *     Implementations are generated at compile time for every entity whose fields can all be accessed directly or through
+ *     getters and setters, and are used by {@link EntityManager} in preference to the reflective
+ *     {@link com.roundfeather.persistence.utils.datastore.serde.impl.EntitySerde}. Generation can be disabled by setting
+ *     {@link DatastoreEntity#generateCodec()} to {@code false}
+ * </p>
+ *
+ * @param <E> Type of the entity
+ *
+ * @since 1.4
+ */
+@SuppressWarnings({"squid:S3740"})
+public interface EntityCodec<E> {
+
+    /**
+     * Gets the class the codec converts
+     *
+     * @return The class of the entity
+     *
+     * @since 1.4
+     */
+    Class<E> getType();
+
+    /**
+     * Gets the ancestors of an entity from its fields annotated with
+     * {@link com.roundfeather.persistence.utils.datastore.annotation.DatastoreAncestor}, ordered by
+     * {@link com.roundfeather.persistence.utils.datastore.annotation.DatastoreAncestor#order()}
+     *
+     * @param o The object to extract the ancestors from
+     * @return The ancestors of the object
+     *
+     * @since 1.4
+     */
+    List<Ancestor> getAncestors(E o);
+
+    /**
+     * Creates the key of an entity from a {@link KeyFactory} with the kind and ancestors already set, using the field
+     * annotated with {@link com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey} or generating the
+     * default if none found
+     *
+     * @param keyFactory KeyFactory to use to build the key
+     * @param o Object potentially containing the key value
+     * @return The Datastore key to use for the entity
+     *
+     * @since 1.4
+     */
+    IncompleteKey createKey(KeyFactory keyFactory, E o);
+
+    /**
+     * Converts an object to a Datastore {@link FullEntity}
+     *
+     * @param em EntityManager for handling the properties
+     * @param o The object to convert
+     * @param key The key of the entity
+     * @return The entity representation of the object
+     *
+     * @since 1.4
+     */
+    FullEntity serialize(EntityManager em, E o, IncompleteKey key);
+
+    /**
+     * Converts a Datastore {@link FullEntity} to an object, including its key and ancestors
+     *
+     * @param dsNamespace Namespace of the entity
+     * @param em EntityManager for handling the properties
+     * @param e The entity to convert
+     * @return The object representation of the entity
+     *
+     * @since 1.4
+     */
+    E deserialize(DatastoreNamespace dsNamespace, EntityManager em, FullEntity e);
+
+    /**
+     * Gets the generic type of a field, used by generated codecs to deserialize parameterized properties
+     *
+     * @param c Class declaring the field
+     * @param name Name of the field
+     * @return The generic type of the field
+     *
+     * @since 1.4
+     */
+    static Type fieldType(Class<?> c, String name) {
+        try {
+            return c.getDeclaredField(name).getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new PavenSerdeException(String.format("Field [%s] not found for [%s]", name, c.getName()), e);
+        }
+    }
+}
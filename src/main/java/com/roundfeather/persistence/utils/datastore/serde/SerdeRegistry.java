@@ -0,0 +1,134 @@
+package com.roundfeather.persistence.utils.datastore.serde;
+
+import com.google.cloud.datastore.Value;
+import com.google.cloud.datastore.ValueType;
+import com.roundfeather.persistence.utils.datastore.serde.impl.EntitySerde;
+import io.quarkus.arc.All;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.lang.reflect.Type;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the {@link DataStoreObjectSerde} to use for a value.
+ *
+ * <p>
+ *     Serdes are checked in order of {@link DataStoreObjectSerde#getPriority()}, highest first, and the {@link EntitySerde}
+ *     is used when no other serde matches. The resolution is cached per runtime class when serializing and per declared
+ *     type and {@link ValueType} when deserializing, so every serde is only checked once for each of them
+ * </p>
+ *
+ * @since 1.4
+ */
+@ApplicationScoped
+@SuppressWarnings({"squid:S3740"})
+public class SerdeRegistry {
+
+    @Inject
+    @All
+    List<DataStoreObjectSerde<?>> serdes;
+
+    @Inject
+    EntitySerde defaultSerde;
+
+    private List<DataStoreObjectSerde<?>> orderedSerdes;
+
+    private final Map<Class<?>, DataStoreObjectSerde<?>> serializers = new ConcurrentHashMap<>();
+    private final Map<ReadKey, DataStoreObjectSerde<?>> typeDeserializers = new ConcurrentHashMap<>();
+    private final Map<ReadKey, DataStoreObjectSerde<?>> classDeserializers = new ConcurrentHashMap<>();
+
+    /**
+     * Orders the serdes by priority, excluding the default serde
+     *
+     * @since 1.4
+     */
+    @PostConstruct
+    void init() {
+        orderedSerdes = serdes.stream()
+                .filter(s -> s.getType() != defaultSerde.getType())
+                .sorted(Comparator.comparingInt((DataStoreObjectSerde<?> s) -> s.getPriority()).reversed())
+                .toList();
+    }
+
+    /**
+     * Gets the serde to serialize an object with. Serdes only handle actual values, {@code null} is written as a
+     * {@link com.google.cloud.datastore.NullValue} by the caller instead
+     *
+     * @param o The object to serialize, not {@code null}
+     * @return The serde which can serialize the object
+     *
+     * @since 1.4
+     */
+    public DataStoreObjectSerde<?> forSerialization(Object o) {
+        return serializers.computeIfAbsent(o.getClass(), c -> findSerializer(o));
+    }
+
+    /**
+     * Gets the serde to deserialize a Datastore {@link Value} to a parameterized type with
+     *
+     * @param t The type to deserialize to
+     * @param v The value to deserialize
+     * @return The serde which can deserialize the value
+     *
+     * @since 1.4
+     */
+    public DataStoreObjectSerde<?> forDeserialization(Type t, Value v) {
+        return typeDeserializers.computeIfAbsent(
+                new ReadKey(t, v.getType()),
+                k -> orderedSerdes.stream()
+                        .filter(s -> s.canDeserialize(t, v))
+                        .findFirst()
+                        .orElse(defaultSerde)
+        );
+    }
+
+    /**
+     * Gets the serde to deserialize a Datastore {@link Value} to a class with
+     *
+     * @param t The class to deserialize to
+     * @param v The value to deserialize
+     * @return The serde which can deserialize the value
+     *
+     * @since 1.4
+     */
+    public DataStoreObjectSerde<?> forDeserialization(Class t, Value v) {
+        return classDeserializers.computeIfAbsent(
+                new ReadKey(t, v.getType()),
+                k -> orderedSerdes.stream()
+                        .filter(s -> s.canDeserialize(t, v))
+                        .findFirst()
+                        .orElse(defaultSerde)
+        );
+    }
+
+    /**
+     * Checks every serde, in order, for one which can serialize the object
+     *
+     * @param o The object to serialize
+     * @return The first matching serde, or the default one
+     *
+     * @since 1.4
+     */
+    private DataStoreObjectSerde<?> findSerializer(Object o) {
+        return orderedSerdes.stream()
+                .filter(s -> s.canSerialize(o))
+                .findFirst()
+                .orElse(defaultSerde);
+    }
+
+    /**
+     * Cache key of a deserialization
+     *
+     * @param type The declared type being deserialized to
+     * @param valueType The type of the Datastore value
+     *
+     * @since 1.4
+     */
+    private record ReadKey(Type type, ValueType valueType) {
+    }
+}
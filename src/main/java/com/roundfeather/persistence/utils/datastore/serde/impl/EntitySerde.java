@@ -5,21 +5,18 @@ import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
 import com.roundfeather.persistence.utils.datastore.EntityManager;
 import com.roundfeather.persistence.utils.datastore.annotation.*;
 import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
-import com.roundfeather.persistence.utils.datastore.serde.CustomSerde;
+import com.roundfeather.persistence.utils.datastore.metadata.EntityMetadata;
+import com.roundfeather.persistence.utils.datastore.metadata.FieldMetadata;
+import com.roundfeather.persistence.utils.datastore.metadata.Instantiator;
+import com.roundfeather.persistence.utils.datastore.metadata.SubtypeTable;
 import com.roundfeather.persistence.utils.datastore.serde.DataStoreObjectSerde;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.NotImplementedException;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static com.google.cloud.datastore.FullEntity.newBuilder;
-import static com.roundfeather.persistence.utils.ObjectUtils.*;
 
 /**
  * @see DataStoreObjectSerde
@@ -75,50 +72,26 @@ public class EntitySerde implements DataStoreObjectSerde<Object> {
 
         FullEntity.Builder builder = bootstrapBuilder(key);
 
-        getAllFields(o).stream()
-                .filter(f ->
-                        f.getAnnotation(DatastoreKey.class) == null &&
-                                f.getAnnotation(DatastoreAncestor.class) == null &&
-                                f.getAnnotation(DatastoreExternalEntity.class) == null &&
-                                f.getAnnotation(DatastoreSkip.class) == null
-                )
-                .forEach(f -> {
-                    if (f.getAnnotation(DatastorePropertyAs.class) != null) {
-                        String propertyName = f.getAnnotation(DatastorePropertyAs.class).value();
-                        log.debug(String.format(FOUND_FIELD_AS, f.getType().getName(), f.getName(), propertyName));
-                    } else {
-                        log.debug(String.format(FOUND_FIELD, f.getType().getName(), f.getName()));
-                    }
-                    Value v;
-                    if (f.getAnnotation(DatastoreWithSerde.class) != null) {
-                        try {
-                            CustomSerde<Object> customSerde = f.getAnnotation(DatastoreWithSerde.class).value().getDeclaredConstructor().newInstance();
-                            v = customSerde.serialize(em, getFieldValue(o, f), f.getAnnotation(DatastoreExcludeFromIndex.class) != null);
-                        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                                 NoSuchMethodException e) {
-                            throw new PavenSerdeException(String.format("Failed serializing [%s] for [%s]", f.getName(), o.getClass().getName()), e);
-                        }
-                    } else {
-                        v = em.createProperty(o, f);
-                    }
-
-                    if (v != null) {
-                        if (f.getAnnotation(DatastoreNested.class) != null) {
-                            EntityValue ev = (EntityValue) v;
-                            Map<String, Value<?>> nestedProperties = ev.get().getProperties();
-                            nestedProperties.forEach(builder::set);
-                        } else {
-                            String propertyName;
-                            if (f.getAnnotation(DatastorePropertyAs.class) != null) {
-                                propertyName = f.getAnnotation(DatastorePropertyAs.class).value();
-                            } else {
-                                propertyName = f.getName();
-                            }
-
-                            builder.set(propertyName, v);
-                        }
-                    }
-                });
+        for (FieldMetadata f : EntityMetadata.of(o.getClass()).getSerializableFields()) {
+            logField(f);
+
+            Value v;
+            if (f.getCustomSerdeClass() != null) {
+                v = f.getCustomSerde().serialize(em, f.getValue(o), f.isExcludeFromIndex());
+            } else {
+                v = em.createProperty(o, f);
+            }
+
+            if (v != null) {
+                if (f.isNested()) {
+                    EntityValue ev = (EntityValue) v;
+                    Map<String, Value<?>> nestedProperties = ev.get().getProperties();
+                    nestedProperties.forEach(builder::set);
+                } else {
+                    builder.set(f.getPropertyName(), v);
+                }
+            }
+        }
 
         return EntityValue
                 .newBuilder(builder.build())
@@ -137,171 +110,156 @@ public class EntitySerde implements DataStoreObjectSerde<Object> {
     }
 
     /**
-     * Creates a new instance of the provided class, using either a builder or a no arguments constructor
+     * Logs the field being serialized or deserialized
      *
-     * @param tp The type of object to create
-     * @return The new object
-     * @throws InvocationTargetException
-     * @throws IllegalAccessException
-     * @throws NoSuchMethodException
-     * @throws InstantiationException
+     * @param f Field being handled
      *
-     * @since 1.0
+     * @since 1.4
      */
-    @SuppressWarnings({"squid:S3655", "squid:S3011"})
-    private Object initializeObject(Class tp, FullEntity e) throws InvocationTargetException, IllegalAccessException, NoSuchMethodException, InstantiationException {
-        Class tpToCreate = tp;
-        if (tp.getAnnotation(DatastoreTypeInfo.class) != null) {
-            tpToCreate = getSubClassImplementation(tp, e);
-        }
-        Optional<Method> builderMethod = Arrays.stream(tpToCreate.getDeclaredMethods())
-                .filter(m -> m.getName().equals("builder"))
-                .findFirst();
-
-        if (builderMethod.isPresent()) {
-            Object builder = builderMethod.get().invoke(builderMethod.get());
-            Method buildMethod = Arrays.stream(builder.getClass().getDeclaredMethods())
-                    .filter(m -> m.getName().equals("build"))
-                    .findFirst().get();
-            buildMethod.setAccessible(true);
-            return buildMethod.invoke(builder);
-        } else {
-            return tp.getConstructor().newInstance();
+    private static void logField(FieldMetadata f) {
+        if (log.isDebugEnabled()) {
+            if (f.getPropertyName().equals(f.getName())) {
+                log.debug(String.format(FOUND_FIELD, f.getType().getName(), f.getName()));
+            } else {
+                log.debug(String.format(FOUND_FIELD_AS, f.getType().getName(), f.getName(), f.getPropertyName()));
+            }
         }
     }
 
     /**
-     * Checks if a {@link Field} should be deserialized
+     * Decodes the value of a field from a {@link FullEntity} property.
      *
-     * @param f field to check
-     * @return if the field can be filtered for deserialization
+     * @param f Field to decode
+     * @param pv Value of the datastore property
+     * @param em EntityManager for handling complex objects
+     * @param dsNamespace Namespace of parent Entity
+     * @return The value of the field
      *
      * @since 1.3
      */
-    private static boolean fieldFilter(Field f) {
-        return f.getAnnotation(DatastoreSkip.class) == null &&
-                f.getAnnotation(DatastoreAncestor.class) == null &&
-                f.getAnnotation(DatastoreKey.class) == null &&
-                f.getAnnotation(DatastoreExternalEntity.class) == null &&
-                f.getAnnotation(DatastoreSubTypes.class) == null;
+    private static Object handleProperty(FieldMetadata f, Value pv, EntityManager em, DatastoreNamespace dsNamespace) {
+        logField(f);
+        if (f.getCustomSerdeClass() == null) {
+            return em.handleProperty(dsNamespace, f.getGenericType(), pv);
+        } else {
+            return f.getCustomSerde().deserialize(em, pv);
+        }
     }
 
     /**
-     * Checks if a property corresponds to a specfic {@link Field}
+     * Decodes the values of the key and ancestor fields from the key of a {@link FullEntity}
      *
-     * @param f field to find property for
-     * @param p name of property to check if corresponds to the field
-     * @return if the property is for the specified field
+     * @param metadata Metadata of the class being created
+     * @param e Datastore entity to get the key from
+     * @param values Values of the fields, indexed by {@link FieldMetadata#getIndex()}
      *
-     * @since 1.3
+     * @since 1.4
      */
-    private static boolean propertyFilter(Field f, String p) {
-        String propertyName;
-        if (f.getAnnotation(DatastorePropertyAs.class) != null) {
-            propertyName = f.getAnnotation(DatastorePropertyAs.class).value();
-        } else {
-            propertyName = f.getName();
+    private static void handleKey(EntityMetadata metadata, FullEntity e, Object[] values) {
+        IncompleteKey key = e.getKey();
+        if (key == null) {
+            return;
+        }
+
+        if (!metadata.getAncestorFields().isEmpty()) {
+            for (PathElement pe : key.getAncestors()) {
+                FieldMetadata af = metadata.getAncestorField(pe.getKind());
+                if (af != null) {
+                    values[af.getIndex()] = af.getDatastoreAncestor().keyType() == KeyType.LONG ? pe.getId() : pe.getName();
+                }
+            }
+        }
+
+        FieldMetadata kf = metadata.getKeyField();
+        if (kf != null && key instanceof com.google.cloud.datastore.Key k) {
+            values[kf.getIndex()] = kf.getDatastoreKey().keyType() == KeyType.LONG ? k.getId() : k.getName();
         }
-        return propertyName.equals(p);
     }
 
     /**
-     * Sets the value of a {@link Field} based on a {@link FullEntity} property.
+     * Decodes the values of all the fields of a class from a {@link FullEntity}. Properties are looked up by name so the
+     * cost is linear in the number of fields, regardless of the number of properties of the entity
      *
-     * @param f Field to set
-     * @param p Name of datastore property
-     * @param o Object to set the value for
+     * @param metadata Metadata of the class being created
+     * @param e Datastore entity to get values from
      * @param em EntityManager for handling complex objects
      * @param dsNamespace Namespace of parent Entity
-     * @param e Datastore entity deserializing
+     * @param v Datastore Value to deserialize
+     * @return Values of the fields, indexed by {@link FieldMetadata#getIndex()}
      *
      * @since 1.3
      */
-    private static void handleProperty(Field f, String p, Object o, EntityManager em, DatastoreNamespace dsNamespace, FullEntity e) {
-        if (f.getAnnotation(DatastorePropertyAs.class) != null) {
-            String propertyName = f.getAnnotation(DatastorePropertyAs.class).value();
-            log.debug(String.format(FOUND_FIELD_AS, f.getType().getName(), f.getName(), propertyName));
-        } else {
-            log.debug(String.format(FOUND_FIELD, f.getType().getName(), f.getName()));
-        }
-        if (f.getAnnotation(DatastoreWithSerde.class) == null) {
-            setFieldValue(o, f, em.handleProperty(dsNamespace, f.getGenericType(), (Value) e.getProperties().get(p)));
-        } else {
-            try {
-                CustomSerde<?> customSerde = f.getAnnotation(DatastoreWithSerde.class).value().getDeclaredConstructor().newInstance();
-                setFieldValue(o, f, customSerde.deserialize(em, (Value) e.getProperties().get(p)));
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-                throw new PavenSerdeException(String.format("Failed deserializing field [%s] for [%s]", f.getName(), o.getClass().getName()), ex);
+    private static Object[] handleProperties(EntityMetadata metadata, FullEntity e, EntityManager em, DatastoreNamespace dsNamespace, Value v) {
+        Object[] values = metadata.newValues();
+
+        handleKey(metadata, e, values);
+
+        for (FieldMetadata f : metadata.getPropertyFields()) {
+            if (e.contains(f.getPropertyName())) {
+                values[f.getIndex()] = handleProperty(f, e.getValue(f.getPropertyName()), em, dsNamespace);
             }
         }
+
+        for (FieldMetadata f : metadata.getNestedFields()) {
+            values[f.getIndex()] = em.handleProperty(dsNamespace, f.getGenericType(), v);
+        }
+
+        handleSubtypes(dsNamespace, em, e, values, metadata);
+
+        return values;
     }
 
     /**
-     * Sets all the fields of an object with values from a {@link FullEntity}
+     * Creates the object from the decoded values, then sets the values the instantiator didn't use and loads the
+     * external entities
      *
-     * @param o Object to set field values for
-     * @param e Datastore entity to get values from
-     * @param em EntityManager for handling complex objects
      * @param dsNamespace Namespace of parent Entity
+     * @param em EntityManager for handling complex objects
      * @param v Datastore Value to deserialize
+     * @param tp Class of object to create
+     * @return The deserialized object
      *
-     * @since 1.3
+     * @since 1.4
      */
-    private static void handleProperties(Object o, FullEntity e, EntityManager em, DatastoreNamespace dsNamespace, Value v) {
-        em.setKeyFields(o, e);
-
-        getAllFields(o).stream()
-                .filter(EntitySerde::fieldFilter)
-                .forEach(f -> {
-                            if (f.getAnnotation(DatastoreNested.class) != null) {
-                                setFieldValue(o, f, em.handleProperty(dsNamespace, f.getGenericType(), v));
-                            } else {
-                                ((Stream<String>) e.getProperties().keySet().stream())
-                                        .filter(p -> propertyFilter(f, p))
-                                        .forEach(p -> handleProperty(f, p, o, em, dsNamespace, e));
-                            }
-                        }
-                );
-
-        getAllFields(o).stream()
-                .filter(f -> f.getAnnotation(DatastoreExternalEntity.class) != null)
-                .forEach(f -> setFieldValue(o, f, em.getExternalEntity(dsNamespace, o, f)));
-
-        handleSubtypes(dsNamespace, em, e, o);
-    }
+    private static Object deserializeEntity(DatastoreNamespace dsNamespace, EntityManager em, Value v, Class tp) {
+        FullEntity e = (FullEntity) v.get();
 
-    @Override
-    public Object deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Type tp) {
-        log.debug(String.format("Deserializing value type '%s' as a '%s'", v.getType().name(), ((Class) tp).getName()));
+        EntityMetadata metadata = EntityMetadata.of(tp);
+        if (metadata.getSubtypeTable() != null) {
+            metadata = EntityMetadata.of(getSubClassImplementation(tp, e));
+        }
 
-        Object o;
-        FullEntity e = (FullEntity) v.get();
+        Object[] values = handleProperties(metadata, e, em, dsNamespace, v);
+
+        Instantiator instantiator = metadata.getInstantiator();
+        Object o = instantiator.newInstance(values);
 
-        try {
-            o = initializeObject((Class) tp, e);
-            handleProperties(o, e, em, dsNamespace, v);
-        } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException ex) {
-            throw new PavenSerdeException(String.format("Failed deserializing [%s]", ((Class) tp).getName()), ex);
+        for (FieldMetadata f : metadata.getFields()) {
+            Object fv = values[f.getIndex()];
+            if (fv != Instantiator.ABSENT && !instantiator.consumes(f.getIndex())) {
+                f.setValue(o, fv);
+            }
+        }
+
+        for (FieldMetadata f : metadata.getExternalFields()) {
+            em.loadExternalEntity(dsNamespace, o, f);
         }
 
         return o;
     }
 
     @Override
-    public Object deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Class tp) {
-        log.debug(String.format("Deserializing value type '%s' as a '%s'", v.getType().name(), tp.getName()));
+    public Object deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Type tp) {
+        log.debug(String.format("Deserializing value type '%s' as a '%s'", v.getType().name(), ((Class) tp).getName()));
 
-        Object o;
-        FullEntity e = (FullEntity) v.get();
+        return deserializeEntity(dsNamespace, em, v, (Class) tp);
+    }
 
-        try {
-            o = initializeObject(tp, e);
-            handleProperties(o, e, em, dsNamespace, v);
-        } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException ex) {
-            throw new PavenSerdeException(String.format("Failed deserializing [%s]", tp.getName()), ex);
-        }
+    @Override
+    public Object deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Class tp) {
+        log.debug(String.format("Deserializing value type '%s' as a '%s'", v.getType().name(), tp.getName()));
 
-        return o;
+        return deserializeEntity(dsNamespace, em, v, tp);
     }
 
     /**
@@ -310,61 +268,52 @@ public class EntitySerde implements DataStoreObjectSerde<Object> {
      * @param dsNamespace Namespace of parent Entity
      * @param em EntityManager for handling complex objects
      * @param e Entity to deserialize
-     * @param o Object to inject conditional subtype into
+     * @param values Values of the fields, indexed by {@link FieldMetadata#getIndex()}
+     * @param metadata Metadata of the object's class
      *
      * @since 1.1
      */
-    private static void handleSubtypes(DatastoreNamespace dsNamespace, EntityManager em, FullEntity e, Object o) {
-        getAllFields(o).stream()
-                .filter(f -> f.getAnnotation(DatastoreSubType.class) != null || f.getAnnotation(DatastoreSubTypes.class) != null)
-                .forEach(f -> {
-                    String pName = (String) (e.getProperties().keySet().stream())
-                            .filter(p -> {
-                                String propertyName;
-                                if (f.getAnnotation(DatastorePropertyAs.class) != null) {
-                                    propertyName = f.getAnnotation(DatastorePropertyAs.class).value();
-                                } else {
-                                    propertyName = f.getName();
-                                }
-                                return propertyName.equals(p);
-                            })
-                            .findFirst()
-                            .orElse("");
-
-                    if (!pName.isEmpty()) {
-                        String subTypeName;
-                        Value val = (Value) e.getProperties().get(pName);
-
-                        if (f.getAnnotation(DatastoreTypeInfo.class).include() == InclusionType.EXTERNAL_PROPERTY) {
-                            Field subTpField = getAllFields(o).stream()
-                                    .filter(f2 -> f2.getName().equals(f.getAnnotation(DatastoreTypeInfo.class).property()))
-                                    .findFirst()
-                                    .get();
-
-                            subTypeName = getFieldValue(o, subTpField).toString();
-                        } else {
-                            subTypeName = ((Value) e.getEntity(pName).getProperties().get(f.getAnnotation(DatastoreTypeInfo.class).property())).get().toString();
-                        }
-
-                        // TODO - make DatastoreSubTypes optional
-                        Optional<Class> optionalSubTp = Arrays.stream(f.getAnnotation(DatastoreSubTypes.class).value())
-                                .filter(st -> st.name().equals(subTypeName) || Arrays.stream(st.names()).toList().contains(subTypeName))
-                                .map(DatastoreSubType::type)
-                                .findFirst();
-
-                        Class subTp;
-                        subTp = optionalSubTp.orElseGet(
-                                () -> f.getAnnotation(DatastoreTypeInfo.class).defaultImpl()
-                        );
-
-                        setFieldValue(o, f, em.handleProperty(dsNamespace, subTp, val));
-                    }
-                });
+    private static void handleSubtypes(DatastoreNamespace dsNamespace, EntityManager em, FullEntity e, Object[] values, EntityMetadata metadata) {
+        for (FieldMetadata f : metadata.getSubtypedFields()) {
+            String pName = f.getPropertyName();
+
+            if (e.contains(pName)) {
+                logField(f);
+                Value val = e.getValue(pName);
+
+                if (val.getType() == ValueType.NULL) {
+                    values[f.getIndex()] = null;
+                    continue;
+                }
+
+                SubtypeTable table = f.getSubtypeTable();
+                String subTypeName;
+
+                if (table.getInclude() == InclusionType.EXTERNAL_PROPERTY) {
+                    FieldMetadata subTpField = metadata.getField(table.getProperty());
+                    Object subTpValue = subTpField != null ? values[subTpField.getIndex()] : null;
+
+                    subTypeName = subTpValue != null && subTpValue != Instantiator.ABSENT ? subTpValue.toString() : null;
+                } else {
+                    subTypeName = discriminator(e.getEntity(pName), table.getProperty());
+                }
+
+                Class subTp = table.resolve(subTypeName);
+
+                values[f.getIndex()] = em.handleProperty(dsNamespace, subTp != null ? subTp : f.getType(), val);
+            }
+        }
     }
 
     /**
      * Determine the correct subtype to initialize
      *
+     * <p>
+     *     With an {@link InclusionType#EXTERNAL_PROPERTY} the discriminator is held by the object containing the value, and
+     *     resolved by {@link #handleSubtypes(DatastoreNamespace, EntityManager, FullEntity, Object[], EntityMetadata)}. When
+     *     the value has no container, e.g. a top level entity or a list element, the default implementation is used
+     * </p>
+     *
      * @param parentClass Class to get subtype implementation for
      * @param e Datastore entity to get subtype identifier value from
      * @return the subtype class to initialize
@@ -372,41 +321,38 @@ public class EntitySerde implements DataStoreObjectSerde<Object> {
      * @since 1.3
      */
     private static Class getSubClassImplementation(Class parentClass, FullEntity e) {
-        DatastoreTypeInfo dti = (DatastoreTypeInfo) parentClass.getAnnotation(DatastoreTypeInfo.class);
-        Optional<DatastoreSubTypes> dst = Optional.ofNullable((DatastoreSubTypes) parentClass.getAnnotation(DatastoreSubTypes.class));
-
-        if (dti.include() == InclusionType.INTERNAL_PROPERTY) {
-            @SuppressWarnings("squid:S3655")
-            Field field = getAllFields(parentClass).stream()
-                    .filter(f -> f.getName().equals(dti.property()))
-                    .findFirst()
-                    .get();
-
-            String propertyName = dti.property();
+        EntityMetadata metadata = EntityMetadata.of(parentClass);
+        SubtypeTable table = metadata.getSubtypeTable();
 
-            if (field.getAnnotation(DatastorePropertyAs.class) != null) {
-                propertyName = field.getAnnotation(DatastorePropertyAs.class).value();
-            }
-
-            String type = e.getString(propertyName);
-
-            Class subTp = dti.defaultImpl();
-
-            if (dst.isPresent()) {
-                Optional<Class> subTpImpl = Arrays.stream(dst.get().value())
-                        .filter(st -> st.name().equals(type) || Arrays.stream(st.names()).toList().contains(type))
-                        .map(DatastoreSubType::type)
-                        .findFirst();
+        Class subTp;
+        if (table.getInclude() == InclusionType.INTERNAL_PROPERTY) {
+            subTp = table.resolve(discriminator(e, metadata.getDiscriminatorProperty()));
+        } else {
+            subTp = table.getDefaultImpl();
+        }
 
-                if (subTpImpl.isPresent()) {
-                    subTp = subTpImpl.get();
-                }
-            }
+        if (subTp == null) {
+            throw new PavenSerdeException(String.format("Can't determine the subtype to deserialize [%s] as", parentClass.getName()));
+        }
 
-            return subTp;
+        return subTp;
+    }
 
-        } else {
-            throw new NotImplementedException();
+    /**
+     * Reads the value of a subtype discriminator property
+     *
+     * @param e Entity holding the discriminator
+     * @param property Name of the discriminator property
+     * @return The value of the discriminator, {@code null} if not set
+     *
+     * @since 1.4
+     */
+    private static String discriminator(FullEntity e, String property) {
+        if (!e.contains(property)) {
+            return null;
         }
+
+        Value v = e.getValue(property);
+        return v.getType() == ValueType.NULL ? null : v.get().toString();
     }
 }
@@ -0,0 +1,116 @@
+package com.roundfeather.persistence.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldAccessorTest {
+
+    public static class Accessible {
+        public String open;
+        private String property;
+        private boolean flag;
+        private String hidden;
+        private long count;
+
+        public String getProperty() {
+            return "get:" + property;
+        }
+
+        public void setProperty(String property) {
+            this.property = "set:" + property;
+        }
+
+        public boolean isFlag() {
+            return flag;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+
+    public record Point(String name, int x) {
+    }
+
+    private static FieldAccessor accessor(Class<?> c, String name) throws NoSuchFieldException {
+        return FieldAccessor.of(c.getDeclaredField(name));
+    }
+
+    @Test
+    void cachesAccessorOfField() throws NoSuchFieldException {
+        assertSame(accessor(Accessible.class, "open"), accessor(Accessible.class, "open"));
+    }
+
+    @Test
+    void accessesPublicFieldDirectly() throws NoSuchFieldException {
+        Accessible a = new Accessible();
+        FieldAccessor open = accessor(Accessible.class, "open");
+
+        open.set(a, "o");
+
+        assertEquals("o", a.open);
+        assertEquals("o", open.get(a));
+        assertTrue(open.isWritable());
+    }
+
+    @Test
+    void usesGetterAndSetterOfPrivateField() throws NoSuchFieldException {
+        Accessible a = new Accessible();
+        FieldAccessor property = accessor(Accessible.class, "property");
+
+        property.set(a, "p");
+
+        assertEquals("get:set:p", property.get(a));
+        assertTrue(property.isWritable());
+    }
+
+    @Test
+    void ignoresPrivateFieldWithoutAccessors() throws NoSuchFieldException {
+        Accessible a = new Accessible();
+        FieldAccessor hidden = accessor(Accessible.class, "hidden");
+
+        hidden.set(a, "h");
+
+        assertNull(a.hidden);
+        assertNull(hidden.get(a));
+        assertFalse(hidden.isWritable());
+    }
+
+    @Test
+    void onlyUsesGetPrefixedGetters() throws NoSuchFieldException {
+        Accessible a = new Accessible();
+        a.flag = true;
+
+        assertNull(accessor(Accessible.class, "flag").get(a));
+    }
+
+    @Test
+    void ignoresNullForPrimitiveField() throws NoSuchFieldException {
+        Accessible a = new Accessible();
+        FieldAccessor count = accessor(Accessible.class, "count");
+
+        count.set(a, 3L);
+        count.set(a, null);
+
+        assertEquals(3L, a.count());
+        assertNull(count.get(a));
+    }
+
+    @Test
+    void readsRecordComponents() throws NoSuchFieldException {
+        Point p = new Point("p", 2);
+
+        assertEquals("p", accessor(Point.class, "name").get(p));
+        assertEquals(2, accessor(Point.class, "x").get(p));
+        assertFalse(accessor(Point.class, "x").isWritable());
+    }
+}
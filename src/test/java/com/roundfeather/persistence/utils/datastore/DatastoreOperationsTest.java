@@ -0,0 +1,557 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.google.cloud.datastore.Cursor;
+import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.EntityQuery;
+import com.google.cloud.datastore.PathElement;
+import com.google.cloud.datastore.Query;
+import com.google.cloud.datastore.StructuredQuery;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import com.roundfeather.persistence.utils.datastore.model.CodecTestObject;
+import com.roundfeather.persistence.utils.datastore.query.DatastoreQuery;
+import com.roundfeather.persistence.utils.datastore.query.Property;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class DatastoreOperationsTest {
+
+    private static final Ancestor ANCESTOR = Ancestor.of("a", "ancestor");
+
+    @InjectSpy
+    Datastore datastore;
+
+    @Inject
+    DatastoreRepository<CodecTestObject> repository;
+
+    @Inject
+    DatastoreExecutor executor;
+
+    private static CodecTestObject testObject(Long id, String label) {
+        return testObject(id, label, ANCESTOR.getName());
+    }
+
+    private static CodecTestObject testObject(Long id, String label, String ancestor) {
+        CodecTestObject to = new CodecTestObject();
+        to.id = id;
+        to.ancestor = ancestor;
+        to.label = label;
+        return to;
+    }
+
+    private List<Integer> chunkSizes(String method) {
+        List<Integer> sizes = new ArrayList<>();
+        for (Invocation invocation : Mockito.mockingDetails(datastore).getInvocations()) {
+            if (invocation.getMethod().getName().equals(method)) {
+                Object chunk = invocation.getRawArguments()[0];
+                sizes.add(chunk instanceof Object[] a ? a.length : ((List<?>) chunk).size());
+            }
+        }
+        sizes.sort(null);
+        return sizes;
+    }
+
+    private long invocations(String method) {
+        return Mockito.mockingDetails(datastore).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals(method))
+                .count();
+    }
+
+    @Test
+    void findLooksUpKeyWithoutQuerying() {
+        DatastoreNamespace ns = DatastoreNamespace.of("find");
+        repository.save(ns, testObject(3L, "three"));
+        Mockito.clearInvocations(datastore);
+
+        CodecTestObject found = repository.find(ns, Key.of(3L), ANCESTOR);
+
+        assertEquals("three", found.label);
+        assertEquals(3L, found.id);
+        assertEquals("ancestor", found.ancestor);
+        assertEquals(1, invocations("get"));
+        assertEquals(0, invocations("run"));
+    }
+
+    @Test
+    void findReturnsNullForMissingKey() {
+        DatastoreNamespace ns = DatastoreNamespace.of("find");
+        repository.save(ns, testObject(4L, "four"));
+
+        assertNull(repository.find(ns, Key.of(5L), ANCESTOR));
+        assertNull(repository.find(ns, Key.of(4L), Ancestor.of("a", "other")));
+    }
+
+    @Test
+    void findAllLooksUpInChunksOfLookupLimit() {
+        DatastoreNamespace ns = DatastoreNamespace.of("findAll");
+        repository.save(ns, testObject(1L, "first"));
+        repository.save(ns, testObject(1001L, "last"));
+        Mockito.clearInvocations(datastore);
+
+        List<Key> keys = LongStream.rangeClosed(1, 1001).mapToObj(Key::of).toList();
+        List<CodecTestObject> found = repository.findAll(ns, keys, ANCESTOR);
+
+        assertEquals(List.of(1, 1000), chunkSizes("fetch"));
+        assertEquals(1001, found.size());
+        assertEquals("first", found.get(0).label);
+        assertNull(found.get(1));
+        assertNull(found.get(999));
+        assertEquals("last", found.get(1000).label);
+    }
+
+    @Test
+    void findAllKeepsOrderOfKeys() {
+        DatastoreNamespace ns = DatastoreNamespace.of("findAllOrder");
+        repository.save(ns, testObject(1L, "one"));
+        repository.save(ns, testObject(2L, "two"));
+
+        List<CodecTestObject> found = repository.findAll(ns, List.of(Key.of(2L), Key.of(3L), Key.of(1L)), ANCESTOR);
+
+        assertEquals(3, found.size());
+        assertEquals(2L, found.get(0).id);
+        assertEquals("two", found.get(0).label);
+        assertNull(found.get(1));
+        assertEquals(1L, found.get(2).id);
+        assertEquals("ancestor", found.get(2).ancestor);
+    }
+
+    @Test
+    void saveAllWritesInChunksOfMutationLimit() {
+        DatastoreNamespace ns = DatastoreNamespace.of("saveAll");
+        List<CodecTestObject> objects = LongStream.rangeClosed(1, 501).mapToObj(id -> testObject(id, "o" + id)).toList();
+
+        List<CodecTestObject> saved = repository.saveAll(ns, objects);
+
+        assertEquals(List.of(1, 500), chunkSizes("put"));
+        assertEquals(501, saved.size());
+        assertEquals(1L, saved.get(0).id);
+        assertEquals("o501", saved.get(500).label);
+        assertEquals(501, repository.list(ns, ANCESTOR).size());
+    }
+
+    @Test
+    void saveAllWritesLastObjectOfKey() {
+        DatastoreNamespace ns = DatastoreNamespace.of("saveAllDuplicates");
+
+        List<CodecTestObject> saved = repository.saveAll(ns, List.of(testObject(7L, "first"), testObject(8L, "other"), testObject(7L, "second")));
+
+        assertEquals(List.of(2), chunkSizes("put"));
+        assertEquals(3, saved.size());
+        assertEquals("second", saved.get(0).label);
+        assertEquals("other", saved.get(1).label);
+        assertEquals("second", saved.get(2).label);
+        assertEquals("second", repository.find(ns, Key.of(7L), ANCESTOR).label);
+    }
+
+    @Test
+    void saveAllWritesGeneratedKeysBack() {
+        DatastoreNamespace ns = DatastoreNamespace.of("saveAllWriteBack");
+        CodecTestObject first = testObject(null, "first");
+        CodecTestObject second = testObject(null, "second");
+
+        List<CodecTestObject> saved = repository.saveAll(ns, List.of(first, second), SaveMode.WRITE_BACK_KEYS);
+
+        assertSame(first, saved.get(0));
+        assertSame(second, saved.get(1));
+        assertNotNull(first.id);
+        assertNotNull(second.id);
+        assertEquals("second", repository.find(ns, Key.of(second.id), ANCESTOR).label);
+    }
+
+    @Test
+    void saveAllReloadsWrittenEntities() {
+        DatastoreNamespace ns = DatastoreNamespace.of("saveAllReload");
+        CodecTestObject first = testObject(null, "first");
+
+        List<CodecTestObject> saved = repository.saveAll(ns, List.of(first), SaveMode.RELOAD);
+
+        assertNotSame(first, saved.get(0));
+        assertNull(first.id);
+        assertNotNull(saved.get(0).id);
+    }
+
+    @Test
+    void deleteAllDeletesInChunksOfMutationLimit() {
+        DatastoreNamespace ns = DatastoreNamespace.of("deleteAll");
+        repository.saveAll(ns, List.of(testObject(1L, "first"), testObject(501L, "last")));
+        Mockito.clearInvocations(datastore);
+
+        repository.deleteAll(ns, LongStream.rangeClosed(1, 501).mapToObj(Key::of).toList(), ANCESTOR);
+
+        assertEquals(List.of(1, 500), chunkSizes("delete"));
+        assertEquals(0, repository.list(ns, ANCESTOR).size());
+    }
+
+    @Test
+    void deleteByAncestorDeletesAllDescendants() {
+        DatastoreNamespace ns = DatastoreNamespace.of("deleteByAncestor");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 501).mapToObj(id -> testObject(id, "o" + id, "parent")).toList());
+        repository.save(ns, testObject(1L, "kept", "other"));
+        Mockito.clearInvocations(datastore);
+
+        long deleted = repository.deleteByAncestor(ns, Ancestor.of("a", "parent"));
+
+        assertEquals(501, deleted);
+        assertEquals(List.of(1, 500), chunkSizes("delete"));
+        assertEquals(0, repository.list(ns, Ancestor.of("a", "parent")).size());
+        assertEquals("kept", repository.find(ns, Key.of(1L), Ancestor.of("a", "other")).label);
+    }
+
+    @Test
+    void deleteByAncestorKeepsAncestorOfSameKind() {
+        DatastoreNamespace ns = DatastoreNamespace.of("deleteByAncestorOfSameKind");
+        repository.save(ns, testObject(7L, "parent", "parent"));
+        com.google.cloud.datastore.Key child = datastore.newKeyFactory()
+                .setNamespace(ns.getNamespace())
+                .setKind("codecTestObject")
+                .addAncestors(PathElement.of("a", "parent"), PathElement.of("codecTestObject", 7L))
+                .newKey(8L);
+        datastore.put(Entity.newBuilder(child).set("name", "child").build());
+
+        long deleted = repository.deleteByAncestor(ns, Ancestor.of("a", "parent"), Ancestor.of("codecTestObject", 7L));
+
+        assertEquals(1, deleted);
+        assertNull(datastore.get(child));
+        assertEquals("parent", repository.find(ns, Key.of(7L), Ancestor.of("a", "parent")).label);
+    }
+
+    @Test
+    void deleteByAncestorRequiresAnAncestor() {
+        DatastoreNamespace ns = DatastoreNamespace.of("deleteByAncestor");
+
+        assertThrows(IllegalArgumentException.class, () -> repository.deleteByAncestor(ns));
+    }
+
+    @Test
+    void existsChecksKeyWithoutReadingEntity() {
+        DatastoreNamespace ns = DatastoreNamespace.of("exists");
+        repository.save(ns, testObject(1L, "one"));
+        Mockito.clearInvocations(datastore);
+
+        assertTrue(repository.exists(ns, Key.of(1L), ANCESTOR));
+        assertFalse(repository.exists(ns, Key.of(2L), ANCESTOR));
+        assertFalse(repository.exists(ns, Key.of(1L), Ancestor.of("a", "other")));
+        assertEquals(0, invocations("get"));
+    }
+
+    @Test
+    void queryExistsRunsKeysOnlyQuery() {
+        DatastoreNamespace ns = DatastoreNamespace.of("queryExists");
+        repository.save(ns, testObject(1L, "one"));
+        repository.save(ns, testObject(2L, "two"));
+        Property<CodecTestObject, String> label = Property.of(CodecTestObject.class, "label", "name");
+        Mockito.clearInvocations(datastore);
+
+        assertTrue(DatastoreQuery.of(ns, CodecTestObject.class).where(label.eq("two")).exists());
+        assertTrue(DatastoreQuery.of(ns, CodecTestObject.class).ancestors(ANCESTOR).orderBy(label.desc()).exists());
+        assertFalse(DatastoreQuery.of(ns, CodecTestObject.class).where(label.eq("three")).exists());
+        assertFalse(DatastoreQuery.of(ns, CodecTestObject.class).ancestors(Ancestor.of("a", "other")).exists());
+        assertEquals(0, invocations("runAggregation"));
+        assertEquals(4, invocations("run"));
+    }
+
+    @Test
+    void listsKeysOfAncestor() {
+        DatastoreNamespace ns = DatastoreNamespace.of("listKeys");
+        repository.save(ns, testObject(1L, "one"));
+        repository.save(ns, testObject(2L, "two"));
+        repository.save(ns, testObject(3L, "three", "other"));
+
+        List<KeyPath> keys = repository.listKeys(ns, ANCESTOR);
+
+        assertEquals(List.of(KeyPath.of(Key.of(1L), List.of(ANCESTOR)), KeyPath.of(Key.of(2L), List.of(ANCESTOR))), keys);
+        assertEquals(3, repository.listKeys(ns).size());
+        assertEquals(0, repository.listKeys(DatastoreNamespace.of("listKeysEmpty")).size());
+    }
+
+    @Test
+    void streamsKeysOfAncestor() {
+        DatastoreNamespace ns = DatastoreNamespace.of("streamKeys");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 501).mapToObj(id -> testObject(id, "o" + id)).toList());
+        repository.save(ns, testObject(1L, "other", "other"));
+
+        List<KeyPath> keys = repository.streamKeys(ns, ANCESTOR).collect().asList().await().indefinitely();
+
+        assertEquals(repository.listKeys(ns, ANCESTOR), keys);
+        assertEquals(501, keys.size());
+        assertEquals(KeyPath.of(Key.of(501L), List.of(ANCESTOR)), keys.get(500));
+    }
+
+    private void saveCounts(DatastoreNamespace ns, int... counts) {
+        for (int i = 0; i < counts.length; i++) {
+            CodecTestObject to = testObject(i + 1L, "o" + i);
+            to.count = counts[i];
+            to.weight = counts[i] / 4D;
+            repository.save(ns, to);
+        }
+    }
+
+    @Test
+    void countsObjectsOfAncestor() {
+        DatastoreNamespace ns = DatastoreNamespace.of("count");
+        saveCounts(ns, 1, 2, 3);
+        repository.save(ns, testObject(1L, "other", "other"));
+
+        assertEquals(3, repository.count(ns, ANCESTOR));
+        assertEquals(4, repository.count(ns));
+        assertEquals(0, repository.count(ns, Ancestor.of("a", "missing")));
+    }
+
+    @Test
+    void sumsIntegersAsLong() {
+        DatastoreNamespace ns = DatastoreNamespace.of("sumLong");
+        saveCounts(ns, 1, 2, 3);
+
+        Number sum = repository.sum(ns, "count", ANCESTOR);
+
+        assertInstanceOf(Long.class, sum);
+        assertEquals(6L, sum);
+    }
+
+    @Test
+    void sumsDoublesAsDouble() {
+        DatastoreNamespace ns = DatastoreNamespace.of("sumDouble");
+        saveCounts(ns, 1, 2, 3);
+
+        Number sum = repository.sum(ns, "weight", ANCESTOR);
+
+        assertInstanceOf(Double.class, sum);
+        assertEquals(1.5D, sum);
+    }
+
+    @Test
+    void averagesValues() {
+        DatastoreNamespace ns = DatastoreNamespace.of("avg");
+        saveCounts(ns, 1, 2, 6);
+
+        assertEquals(3D, repository.avg(ns, "count", ANCESTOR));
+        assertEquals(0.75D, repository.avg(ns, "weight", ANCESTOR));
+    }
+
+    @Test
+    void aggregatesEmptyResults() {
+        DatastoreNamespace ns = DatastoreNamespace.of("aggregateEmpty");
+
+        assertNull(repository.avg(ns, "count", ANCESTOR));
+        assertEquals(0L, repository.sum(ns, "count", ANCESTOR).longValue());
+        assertEquals(0, repository.count(ns, ANCESTOR));
+    }
+
+    @Test
+    void rejectsAggregatingFieldsWhichArentIndexedProperties() {
+        DatastoreNamespace ns = DatastoreNamespace.of("aggregateKey");
+
+        assertThrows(PavenSerdeException.class, () -> repository.sum(ns, "id", ANCESTOR));
+        assertThrows(PavenSerdeException.class, () -> repository.avg(ns, "missing", ANCESTOR));
+    }
+
+    @Test
+    void projectsOnlyRequestedFields() {
+        DatastoreNamespace ns = DatastoreNamespace.of("project");
+        CodecTestObject to = testObject(1L, "one");
+        to.count = 3;
+        repository.save(ns, to);
+
+        List<CodecTestObject> projected = repository.project(ns, List.of("label"), ANCESTOR);
+
+        assertEquals(1, projected.size());
+        assertEquals("one", projected.get(0).label);
+        assertEquals(1L, projected.get(0).id);
+        assertEquals("ancestor", projected.get(0).ancestor);
+        assertEquals(0, projected.get(0).count);
+    }
+
+    @Test
+    void projectsTimestampsLikeFullReads() {
+        DatastoreNamespace ns = DatastoreNamespace.of("projectTimestamp");
+        CodecTestObject to = testObject(1L, "one");
+        to.createdAt = 1_700_000_000_000_000L;
+        repository.save(ns, to);
+
+        List<CodecTestObject> projected = repository.project(ns, List.of("createdAt", "label"), ANCESTOR);
+
+        assertEquals(1, projected.size());
+        assertNotNull(projected.get(0).createdAt);
+        assertEquals(repository.find(ns, Key.of(1L), ANCESTOR).createdAt, projected.get(0).createdAt);
+        assertEquals("one", projected.get(0).label);
+    }
+
+    private List<Long> pageThrough(DatastoreNamespace ns, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        Cursor cursor = null;
+        Page<CodecTestObject> page;
+        do {
+            page = repository.page(ns, List.of(ANCESTOR), pageSize, cursor);
+            assertTrue(page.getItems().size() <= pageSize);
+            page.getItems().forEach(o -> ids.add(o.id));
+            cursor = page.getEndCursor();
+        } while (page.isMoreResults());
+        return ids;
+    }
+
+    @Test
+    void pagesContinueFromEndCursor() {
+        DatastoreNamespace ns = DatastoreNamespace.of("page");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 5).mapToObj(id -> testObject(id, "o" + id)).toList());
+
+        Page<CodecTestObject> first = repository.page(ns, List.of(ANCESTOR), 2, null);
+        Page<CodecTestObject> second = repository.page(ns, List.of(ANCESTOR), 2, first.getEndCursor());
+        Page<CodecTestObject> last = repository.page(ns, List.of(ANCESTOR), 2, second.getEndCursor());
+
+        assertEquals(List.of(1L, 2L), first.getItems().stream().map(o -> o.id).toList());
+        assertTrue(first.isMoreResults());
+        assertEquals(List.of(3L, 4L), second.getItems().stream().map(o -> o.id).toList());
+        assertTrue(second.isMoreResults());
+        assertEquals(List.of(5L), last.getItems().stream().map(o -> o.id).toList());
+        assertFalse(last.isMoreResults());
+    }
+
+    @Test
+    void pagingReadsEveryObjectOnce() {
+        DatastoreNamespace ns = DatastoreNamespace.of("pageAll");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 6).mapToObj(id -> testObject(id, "o" + id)).toList());
+
+        assertEquals(LongStream.rangeClosed(1, 6).boxed().toList(), pageThrough(ns, 3));
+        assertEquals(LongStream.rangeClosed(1, 6).boxed().toList(), pageThrough(ns, 4));
+        assertEquals(LongStream.rangeClosed(1, 6).boxed().toList(), pageThrough(ns, 10));
+    }
+
+    @Test
+    void pageOfEmptyResultsHasNoMoreResults() {
+        Page<CodecTestObject> page = repository.page(DatastoreNamespace.of("pageEmpty"), List.of(ANCESTOR), 2, null);
+
+        assertEquals(0, page.getItems().size());
+        assertFalse(page.isMoreResults());
+    }
+
+    @Test
+    void pageOfQueryReplacesItsLimit() {
+        DatastoreNamespace ns = DatastoreNamespace.of("pageQuery");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 3).mapToObj(id -> testObject(id, "o" + id)).toList());
+        EntityQuery query = Query.newEntityQueryBuilder()
+                .setNamespace(ns.getNamespace())
+                .setKind("codecTestObject")
+                .setLimit(1)
+                .build();
+
+        Page<CodecTestObject> first = repository.page(query, 2, null);
+        Page<CodecTestObject> second = repository.page(query, 2, first.getEndCursor());
+
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isMoreResults());
+        assertEquals(List.of(3L), second.getItems().stream().map(o -> o.id).toList());
+        assertFalse(second.isMoreResults());
+    }
+
+    @Test
+    void streamReadsEveryObject() {
+        DatastoreNamespace ns = DatastoreNamespace.of("stream");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 501).mapToObj(id -> testObject(id, "o" + id)).toList());
+
+        List<CodecTestObject> streamed = repository.stream(ns, ANCESTOR).collect().asList().await().indefinitely();
+
+        assertEquals(501, streamed.size());
+        assertEquals("o1", streamed.get(0).label);
+        assertEquals("ancestor", streamed.get(500).ancestor);
+    }
+
+    @Test
+    void cancellingStreamStopsReadingAhead() throws InterruptedException {
+        DatastoreNamespace ns = DatastoreNamespace.of("streamCancel");
+        repository.saveAll(ns, LongStream.rangeClosed(1, 1200).mapToObj(id -> testObject(id, "o" + id)).toList());
+        DatastoreExecutor pool = ClientProxy.unwrap(executor);
+        int depth = pool.prefetchDepth;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch read = new CountDownLatch(1);
+        Mockito.doAnswer(i -> {
+            if (((StructuredQuery<?>) i.getArgument(0)).getStartCursor() == null) {
+                return i.callRealMethod();
+            }
+            release.await();
+            Object results = i.callRealMethod();
+            read.countDown();
+            return results;
+        }).when(datastore).run(Mockito.any());
+        Mockito.clearInvocations(datastore);
+
+        try {
+            pool.prefetchDepth = 3;
+
+            List<CodecTestObject> first = repository.stream(ns, ANCESTOR).select().first(10).collect().asList().await().indefinitely();
+            release.countDown();
+            assertTrue(read.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+
+            assertEquals(10, first.size());
+            assertEquals(2, invocations("run"));
+        } finally {
+            release.countDown();
+            pool.prefetchDepth = depth;
+            Mockito.reset(datastore);
+        }
+    }
+
+    @Test
+    void asyncCallsRunWhenSubscribedOnAsyncPool() {
+        DatastoreNamespace ns = DatastoreNamespace.of("async");
+        repository.save(ns, testObject(1L, "one"));
+        Mockito.clearInvocations(datastore);
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        Uni<CodecTestObject> find = repository.findAsync(ns, Key.of(1L), ANCESTOR)
+                .onItem().invoke(() -> thread.set(Thread.currentThread().getName()));
+        assertEquals(0, invocations("get"));
+
+        assertEquals("one", find.await().indefinitely().label);
+        assertEquals(1, invocations("get"));
+        assertTrue(thread.get().startsWith("paven-datastore-async-"));
+    }
+
+    @Test
+    void asyncCallsMatchBlockingCalls() {
+        DatastoreNamespace ns = DatastoreNamespace.of("asyncCalls");
+
+        CodecTestObject saved = repository.saveAsync(ns, testObject(null, "generated")).await().indefinitely();
+        repository.saveAsync(ns, testObject(2L, "two")).await().indefinitely();
+
+        assertNotNull(saved.id);
+        assertEquals("generated", repository.findAsync(ns, Key.of(saved.id), ANCESTOR).await().indefinitely().label);
+        assertEquals(2, repository.listAsync(ns, ANCESTOR).await().indefinitely().size());
+        assertEquals("two", repository.deleteAsync(ns, Key.of(2L), ANCESTOR).await().indefinitely().label);
+        assertNull(repository.deleteAsync(ns, Key.of(saved.id), false, ANCESTOR).await().indefinitely());
+        assertNull(repository.findAsync(ns, Key.of(2L), ANCESTOR).await().indefinitely());
+        assertEquals(0, repository.listAsync(ns, ANCESTOR).await().indefinitely().size());
+    }
+
+    @Test
+    void asyncCallsFailWithTheBlockingException() {
+        DatastoreNamespace ns = DatastoreNamespace.of("asyncFailure");
+        Uni<Long> byAncestor = DatastoreOperations.getInstance().async(() -> repository.deleteByAncestor(ns));
+
+        assertThrows(IllegalArgumentException.class, () -> byAncestor.await().indefinitely());
+    }
+}
@@ -0,0 +1,107 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.google.cloud.datastore.EntityValue;
+import com.google.cloud.datastore.FullEntity;
+import com.google.cloud.datastore.PathElement;
+import com.google.cloud.datastore.StringValue;
+import com.roundfeather.persistence.utils.datastore.model.CodecTestObject;
+import com.roundfeather.persistence.utils.datastore.model.CodecTestObjectCodec;
+import com.roundfeather.persistence.utils.datastore.model.TestObject2;
+import com.roundfeather.persistence.utils.datastore.serde.impl.EntitySerde;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QuarkusTest
+class EntityCodecTest {
+
+    private static final DatastoreNamespace NAMESPACE = DatastoreNamespace.of("namespace");
+
+    private static final com.google.cloud.datastore.Key KEY = com.google.cloud.datastore.Key.newBuilder("test", "codecTestObject", 5L)
+            .setNamespace("namespace")
+            .addAncestor(PathElement.of("a", "ancestor"))
+            .build();
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EntitySerde entitySerde;
+
+    @Inject
+    CodecTestObjectCodec codec;
+
+    @Test
+    void serializesLikeTheReflectiveSerde() {
+        CodecTestObject to = testObject();
+
+        FullEntity generated = codec.serialize(entityManager, to, KEY);
+        FullEntity reflective = ((EntityValue) entitySerde.serialize(entityManager, to, false, KEY)).get();
+
+        assertEquals(reflective, generated);
+        assertEquals(KEY, generated.getKey());
+        assertEquals("label", generated.getString("name"));
+        assertFalse(generated.contains("label"));
+        assertEquals("EDOC", generated.getString("code"));
+    }
+
+    @Test
+    void deserializesLikeTheReflectiveSerde() {
+        FullEntity e = codec.serialize(entityManager, testObject(), KEY);
+
+        CodecTestObject generated = codec.deserialize(NAMESPACE, entityManager, e);
+        CodecTestObject reflective = (CodecTestObject) entitySerde.deserialize(NAMESPACE, entityManager, EntityValue.of(e), CodecTestObject.class);
+
+        assertThat(generated).usingRecursiveComparison().isEqualTo(reflective);
+        assertThat(generated).usingRecursiveComparison().isEqualTo(testObject());
+    }
+
+    @Test
+    void keepsDefaultsOfMissingProperties() {
+        FullEntity e = FullEntity.newBuilder(KEY)
+                .set("name", StringValue.of("label"))
+                .build();
+
+        CodecTestObject generated = codec.deserialize(NAMESPACE, entityManager, e);
+        CodecTestObject reflective = (CodecTestObject) entitySerde.deserialize(NAMESPACE, entityManager, EntityValue.of(e), CodecTestObject.class);
+
+        assertThat(generated).usingRecursiveComparison().isEqualTo(reflective);
+        assertEquals(5L, generated.id);
+        assertEquals("ancestor", generated.ancestor);
+        assertEquals("label", generated.label);
+        assertEquals(0, generated.count);
+        assertFalse(generated.active);
+        assertNull(generated.code);
+        assertNull(generated.to2);
+    }
+
+    private static CodecTestObject testObject() {
+        CodecTestObject to = new CodecTestObject();
+        to.id = 5L;
+        to.ancestor = "ancestor";
+        to.label = "label";
+        to.count = 3;
+        to.active = true;
+        to.code = "CODE";
+        to.to2 = TestObject2.builder()
+                .l(10L)
+                .s("S")
+                .i(2)
+                .d(3D)
+                .f(0.3F)
+                .ds(List.of(4D, 5D))
+                .fs(Map.of("a", 0.6F))
+                .b1(true)
+                .build();
+
+        return to;
+    }
+}
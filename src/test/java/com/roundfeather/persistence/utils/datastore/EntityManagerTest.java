@@ -0,0 +1,34 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import com.roundfeather.persistence.utils.datastore.model.CodecTestObject;
+import com.roundfeather.persistence.utils.datastore.model.TestObject;
+import com.roundfeather.persistence.utils.datastore.model.repository.TestObjectRepository;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+class EntityManagerTest {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void indexesRepositoriesByEntityClass() {
+        assertInstanceOf(TestObjectRepository.class, entityManager.getRepository(TestObject.class));
+        assertEquals(CodecTestObject.class, entityManager.getRepository(CodecTestObject.class).entityClass());
+        assertEquals("testObject", entityManager.getKind(TestObject.class));
+    }
+
+    @Test
+    void skipsRepositoriesOfUnresolvedType() {
+        PavenSerdeException e = assertThrows(PavenSerdeException.class, () -> entityManager.getRepository(Long.class));
+
+        assertEquals("No repository found for [java.lang.Long]", e.getMessage());
+    }
+}
@@ -0,0 +1,133 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.roundfeather.persistence.utils.datastore.annotation.FetchType;
+import com.roundfeather.persistence.utils.datastore.model.Owner;
+import com.roundfeather.persistence.utils.datastore.model.OwnerAncestors;
+import com.roundfeather.persistence.utils.datastore.model.Pet;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@QuarkusTest
+class ExternalEntityTest {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DatastoreRepository<Owner> owners;
+
+    @Inject
+    DatastoreRepository<Pet> pets;
+
+    private void seed(DatastoreNamespace ns, long ownerCount) {
+        for (long id = 1; id <= ownerCount; id++) {
+            Owner owner = new Owner();
+            owner.id = id;
+            owner.name = "owner" + id;
+            owners.save(ns, owner);
+
+            for (long p = 1; p <= 2; p++) {
+                Pet pet = new Pet();
+                pet.id = p;
+                pet.owner = id;
+                pet.name = "pet" + id + "-" + p;
+                pets.save(ns, pet);
+            }
+        }
+    }
+
+    private static List<String> names(List<Pet> pets) {
+        return pets.stream().map(p -> p.name).sorted().toList();
+    }
+
+    @Test
+    void loadsExternalEntitiesOfEveryObject() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalList");
+        seed(ns, 3);
+
+        List<Owner> found = owners.list(ns).stream().sorted(Comparator.comparing(o -> o.id)).toList();
+
+        assertEquals(3, found.size());
+        for (Owner owner : found) {
+            assertEquals(List.of("pet" + owner.id + "-1", "pet" + owner.id + "-2"), names(owner.pets));
+        }
+    }
+
+    @Test
+    void loadsExternalEntitiesOfSingleObject() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalFind");
+        seed(ns, 2);
+
+        Owner owner = owners.find(ns, Key.of(2L));
+
+        assertEquals(List.of("pet2-1", "pet2-2"), names(owner.pets));
+    }
+
+    @Test
+    void loadsExternalEntitiesOfStreamedObjects() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalStream");
+        seed(ns, 3);
+
+        List<Owner> found = owners.stream(ns).collect().asList().await().indefinitely()
+                .stream().sorted(Comparator.comparing(o -> o.id)).toList();
+
+        assertEquals(3, found.size());
+        for (Owner owner : found) {
+            assertEquals(List.of("pet" + owner.id + "-1", "pet" + owner.id + "-2"), names(owner.pets));
+        }
+    }
+
+    @Test
+    void reusesAncestorsFactory() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalFactory");
+        seed(ns, 2);
+        owners.list(ns);
+        int created = OwnerAncestors.CREATED.get();
+
+        owners.list(ns);
+        owners.find(ns, Key.of(1L));
+
+        assertEquals(created, OwnerAncestors.CREATED.get());
+    }
+
+    @Test
+    void nestedReadKeepsItsFetchType() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalNestedEager");
+        seed(ns, 2);
+
+        List<Owner> found = entityManager.withExternalEntityBatch(FetchType.LAZY, () -> List.of(
+                owners.find(ns, Key.of(1L)),
+                owners.find(ns, Key.of(2L), FetchType.EAGER)
+        ));
+
+        LazyExternalList<?> lazy = assertInstanceOf(LazyExternalList.class, found.get(0).pets);
+        assertFalse(lazy.isLoaded());
+        assertFalse(found.get(1).pets instanceof LazyExternalList);
+        assertEquals(List.of("pet2-1", "pet2-2"), names(found.get(1).pets));
+    }
+
+    @Test
+    void nestedReadCanBeLazyInEagerRead() {
+        DatastoreNamespace ns = DatastoreNamespace.of("externalNestedLazy");
+        seed(ns, 2);
+
+        List<Owner> found = entityManager.withExternalEntityBatch(FetchType.EAGER, () -> List.of(
+                owners.find(ns, Key.of(1L), FetchType.LAZY),
+                owners.find(ns, Key.of(2L))
+        ));
+
+        LazyExternalList<?> lazy = assertInstanceOf(LazyExternalList.class, found.get(0).pets);
+        assertFalse(lazy.isLoaded());
+        assertEquals(List.of("pet1-1", "pet1-2"), names(found.get(0).pets));
+        assertFalse(found.get(1).pets instanceof LazyExternalList);
+        assertEquals(List.of("pet2-1", "pet2-2"), names(found.get(1).pets));
+    }
+}
@@ -0,0 +1,204 @@
+package com.roundfeather.persistence.utils.datastore;
+
+import com.google.cloud.datastore.Cursor;
+import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.Entity;
+import com.google.cloud.datastore.EntityQuery;
+import com.google.cloud.datastore.Query;
+import com.google.cloud.datastore.QueryResults;
+import com.google.datastore.v1.QueryResultBatch.MoreResultsType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefetchingIteratorTest {
+
+    private static final EntityQuery QUERY = Query.newEntityQueryBuilder().setKind("kind").build();
+
+    private final DatastoreExecutor executor = new DatastoreExecutor();
+    private final Datastore datastore = Mockito.mock(Datastore.class);
+    private final List<EntityQuery> queries = new ArrayList<>();
+    private final Map<Cursor, Integer> offsets = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setup() {
+        executor.threads = 2;
+        executor.asyncThreads = 1;
+        executor.prefetchDepth = 1;
+        executor.init();
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Cursor cursor(int offset) {
+        Cursor cursor = Cursor.copyFrom(ByteBuffer.allocate(Integer.BYTES).putInt(offset).array());
+        offsets.put(cursor, offset);
+        return cursor;
+    }
+
+    private int offset(Cursor cursor) {
+        return cursor == null ? 0 : offsets.get(cursor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryResults<Entity> results(List<Entity> entities, int end, boolean more) {
+        Iterator<Entity> it = entities.iterator();
+        QueryResults<Entity> results = Mockito.mock(QueryResults.class, Mockito.withSettings().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        Mockito.doAnswer(i -> it.hasNext()).when(results).hasNext();
+        Mockito.doAnswer(i -> it.next()).when(results).next();
+        Mockito.doReturn(cursor(end)).when(results).getCursorAfter();
+        Mockito.doReturn(more ? MoreResultsType.MORE_RESULTS_AFTER_LIMIT : MoreResultsType.NO_MORE_RESULTS).when(results).getMoreResults();
+        return results;
+    }
+
+    private void store(int total, CountDownLatch release, CountDownLatch read) {
+        Mockito.doAnswer(i -> {
+            EntityQuery query = i.getArgument(0);
+            int start = offset(query.getStartCursor());
+            synchronized (queries) {
+                queries.add(query);
+            }
+
+            if (start > 0 && release != null) {
+                release.await();
+            }
+
+            int end = Math.min(total, start + query.getLimit());
+            List<Entity> entities = LongStream.range(start, end)
+                    .mapToObj(id -> Entity.newBuilder(com.google.cloud.datastore.Key.newBuilder("project", "kind", id + 1).build()).build())
+                    .toList();
+
+            if (read != null && start > 0) {
+                read.countDown();
+            }
+            return results(entities, end, end - start == query.getLimit());
+        }).when(datastore).run(Mockito.any());
+    }
+
+    private int runs() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    private List<Long> readAll(PrefetchingIterator iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(e -> ids.add(e.getKey().getId()));
+        return ids;
+    }
+
+    @Test
+    void readsNothingFromEmptyResults() {
+        store(0, null, null);
+
+        PrefetchingIterator iterator = new PrefetchingIterator(datastore, executor, QUERY, 1);
+
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertEquals(1, runs());
+    }
+
+    @Test
+    void readsFullBatchThenChecksForMore() {
+        store(500, null, null);
+
+        List<Long> ids = readAll(new PrefetchingIterator(datastore, executor, QUERY, 1));
+
+        assertEquals(LongStream.rangeClosed(1, 500).boxed().toList(), ids);
+        assertEquals(2, runs());
+        assertEquals(500, (int) queries.get(0).getLimit());
+        assertEquals(cursor(500), queries.get(1).getStartCursor());
+    }
+
+    @Test
+    void readsFromEndCursorOfPreviousBatch() {
+        store(501, null, null);
+
+        List<Long> ids = readAll(new PrefetchingIterator(datastore, executor, QUERY, 1));
+
+        assertEquals(LongStream.rangeClosed(1, 501).boxed().toList(), ids);
+        assertEquals(2, runs());
+        assertEquals(cursor(500), queries.get(1).getStartCursor());
+        assertEquals(500, (int) queries.get(1).getLimit());
+    }
+
+    @Test
+    void readsBatchesAheadUpToDepth() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        store(1500, release, null);
+
+        PrefetchingIterator iterator = new PrefetchingIterator(datastore, executor, QUERY, 2);
+        iterator.next();
+        Thread.sleep(200);
+
+        assertEquals(2, runs());
+        release.countDown();
+        assertEquals(1499, readAll(iterator).size());
+        assertEquals(4, runs());
+    }
+
+    @Test
+    void closeCancelsBatchesReadAhead() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch read = new CountDownLatch(1);
+        store(1500, release, read);
+
+        PrefetchingIterator iterator = new PrefetchingIterator(datastore, executor, QUERY, 2);
+        iterator.next();
+        iterator.close();
+        release.countDown();
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        assertFalse(iterator.hasNext());
+        assertEquals(2, runs());
+    }
+
+    @Test
+    void onlySupportsQueriesWithoutLimitOffsetOrCursors() {
+        assertTrue(PrefetchingIterator.supports(QUERY));
+        assertFalse(PrefetchingIterator.supports(QUERY.toBuilder().setLimit(10).build()));
+        assertFalse(PrefetchingIterator.supports(QUERY.toBuilder().setOffset(10).build()));
+        assertFalse(PrefetchingIterator.supports(QUERY.toBuilder().setStartCursor(cursor(1)).build()));
+        assertFalse(PrefetchingIterator.supports(QUERY.toBuilder().setEndCursor(cursor(1)).build()));
+    }
+
+    @Test
+    void disablesReadingAheadOnLoaderThreads() throws ExecutionException, InterruptedException {
+        executor.prefetchDepth = 2;
+
+        assertEquals(2, executor.getPrefetchDepth());
+        assertEquals(0, (int) executor.submit(executor::getPrefetchDepth).get());
+        assertEquals(2, (int) executor.async(executor::getPrefetchDepth).await().indefinitely());
+    }
+
+    @Test
+    void disablesReadingAheadWithoutDepth() {
+        executor.prefetchDepth = 0;
+        assertEquals(0, executor.getPrefetchDepth());
+
+        executor.prefetchDepth = -1;
+        assertEquals(0, executor.getPrefetchDepth());
+    }
+}
@@ -0,0 +1,248 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatastoreEntityProcessorTest {
+
+    private static Compilation compile(JavaFileObject... sources) {
+        return javac()
+                .withProcessors(new DatastoreEntityProcessor())
+                .compile(sources);
+    }
+
+    private static String generated(Compilation compilation, String qualifiedName) {
+        try {
+            return compilation.generatedSourceFile(qualifiedName).orElseThrow().getCharContent(true).toString();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void generatesCodecForAccessibleFields() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Plain", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                @DatastoreEntity(value = "plain", autoGenerateRepository = false)
+                public class Plain {
+                    @DatastoreKey(keyType = KeyType.STRING)
+                    public String id;
+                    @DatastorePropertyAs("label")
+                    public String name;
+                    public int count;
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Generated Codec 'test.PlainCodec'");
+
+        String codec = generated(compilation, "test.PlainCodec");
+        assertTrue(codec.contains("builder.set(\"label\", v);"));
+        assertTrue(codec.contains("o.name = v0;"));
+        assertTrue(codec.contains("o.id = completeKey.getName();"));
+    }
+
+    @Test
+    void generatesCodecCallingTheBuilder() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Built", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                @DatastoreEntity(value = "built", autoGenerateRepository = false)
+                public class Built {
+                    @DatastoreKey(keyType = KeyType.LONG)
+                    private Long id;
+                    private final String name;
+                    private long size;
+
+                    private Built(Long id, String name) {
+                        this.id = id;
+                        this.name = name;
+                    }
+
+                    public Long getId() { return id; }
+                    public String getName() { return name; }
+                    public long getSize() { return size; }
+                    public void setSize(long size) { this.size = size; }
+
+                    public static BuiltBuilder builder() { return new BuiltBuilder(); }
+
+                    public static class BuiltBuilder {
+                        private Long id;
+                        private String name;
+
+                        public BuiltBuilder id(Long id) { this.id = id; return this; }
+                        public BuiltBuilder name(String name) { this.name = name; return this; }
+                        public Built build() { return new Built(id, name); }
+                    }
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+
+        String codec = generated(compilation, "test.BuiltCodec");
+        assertTrue(codec.contains("var builder = test.Built.builder();"));
+        assertTrue(codec.contains("builder.id(completeKey.getId());"));
+        assertTrue(codec.contains("builder.name(v0);"));
+        assertTrue(codec.contains("test.Built o = builder.build();"));
+        assertTrue(codec.contains("o.setSize(v1);"));
+    }
+
+    @Test
+    void fallsBackToReflectionWithoutAccessors() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Hidden", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                @DatastoreEntity(value = "hidden", autoGenerateRepository = false)
+                public class Hidden {
+                    @DatastoreKey(keyType = KeyType.LONG)
+                    public Long id;
+                    private String name;
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Skipped Codec for 'test.Hidden', using reflection: field 'name' has no accessible getter and setter");
+        assertFalse(compilation.generatedSourceFile("test.HiddenCodec").isPresent());
+    }
+
+    @Test
+    void ignoresIsGettersLikeTheReflectiveAccess() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Flag", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                @DatastoreEntity(value = "flag", autoGenerateRepository = false)
+                public class Flag {
+                    @DatastoreKey(keyType = KeyType.LONG)
+                    public Long id;
+                    private boolean active;
+
+                    public boolean isActive() { return active; }
+                    public void setActive(boolean active) { this.active = active; }
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Skipped Codec for 'test.Flag', using reflection: field 'active' has no accessible getter and setter");
+        assertFalse(compilation.generatedSourceFile("test.FlagCodec").isPresent());
+    }
+
+    @Test
+    void fallsBackToReflectionForNestedFields() {
+        Compilation compilation = compile(
+                JavaFileObjects.forSourceString("test.Outer", """
+                        package test;
+
+                        import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                        @DatastoreEntity(value = "outer", autoGenerateRepository = false)
+                        public class Outer {
+                            @DatastoreKey(keyType = KeyType.LONG)
+                            public Long id;
+                            @DatastoreNested
+                            public Inner inner;
+                        }
+                        """),
+                JavaFileObjects.forSourceString("test.Inner", """
+                        package test;
+
+                        public class Inner {
+                            public String value;
+                        }
+                        """)
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Skipped Codec for 'test.Outer', using reflection: field 'inner' requires the reflective serde");
+        assertFalse(compilation.generatedSourceFile("test.OuterCodec").isPresent());
+    }
+
+    @Test
+    void fallsBackToReflectionWithoutConstructor() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Immutable", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                @DatastoreEntity(value = "immutable", autoGenerateRepository = false)
+                public class Immutable {
+                    @DatastoreKey(keyType = KeyType.LONG)
+                    public Long id;
+                    public String name;
+
+                    public Immutable(Long id, String name) {
+                        this.id = id;
+                        this.name = name;
+                    }
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Skipped Codec for 'test.Immutable', using reflection: has no builder or no arguments constructor");
+        assertFalse(compilation.generatedSourceFile("test.ImmutableCodec").isPresent());
+    }
+
+    @Test
+    void generatesMetamodelOfQueryableFields() {
+        Compilation compilation = compile(
+                JavaFileObjects.forSourceString("test.Scored", """
+                        package test;
+
+                        import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+                        import java.util.List;
+
+                        @DatastoreEntity(value = "scored", autoGenerateRepository = false)
+                        public class Scored {
+                            @DatastoreKey(keyType = KeyType.STRING)
+                            public String id;
+                            @DatastoreAncestor(keyType = KeyType.LONG, kind = "owner")
+                            public Long owner;
+                            @DatastorePropertyAs("label")
+                            public String name;
+                            public long score;
+                            @DatastoreExcludeFromIndex
+                            public String notes;
+                            public List<String> tags;
+                            @DatastoreNested
+                            public Inner inner;
+                        }
+                        """),
+                JavaFileObjects.forSourceString("test.Inner", """
+                        package test;
+
+                        public class Inner {
+                            public String value;
+                        }
+                        """)
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Generated Metamodel 'test.Scored_'");
+
+        String metamodel = generated(compilation, "test.Scored_");
+        assertTrue(metamodel.contains("public static final com.roundfeather.persistence.utils.datastore.query.Property<test.Scored, java.lang.String> name = com.roundfeather.persistence.utils.datastore.query.Property.of(test.Scored.class, \"name\", \"label\");"));
+        assertTrue(metamodel.contains("public static final com.roundfeather.persistence.utils.datastore.query.Property<test.Scored, java.lang.Long> score = com.roundfeather.persistence.utils.datastore.query.Property.of(test.Scored.class, \"score\", \"score\");"));
+        assertFalse(metamodel.contains(" id ="));
+        assertFalse(metamodel.contains(" owner ="));
+        assertFalse(metamodel.contains(" notes ="));
+        assertFalse(metamodel.contains(" tags ="));
+        assertFalse(metamodel.contains(" inner ="));
+    }
+}
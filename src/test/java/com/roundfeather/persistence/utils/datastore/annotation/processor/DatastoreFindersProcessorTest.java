@@ -0,0 +1,147 @@
+package com.roundfeather.persistence.utils.datastore.annotation.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatastoreFindersProcessorTest {
+
+    private static final JavaFileObject PLAYER = JavaFileObjects.forSourceString("test.Player", """
+            package test;
+
+            import com.roundfeather.persistence.utils.datastore.annotation.*;
+
+            @DatastoreEntity(value = "player", autoGenerateRepository = false)
+            public class Player {
+                @DatastoreKey(keyType = KeyType.LONG)
+                public Long id;
+                public String name;
+                public long score;
+                @DatastoreExcludeFromIndex
+                public String notes;
+            }
+            """);
+
+    private static Compilation compile(JavaFileObject... sources) {
+        return javac()
+                .withProcessors(new DatastoreFindersProcessor())
+                .compile(sources);
+    }
+
+    private static String generated(Compilation compilation, String qualifiedName) {
+        try {
+            return compilation.generatedSourceFile(qualifiedName).orElseThrow().getCharContent(true).toString();
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void generatesImplementationOfFinders() {
+        Compilation compilation = compile(PLAYER, JavaFileObjects.forSourceString("test.PlayerFinders", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.Ancestor;
+                import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+                import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+                import com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders;
+
+                import java.util.Collection;
+                import java.util.List;
+
+                @DatastoreFinders
+                public interface PlayerFinders extends DatastoreRepository<Player> {
+                    List<Player> findByName(DatastoreNamespace ns, String name);
+                    Player findFirstByScoreGreaterThanOrderByScoreDescNameAsc(DatastoreNamespace ns, long score, Ancestor... ancestors);
+                    long countByNameIn(DatastoreNamespace ns, Collection<String> names);
+                    boolean existsByNameAndScoreLessThanEqual(DatastoreNamespace ns, String name, long score, List<Ancestor> ancestors);
+                }
+                """));
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("Generated Finders 'test.PlayerFindersImpl'");
+
+        String impl = generated(compilation, "test.PlayerFindersImpl");
+        assertTrue(impl.contains("private static final com.roundfeather.persistence.utils.datastore.query.Property<test.Player, java.lang.String> NAME = com.roundfeather.persistence.utils.datastore.query.Property.of(test.Player.class, \"name\", \"name\");"));
+        assertTrue(impl.contains("private static final com.roundfeather.persistence.utils.datastore.query.Property<test.Player, java.lang.Long> SCORE = com.roundfeather.persistence.utils.datastore.query.Property.of(test.Player.class, \"score\", \"score\");"));
+        assertTrue(impl.contains("return \"player\";"));
+        assertTrue(impl.contains("public java.util.List<test.Player> findByName(com.roundfeather.persistence.utils.datastore.DatastoreNamespace ns, java.lang.String name)"));
+        assertTrue(impl.contains("public test.Player findFirstByScoreGreaterThanOrderByScoreDescNameAsc(com.roundfeather.persistence.utils.datastore.DatastoreNamespace ns, long score, com.roundfeather.persistence.utils.datastore.Ancestor... ancestors)"));
+        assertTrue(impl.contains(".ancestors(ancestors)\n                .where(SCORE.gt(score))\n                .orderBy(SCORE.desc(), NAME.asc())\n                .first();"));
+        assertTrue(impl.contains(".where(NAME.in(names))\n                .count();"));
+        assertTrue(impl.contains(".where(NAME.eq(name), SCORE.le(score))\n                .exists();"));
+    }
+
+    @Test
+    void reportsInvalidFinders() {
+        Compilation compilation = compile(PLAYER, JavaFileObjects.forSourceString("test.BadFinders", """
+                package test;
+
+                import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+                import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+                import com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders;
+
+                import java.util.List;
+
+                @DatastoreFinders
+                public interface BadFinders extends DatastoreRepository<Player> {
+                    List<Player> getByName(DatastoreNamespace ns, String name);
+                    boolean existsByName(String name);
+                    String findFirstByName(DatastoreNamespace ns, String name);
+                    String countByScore(DatastoreNamespace ns, long score);
+                    List<Player> findByNickname(DatastoreNamespace ns, String nickname);
+                    List<Player> findByNotes(DatastoreNamespace ns, String notes);
+                    List<Player> findByNameAndScore(DatastoreNamespace ns, String name);
+                    List<Player> findByScore(DatastoreNamespace ns, String score);
+                    List<Player> findByNameOrderByRank(DatastoreNamespace ns, String name);
+                    long countByName(DatastoreNamespace ns, String name, String extra);
+                }
+                """));
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Finder 'getByName' must start with findBy, findFirstBy, countBy or existsBy");
+        assertThat(compilation).hadErrorContaining("Finder 'existsByName' must take a DatastoreNamespace as first parameter");
+        assertThat(compilation).hadErrorContaining("Finder 'findFirstByName' must return Player");
+        assertThat(compilation).hadErrorContaining("Finder 'countByScore' must return long");
+        assertThat(compilation).hadErrorContaining("Finder 'findByNickname' condition 'Nickname' doesn't match a queryable field of 'test.Player'");
+        assertThat(compilation).hadErrorContaining("Finder 'findByNotes' condition 'Notes' doesn't match a queryable field of 'test.Player'");
+        assertThat(compilation).hadErrorContaining("Finder 'findByNameAndScore' has no parameter for condition 'Score'");
+        assertThat(compilation).hadErrorContaining("Finder 'findByScore' parameter 'score' doesn't match the type of field 'score'");
+        assertThat(compilation).hadErrorContaining("Finder 'findByNameOrderByRank' ordering 'Rank' doesn't match a queryable field of 'test.Player'");
+        assertThat(compilation).hadErrorContaining("Finder 'countByName' parameter 'extra' doesn't match any condition");
+        assertFalse(compilation.generatedSourceFile("test.BadFindersImpl").isPresent());
+    }
+
+    @Test
+    void rejectsClasses() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.NotAnInterface", """
+                package test;
+
+                @com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders
+                public abstract class NotAnInterface {
+                }
+                """));
+
+        assertThat(compilation).hadErrorContaining("DatastoreFinders can only annotate an interface");
+    }
+
+    @Test
+    void rejectsInterfacesWithoutEntity() {
+        Compilation compilation = compile(JavaFileObjects.forSourceString("test.Orphan", """
+                package test;
+
+                @com.roundfeather.persistence.utils.datastore.annotation.DatastoreFinders
+                public interface Orphan {
+                }
+                """));
+
+        assertThat(compilation).hadErrorContaining("Interface 'test.Orphan' must extend DatastoreRepository of a DatastoreEntity");
+    }
+}
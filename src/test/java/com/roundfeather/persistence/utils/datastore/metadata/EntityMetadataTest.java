@@ -0,0 +1,155 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.ChildAncestorsFactory;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreAncestor;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExcludeFromIndex;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExternalEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreNested;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastorePropertyAs;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSkip;
+import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityMetadataTest {
+
+    public static class Base {
+        public String createdBy;
+    }
+
+    public static class MappedAncestors implements ChildAncestorsFactory<Mapped> {
+        @Override
+        public List<Ancestor> buildChildAncestors(Mapped mapped) {
+            return List.of(Ancestor.of("mapped", mapped.id));
+        }
+    }
+
+    @DatastoreEntity(value = "mapped", autoGenerateRepository = false)
+    public static class Mapped extends Base {
+        public static final String CONSTANT = "constant";
+
+        @DatastoreKey(keyType = KeyType.LONG)
+        public Long id;
+
+        @DatastoreAncestor(keyType = KeyType.STRING, kind = "second", order = 2)
+        public String second;
+
+        @DatastoreAncestor(keyType = KeyType.STRING, kind = "first", order = 1)
+        public String first;
+
+        @DatastorePropertyAs("label")
+        public String name;
+
+        @DatastoreExcludeFromIndex
+        public String notes;
+
+        @DatastoreNested
+        public Base nested;
+
+        @DatastoreExternalEntity(ancestorFactory = MappedAncestors.class)
+        public List<Base> children;
+
+        @DatastoreSkip
+        public String skipped;
+    }
+
+    public static class Plain {
+        public String name;
+    }
+
+    private static List<String> names(List<FieldMetadata> fields) {
+        return fields.stream().map(FieldMetadata::getName).toList();
+    }
+
+    @Test
+    void computesMetadataOncePerClass() {
+        EntityMetadata metadata = EntityMetadata.of(Mapped.class);
+
+        assertSame(metadata, EntityMetadata.of(Mapped.class));
+        assertSame(metadata.getField("name"), EntityMetadata.of(Mapped.class).getField("name"));
+        assertSame(metadata.getInstantiator(), metadata.getInstantiator());
+    }
+
+    @Test
+    void readsEntityAnnotations() {
+        EntityMetadata metadata = EntityMetadata.of(Mapped.class);
+
+        assertTrue(metadata.isEntity());
+        assertEquals("mapped", metadata.getKind());
+        assertEquals("id", metadata.getKeyField().getName());
+        assertEquals(List.of("first", "second"), names(metadata.getAncestorFields()));
+        assertSame(metadata.getField("second"), metadata.getAncestorField("second"));
+        assertNull(metadata.getAncestorField("third"));
+        assertTrue(metadata.isKeyWritable());
+
+        assertFalse(EntityMetadata.of(Plain.class).isEntity());
+        assertNull(EntityMetadata.of(Plain.class).getKeyField());
+    }
+
+    @Test
+    void includesInheritedInstanceFields() {
+        EntityMetadata metadata = EntityMetadata.of(Mapped.class);
+
+        assertEquals(List.of("id", "second", "first", "name", "notes", "nested", "children", "skipped", "createdBy"), names(metadata.getFields()));
+        assertNull(metadata.getField("CONSTANT"));
+        assertEquals(metadata.getFields().size(), metadata.newValues().length);
+
+        for (int i = 0; i < metadata.getFields().size(); i++) {
+            assertEquals(i, metadata.getFields().get(i).getIndex());
+            assertSame(Instantiator.ABSENT, metadata.newValues()[i]);
+        }
+    }
+
+    @Test
+    void groupsFieldsByRole() {
+        EntityMetadata metadata = EntityMetadata.of(Mapped.class);
+
+        assertEquals(List.of("name", "notes", "nested", "createdBy"), names(metadata.getSerializableFields()));
+        assertEquals(List.of("name", "notes", "createdBy"), names(metadata.getPropertyFields()));
+        assertEquals(List.of("nested"), names(metadata.getNestedFields()));
+        assertEquals(List.of("children"), names(metadata.getExternalFields()));
+    }
+
+    @Test
+    void readsFieldAnnotations() {
+        EntityMetadata metadata = EntityMetadata.of(Mapped.class);
+
+        FieldMetadata name = metadata.getField("name");
+        assertEquals("label", name.getPropertyName());
+        assertEquals(String.class, name.getType());
+        assertFalse(name.isExcludeFromIndex());
+        assertNull(name.getCustomSerde());
+
+        assertTrue(metadata.getField("notes").isExcludeFromIndex());
+        assertEquals("notes", metadata.getField("notes").getPropertyName());
+        assertTrue(metadata.getField("nested").isNested());
+        assertTrue(metadata.getField("skipped").isSkip());
+        assertTrue(metadata.getField("children").isExternal());
+        assertTrue(metadata.getField("id").isKey());
+        assertTrue(metadata.getField("first").isAncestor());
+    }
+
+    @Test
+    void readsAndWritesValuesThroughAccessor() {
+        Mapped mapped = new Mapped();
+        FieldMetadata name = EntityMetadata.of(Mapped.class).getField("name");
+        FieldMetadata createdBy = EntityMetadata.of(Mapped.class).getField("createdBy");
+
+        name.setValue(mapped, "n");
+        createdBy.setValue(mapped, "me");
+
+        assertEquals("n", mapped.name);
+        assertEquals("me", mapped.createdBy);
+        assertEquals("n", name.getValue(mapped));
+    }
+}
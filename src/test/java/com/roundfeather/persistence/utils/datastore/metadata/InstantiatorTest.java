@@ -0,0 +1,155 @@
+package com.roundfeather.persistence.utils.datastore.metadata;
+
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import lombok.Builder;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstantiatorTest {
+
+    public record Point(String name, int x, int y) {
+    }
+
+    @Getter
+    @Builder
+    public static class Built {
+        private final String name;
+        @Builder.Default
+        private final int size = 7;
+    }
+
+    @Getter
+    public static class Range {
+        private final long from;
+        private final long to;
+
+        public Range(long to, long from) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    public static class Parent {
+        public String createdBy;
+    }
+
+    @Getter
+    public static class Child extends Parent {
+        private final String name;
+
+        public Child(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Plain {
+        public String name;
+        public int size = 3;
+    }
+
+    public abstract static class Abstract {
+        public String name;
+    }
+
+    private static Object[] values(EntityMetadata metadata, Map<String, Object> values) {
+        Object[] v = metadata.newValues();
+        values.forEach((name, value) -> v[metadata.getField(name).getIndex()] = value);
+        return v;
+    }
+
+    private static boolean consumes(EntityMetadata metadata, String name) {
+        return metadata.getInstantiator().consumes(metadata.getField(name).getIndex());
+    }
+
+    @Test
+    void createsRecordWithCanonicalConstructor() {
+        EntityMetadata metadata = EntityMetadata.of(Point.class);
+
+        Point p = (Point) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "p", "x", 1, "y", 2)));
+
+        assertEquals(new Point("p", 1, 2), p);
+        assertTrue(consumes(metadata, "name"));
+        assertTrue(consumes(metadata, "x"));
+        assertTrue(consumes(metadata, "y"));
+    }
+
+    @Test
+    void defaultsAbsentRecordComponents() {
+        EntityMetadata metadata = EntityMetadata.of(Point.class);
+
+        Point p = (Point) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "p")));
+
+        assertEquals(new Point("p", 0, 0), p);
+    }
+
+    @Test
+    void createsWithBuilder() {
+        EntityMetadata metadata = EntityMetadata.of(Built.class);
+
+        Built b = (Built) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "b", "size", 2)));
+
+        assertEquals("b", b.getName());
+        assertEquals(2, b.getSize());
+        assertTrue(consumes(metadata, "name"));
+        assertTrue(consumes(metadata, "size"));
+    }
+
+    @Test
+    void keepsBuilderDefaultOfAbsentValue() {
+        EntityMetadata metadata = EntityMetadata.of(Built.class);
+
+        Built b = (Built) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "b")));
+
+        assertEquals(7, b.getSize());
+    }
+
+    @Test
+    void matchesSameTypedParametersByName() {
+        EntityMetadata metadata = EntityMetadata.of(Range.class);
+
+        Range r = (Range) metadata.getInstantiator().newInstance(values(metadata, Map.of("from", 1L, "to", 9L)));
+
+        assertEquals(1L, r.getFrom());
+        assertEquals(9L, r.getTo());
+    }
+
+    @Test
+    void leavesInheritedFieldsToBeSet() {
+        EntityMetadata metadata = EntityMetadata.of(Child.class);
+
+        Child c = (Child) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "c", "createdBy", "me")));
+
+        assertEquals("c", c.getName());
+        assertNull(c.createdBy);
+        assertTrue(consumes(metadata, "name"));
+        assertFalse(consumes(metadata, "createdBy"));
+    }
+
+    @Test
+    void createsWithNoArgsConstructor() {
+        EntityMetadata metadata = EntityMetadata.of(Plain.class);
+
+        Plain p = (Plain) metadata.getInstantiator().newInstance(values(metadata, Map.of("name", "p", "size", 5)));
+
+        assertNull(p.name);
+        assertEquals(3, p.size);
+        assertFalse(consumes(metadata, "name"));
+        assertFalse(consumes(metadata, "size"));
+    }
+
+    @Test
+    void failsForAbstractClass() {
+        EntityMetadata metadata = EntityMetadata.of(Abstract.class);
+        Object[] values = metadata.newValues();
+
+        assertThrows(PavenSerdeException.class, () -> metadata.getInstantiator().newInstance(values));
+    }
+}
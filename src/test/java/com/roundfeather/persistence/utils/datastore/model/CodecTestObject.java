@@ -0,0 +1,38 @@
+package com.roundfeather.persistence.utils.datastore.model;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreAncestor;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastorePropertyAs;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreWithSerde;
+import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+import com.roundfeather.persistence.utils.datastore.serde.impl.TimestampLongSerde;
+
+@DatastoreEntity("codecTestObject")
+public class CodecTestObject {
+
+    @DatastoreKey(keyType = KeyType.LONG)
+    public Long id;
+
+    @DatastoreAncestor(keyType = KeyType.STRING, kind = "a")
+    public String ancestor;
+
+    public TestObject2 to2;
+
+    @DatastorePropertyAs("name")
+    public String label;
+
+    public int count;
+
+    public double weight;
+
+    public boolean active;
+
+    @DatastoreWithSerde(ReversedStringSerde.class)
+    public String code;
+
+    @DatastoreWithSerde(TimestampLongSerde.class)
+    public Long createdAt;
+
+    public CodecTestObject() {}
+}
@@ -0,0 +1,22 @@
+package com.roundfeather.persistence.utils.datastore.model;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreExternalEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+
+import java.util.List;
+
+@DatastoreEntity("owner")
+public class Owner {
+
+    @DatastoreKey(keyType = KeyType.LONG)
+    public Long id;
+
+    public String name;
+
+    @DatastoreExternalEntity(ancestorFactory = OwnerAncestors.class)
+    public List<Pet> pets;
+
+    public Owner() {}
+}
@@ -0,0 +1,23 @@
+package com.roundfeather.persistence.utils.datastore.model;
+
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.ChildAncestorsFactory;
+import jakarta.enterprise.context.Dependent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Dependent
+public class OwnerAncestors implements ChildAncestorsFactory<Owner> {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public OwnerAncestors() {
+        CREATED.incrementAndGet();
+    }
+
+    @Override
+    public List<Ancestor> buildChildAncestors(Owner owner) {
+        return List.of(Ancestor.of("owner", owner.id));
+    }
+}
@@ -0,0 +1,20 @@
+package com.roundfeather.persistence.utils.datastore.model;
+
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreAncestor;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreEntity;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreKey;
+import com.roundfeather.persistence.utils.datastore.annotation.KeyType;
+
+@DatastoreEntity("pet")
+public class Pet {
+
+    @DatastoreKey(keyType = KeyType.LONG)
+    public Long id;
+
+    @DatastoreAncestor(keyType = KeyType.LONG, kind = "owner")
+    public Long owner;
+
+    public String name;
+
+    public Pet() {}
+}
@@ -0,0 +1,34 @@
+package com.roundfeather.persistence.utils.datastore.model;
+
+import com.google.cloud.datastore.NullValue;
+import com.google.cloud.datastore.StringValue;
+import com.google.cloud.datastore.Value;
+import com.google.cloud.datastore.ValueType;
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.serde.CustomSerde;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class ReversedStringSerde implements CustomSerde<String> {
+
+    @Override
+    public Value serialize(EntityManager em, String o, boolean excludeFromIndex) {
+        if (o == null) {
+            return NullValue.newBuilder().setExcludeFromIndexes(excludeFromIndex).build();
+        }
+
+        return StringValue
+                .newBuilder(new StringBuilder(o).reverse().toString())
+                .setExcludeFromIndexes(excludeFromIndex)
+                .build();
+    }
+
+    @Override
+    public String deserialize(EntityManager em, Value v) {
+        if (v.getType() == ValueType.NULL) {
+            return null;
+        }
+
+        return new StringBuilder((String) v.get()).reverse().toString();
+    }
+}
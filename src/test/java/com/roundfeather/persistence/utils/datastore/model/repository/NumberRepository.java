@@ -0,0 +1,9 @@
+package com.roundfeather.persistence.utils.datastore.model.repository;
+
+import com.roundfeather.persistence.utils.datastore.DatastoreRepository;
+import jakarta.enterprise.context.Dependent;
+
+@Dependent
+public class NumberRepository<N extends Number> implements DatastoreRepository<N> {
+
+}
@@ -0,0 +1,91 @@
+package com.roundfeather.persistence.utils.datastore.query;
+
+import com.google.cloud.datastore.Datastore;
+import com.google.cloud.datastore.EntityQuery;
+import com.google.cloud.datastore.ListValue;
+import com.google.cloud.datastore.LongValue;
+import com.google.cloud.datastore.Query;
+import com.google.cloud.datastore.StringValue;
+import com.google.cloud.datastore.StructuredQuery.CompositeFilter;
+import com.google.cloud.datastore.StructuredQuery.OrderBy;
+import com.google.cloud.datastore.StructuredQuery.PropertyFilter;
+import com.roundfeather.persistence.utils.datastore.Ancestor;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import com.roundfeather.persistence.utils.datastore.model.CodecTestObject;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+class DatastoreQueryTest {
+
+    private static final DatastoreNamespace NAMESPACE = DatastoreNamespace.of("namespace");
+
+    private static final Property<CodecTestObject, Long> ID = Property.of(CodecTestObject.class, "id", "id");
+    private static final Property<CodecTestObject, String> LABEL = Property.of(CodecTestObject.class, "label", "name");
+    private static final Property<CodecTestObject, Integer> COUNT = Property.of(CodecTestObject.class, "count", "count");
+    private static final Property<CodecTestObject, String> CODE = Property.of(CodecTestObject.class, "code", "code");
+    private static final Property<CodecTestObject, String> MISSING = Property.of(CodecTestObject.class, "missing", "missing");
+
+    @Inject
+    Datastore datastore;
+
+    @Test
+    void buildsQueryOfKind() {
+        EntityQuery query = DatastoreQuery.of(NAMESPACE, CodecTestObject.class).build();
+
+        assertEquals(Query.newEntityQueryBuilder().setKind("codecTestObject").setNamespace("namespace").build(), query);
+    }
+
+    @Test
+    void combinesConditionsWithAncestor() {
+        EntityQuery query = DatastoreQuery.of(NAMESPACE, CodecTestObject.class)
+                .ancestors(Ancestor.of("a", "ancestor"))
+                .where(LABEL.eq("label"), COUNT.in(1, 2), CODE.eq("CODE"))
+                .orderBy(COUNT.desc(), LABEL.asc())
+                .limit(10)
+                .build();
+
+        EntityQuery expected = Query.newEntityQueryBuilder()
+                .setKind("codecTestObject")
+                .setNamespace("namespace")
+                .setFilter(CompositeFilter.and(
+                        PropertyFilter.hasAncestor(datastore.newKeyFactory().setKind("a").setNamespace("namespace").newKey("ancestor")),
+                        PropertyFilter.eq("name", StringValue.of("label")),
+                        PropertyFilter.in("count", ListValue.of(List.of(LongValue.of(1), LongValue.of(2)))),
+                        PropertyFilter.eq("code", StringValue.of("EDOC"))
+                ))
+                .addOrderBy(OrderBy.desc("count"))
+                .addOrderBy(OrderBy.asc("name"))
+                .setLimit(10)
+                .build();
+
+        assertEquals(expected, query);
+    }
+
+    @Test
+    void usesSingleConditionAsFilter() {
+        EntityQuery query = DatastoreQuery.of(NAMESPACE, CodecTestObject.class)
+                .where(COUNT.ge(3))
+                .build();
+
+        assertEquals(PropertyFilter.ge("count", LongValue.of(3)), query.getFilter());
+    }
+
+    @Test
+    void rejectsFieldsWhichArentIndexedProperties() {
+        DatastoreQuery<CodecTestObject> byKey = DatastoreQuery.of(NAMESPACE, CodecTestObject.class).where(ID.eq(1L));
+        PavenSerdeException key = assertThrows(PavenSerdeException.class, byKey::build);
+        assertEquals(String.format("Field [id] of [%s] isn't an indexed property", CodecTestObject.class.getName()), key.getMessage());
+
+        DatastoreQuery<CodecTestObject> byMissing = DatastoreQuery.of(NAMESPACE, CodecTestObject.class).orderBy(MISSING.asc());
+        PavenSerdeException missing = assertThrows(PavenSerdeException.class, byMissing::build);
+        assertEquals(String.format("Class [%s] has no field [missing]", CodecTestObject.class.getName()), missing.getMessage());
+    }
+}
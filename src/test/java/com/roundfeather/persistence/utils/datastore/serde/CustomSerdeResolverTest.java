@@ -0,0 +1,77 @@
+package com.roundfeather.persistence.utils.datastore.serde;
+
+import com.google.cloud.datastore.StringValue;
+import com.google.cloud.datastore.Value;
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreWithSerde;
+import com.roundfeather.persistence.utils.datastore.metadata.EntityMetadata;
+import com.roundfeather.persistence.utils.datastore.metadata.FieldMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CustomSerdeResolverTest {
+
+    public static class CountingSerde implements CustomSerde<String> {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public CountingSerde() {
+            CREATED.incrementAndGet();
+        }
+
+        @Override
+        public Value serialize(EntityManager em, String o, boolean excludeFromIndex) {
+            return StringValue.of(o);
+        }
+
+        @Override
+        public String deserialize(EntityManager em, Value v) {
+            return ((StringValue) v).get();
+        }
+    }
+
+    public static class Holder {
+        @DatastoreWithSerde(CountingSerde.class)
+        public String first;
+
+        @DatastoreWithSerde(CountingSerde.class)
+        public String second;
+    }
+
+    @BeforeEach
+    void setup() {
+        CustomSerdeResolver.reset();
+        CountingSerde.CREATED.set(0);
+    }
+
+    @Test
+    void createsSerdeOnce() {
+        FieldMetadata first = EntityMetadata.of(Holder.class).getField("first");
+        FieldMetadata second = EntityMetadata.of(Holder.class).getField("second");
+
+        CustomSerde<Object> serde = first.getCustomSerde();
+        for (int i = 0; i < 100; i++) {
+            assertSame(serde, first.getCustomSerde());
+            assertSame(serde, second.getCustomSerde());
+        }
+
+        assertSame(serde, CustomSerdeResolver.of(CountingSerde.class));
+        assertEquals(1, CountingSerde.CREATED.get());
+    }
+
+    @Test
+    void resolvesSerdeAgainAfterReset() {
+        CustomSerde<Object> serde = CustomSerdeResolver.of(CountingSerde.class);
+
+        CustomSerdeResolver.reset();
+
+        assertNotSame(serde, CustomSerdeResolver.of(CountingSerde.class));
+        assertSame(CustomSerdeResolver.of(CountingSerde.class), CustomSerdeResolver.of(CountingSerde.class));
+        assertEquals(2, CountingSerde.CREATED.get());
+    }
+}
@@ -0,0 +1,130 @@
+package com.roundfeather.persistence.utils.datastore.serde;
+
+import com.google.cloud.datastore.LongValue;
+import com.google.cloud.datastore.StringValue;
+import com.google.cloud.datastore.Value;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.serde.impl.EntitySerde;
+import com.roundfeather.persistence.utils.datastore.serde.impl.LongSerde;
+import com.roundfeather.persistence.utils.datastore.serde.impl.StringSerde;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SerdeRegistryTest {
+
+    public record Money(long cents) {
+    }
+
+    public static class MoneySerde implements DataStoreObjectSerde<Money> {
+        private final int priority;
+        int checks;
+
+        MoneySerde(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public Class<Money> getType() {
+            return Money.class;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean canSerialize(Object o) {
+            checks++;
+            return o instanceof Money;
+        }
+
+        @Override
+        public Value serialize(EntityManager em, Object o, boolean excludeFromIndex) {
+            return LongValue.of(((Money) o).cents());
+        }
+
+        @Override
+        public boolean canDeserialize(Type tp, Value v) {
+            checks++;
+            return tp == Money.class;
+        }
+
+        @Override
+        public boolean canDeserialize(Class tp, Value v) {
+            checks++;
+            return tp == Money.class;
+        }
+
+        @Override
+        public Money deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Type tp) {
+            return new Money((Long) v.get());
+        }
+
+        @Override
+        public Money deserialize(DatastoreNamespace dsNamespace, EntityManager em, Value v, Class tp) {
+            return new Money((Long) v.get());
+        }
+    }
+
+    private final MoneySerde low = new MoneySerde(0);
+    private final MoneySerde high = new MoneySerde(10);
+    private final EntitySerde entitySerde = new EntitySerde();
+    private final SerdeRegistry registry = new SerdeRegistry();
+
+    @BeforeEach
+    void setup() {
+        registry.serdes = List.of(low, new StringSerde(), entitySerde, high, new LongSerde());
+        registry.defaultSerde = entitySerde;
+        registry.init();
+    }
+
+    @Test
+    void prefersSerdeWithHighestPriority() {
+        assertSame(high, registry.forSerialization(new Money(1L)));
+        assertSame(high, registry.forDeserialization((Type) Money.class, LongValue.of(1L)));
+        assertSame(high, registry.forDeserialization(Money.class, LongValue.of(1L)));
+    }
+
+    @Test
+    void fallsBackToEntitySerde() {
+        assertInstanceOf(StringSerde.class, registry.forSerialization("s"));
+        assertInstanceOf(LongSerde.class, registry.forDeserialization(Long.class, LongValue.of(1L)));
+        assertSame(entitySerde, registry.forSerialization(new Object()));
+        assertSame(entitySerde, registry.forDeserialization(Long.class, StringValue.of("s")));
+    }
+
+    @Test
+    void checksSerdesOnceForEachClass() {
+        registry.forSerialization(new Money(1L));
+        int checks = high.checks;
+
+        registry.forSerialization(new Money(2L));
+        registry.forSerialization(new Money(3L));
+
+        assertEquals(checks, high.checks);
+        assertEquals(0, low.checks);
+    }
+
+    @Test
+    void checksSerdesOnceForEachTypeAndValueType() {
+        registry.forDeserialization(Money.class, LongValue.of(1L));
+        registry.forDeserialization(Money.class, LongValue.of(2L));
+        assertEquals(1, high.checks);
+
+        registry.forDeserialization(Money.class, StringValue.of("3"));
+        assertEquals(2, high.checks);
+
+        registry.forDeserialization((Type) Money.class, LongValue.of(4L));
+        registry.forDeserialization((Type) Money.class, LongValue.of(5L));
+        assertEquals(3, high.checks);
+    }
+}
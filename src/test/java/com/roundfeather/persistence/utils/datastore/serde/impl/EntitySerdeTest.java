@@ -0,0 +1,283 @@
+package com.roundfeather.persistence.utils.datastore.serde.impl;
+
+import com.google.cloud.datastore.DoubleValue;
+import com.google.cloud.datastore.EntityValue;
+import com.google.cloud.datastore.FullEntity;
+import com.google.cloud.datastore.ListValue;
+import com.google.cloud.datastore.LongValue;
+import com.google.cloud.datastore.NullValue;
+import com.google.cloud.datastore.StringValue;
+import com.roundfeather.persistence.utils.datastore.DatastoreNamespace;
+import com.roundfeather.persistence.utils.datastore.EntityManager;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreNested;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastorePropertyAs;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSubType;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreSubTypes;
+import com.roundfeather.persistence.utils.datastore.annotation.DatastoreTypeInfo;
+import com.roundfeather.persistence.utils.datastore.annotation.InclusionType;
+import com.roundfeather.persistence.utils.datastore.exceptions.PavenSerdeException;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import lombok.Builder;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class EntitySerdeTest {
+
+    private static final DatastoreNamespace NAMESPACE = DatastoreNamespace.of("namespace");
+
+    @DatastoreTypeInfo(property = "kind")
+    @DatastoreSubTypes({
+            @DatastoreSubType(type = Circle.class, name = "circle"),
+            @DatastoreSubType(type = Square.class, names = {"square", "box"})
+    })
+    public abstract static class Shape {
+        public String kind;
+    }
+
+    public static class Circle extends Shape {
+        public double radius;
+    }
+
+    public static class Square extends Shape {
+        public double side;
+    }
+
+    @DatastoreTypeInfo(property = "type", defaultImpl = Dog.class)
+    @DatastoreSubTypes({
+            @DatastoreSubType(type = Dog.class, name = "dog"),
+            @DatastoreSubType(type = Cat.class, name = "cat")
+    })
+    public abstract static class Pet {
+        public String type;
+    }
+
+    public static class Dog extends Pet {
+    }
+
+    public static class Cat extends Pet {
+    }
+
+    public static class Drawing {
+        public String shapeKind;
+
+        @DatastoreTypeInfo(include = InclusionType.EXTERNAL_PROPERTY, property = "shapeKind")
+        @DatastoreSubTypes({
+                @DatastoreSubType(type = Circle.class, name = "circle"),
+                @DatastoreSubType(type = Square.class, name = "square")
+        })
+        public Shape shape;
+
+        public List<Shape> shapes;
+    }
+
+    @Getter
+    @Builder
+    public static class Sized {
+        private final String name;
+        @Builder.Default
+        private final long size = 7L;
+    }
+
+    public static class Audited {
+        public String createdBy;
+    }
+
+    @Getter
+    public static class Named extends Audited {
+        private final String name;
+
+        public Named(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Counted {
+        public String name;
+        public long count = 3L;
+    }
+
+    public static class Address {
+        public String city;
+    }
+
+    public static class Wide {
+        @DatastorePropertyAs("n")
+        public String name;
+        public long size;
+        @DatastoreNested
+        public Address address;
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EntitySerde entitySerde;
+
+    private Object deserialize(FullEntity e, Class<?> tp) {
+        return entitySerde.deserialize(NAMESPACE, entityManager, EntityValue.of(e), tp);
+    }
+
+    private static FullEntity circle(String kind, double radius) {
+        FullEntity.Builder builder = FullEntity.newBuilder().set("radius", DoubleValue.of(radius));
+        if (kind != null) {
+            builder.set("kind", StringValue.of(kind));
+        }
+        return builder.build();
+    }
+
+    private static FullEntity square(String kind, double side) {
+        return FullEntity.newBuilder()
+                .set("kind", StringValue.of(kind))
+                .set("side", DoubleValue.of(side))
+                .build();
+    }
+
+    @Test
+    void resolvesInternalDiscriminator() {
+        Circle circle = assertInstanceOf(Circle.class, deserialize(circle("circle", 2D), Shape.class));
+        assertEquals(2D, circle.radius);
+        assertEquals("circle", circle.kind);
+
+        Square square = assertInstanceOf(Square.class, deserialize(square("square", 3D), Shape.class));
+        assertEquals(3D, square.side);
+    }
+
+    @Test
+    void resolvesEveryNameOfSubtype() {
+        Square square = assertInstanceOf(Square.class, deserialize(square("box", 4D), Shape.class));
+        assertEquals(4D, square.side);
+        assertEquals("box", square.kind);
+    }
+
+    @Test
+    void resolvesExternalDiscriminatorFromSibling() {
+        FullEntity e = FullEntity.newBuilder()
+                .set("shapeKind", StringValue.of("circle"))
+                .set("shape", EntityValue.of(circle(null, 5D)))
+                .build();
+
+        Drawing drawing = (Drawing) deserialize(e, Drawing.class);
+
+        Circle circle = assertInstanceOf(Circle.class, drawing.shape);
+        assertEquals(5D, circle.radius);
+        assertNull(circle.kind);
+    }
+
+    @Test
+    void deserializesNullSubtypedValue() {
+        FullEntity e = FullEntity.newBuilder()
+                .set("shapeKind", StringValue.of("circle"))
+                .set("shape", NullValue.of())
+                .build();
+
+        Drawing drawing = (Drawing) deserialize(e, Drawing.class);
+
+        assertEquals("circle", drawing.shapeKind);
+        assertNull(drawing.shape);
+    }
+
+    @Test
+    void resolvesEachListElement() {
+        FullEntity e = FullEntity.newBuilder()
+                .set("shapes", ListValue.of(EntityValue.of(circle("circle", 1D)), EntityValue.of(square("box", 2D))))
+                .build();
+
+        Drawing drawing = (Drawing) deserialize(e, Drawing.class);
+
+        assertEquals(2, drawing.shapes.size());
+        assertInstanceOf(Circle.class, drawing.shapes.get(0));
+        assertInstanceOf(Square.class, drawing.shapes.get(1));
+    }
+
+    @Test
+    void failsWithoutDiscriminatorOrDefault() {
+        FullEntity e = circle(null, 1D);
+
+        PavenSerdeException ex = assertThrows(PavenSerdeException.class, () -> deserialize(e, Shape.class));
+        assertTrue(ex.getMessage().startsWith("Can't determine the subtype to deserialize"));
+
+        FullEntity unknown = circle("triangle", 1D);
+        assertThrows(PavenSerdeException.class, () -> deserialize(unknown, Shape.class));
+    }
+
+    @Test
+    void fallsBackToDefaultImplementation() {
+        assertInstanceOf(Cat.class, deserialize(FullEntity.newBuilder().set("type", StringValue.of("cat")).build(), Pet.class));
+        assertInstanceOf(Dog.class, deserialize(FullEntity.newBuilder().build(), Pet.class));
+        assertInstanceOf(Dog.class, deserialize(FullEntity.newBuilder().set("type", StringValue.of("hamster")).build(), Pet.class));
+    }
+
+    @Test
+    void keepsBuilderDefaultOfMissingProperty() {
+        Sized sized = (Sized) deserialize(FullEntity.newBuilder().set("name", StringValue.of("s")).build(), Sized.class);
+
+        assertEquals("s", sized.getName());
+        assertEquals(7L, sized.getSize());
+    }
+
+    @Test
+    void setsInheritedFieldsAfterConstruction() {
+        FullEntity e = FullEntity.newBuilder()
+                .set("name", StringValue.of("n"))
+                .set("createdBy", StringValue.of("me"))
+                .build();
+
+        Named named = (Named) deserialize(e, Named.class);
+
+        assertEquals("n", named.getName());
+        assertEquals("me", named.createdBy);
+    }
+
+    @Test
+    void keepsInitializerOfMissingProperty() {
+        Counted counted = (Counted) deserialize(FullEntity.newBuilder().set("name", StringValue.of("c")).build(), Counted.class);
+        assertEquals("c", counted.name);
+        assertEquals(3L, counted.count);
+
+        Counted set = (Counted) deserialize(FullEntity.newBuilder().set("count", LongValue.of(5L)).build(), Counted.class);
+        assertNull(set.name);
+        assertEquals(5L, set.count);
+    }
+
+    @Test
+    void looksUpPropertiesOfFieldsByName() {
+        FullEntity.Builder builder = FullEntity.newBuilder()
+                .set("n", StringValue.of("w"))
+                .set("size", LongValue.of(2L))
+                .set("city", StringValue.of("c"));
+        for (int i = 0; i < 1000; i++) {
+            builder.set("extra" + i, LongValue.of(i));
+        }
+        FullEntity e = Mockito.spy(builder.build());
+
+        Wide wide = (Wide) deserialize(e, Wide.class);
+
+        assertEquals("w", wide.name);
+        assertEquals(2L, wide.size);
+        assertEquals("c", wide.address.city);
+        Mockito.verify(e, Mockito.never()).getNames();
+        Mockito.verify(e, Mockito.never()).getProperties();
+        Mockito.verify(e, Mockito.never()).contains("extra0");
+    }
+
+    @Test
+    void skipsMissingPropertiesOfFields() {
+        Wide wide = (Wide) deserialize(FullEntity.newBuilder().set("name", StringValue.of("ignored")).build(), Wide.class);
+
+        assertNull(wide.name);
+        assertEquals(0L, wide.size);
+        assertNull(wide.address.city);
+    }
+}